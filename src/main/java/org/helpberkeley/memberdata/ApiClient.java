@@ -35,6 +35,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 
@@ -47,16 +48,25 @@ public class ApiClient {
     private final String apiUser;
     private final String apiKey;
     private final HttpClient client;
+    // null when no cache directory is configured
+    private final UploadCache uploadCache;
+
+    private static final int MAX_ATTEMPTS = 10;
+
+    // All requests, from all clients, share the Discourse rate limit.
+    static RequestScheduler requestScheduler = RequestScheduler.forDiscourse();
 
     // Test support
     static HttpClientFactory httpClientFactory = null;
-    static long RETRY_NAP_MILLISECONDS = TimeUnit.SECONDS.toMillis(10);
+    // Backoff before the first retry.  Doubles with each subsequent retry.
+    static long RETRY_NAP_MILLISECONDS = TimeUnit.SECONDS.toMillis(2);
 
     ApiClient(final Properties properties) {
 
         apiUser = properties.getProperty(Constants.API_USER_PROPERTY);
         apiKey = properties.getProperty(Constants.API_KEY_PROPERTY);
         auditAPIKey();
+        uploadCache = createUploadCache(properties);
 
         Authenticator authenticator = new Authenticator() {
             @Override
@@ -82,9 +92,15 @@ public class ApiClient {
         apiUser = properties.getProperty(Constants.API_USER_PROPERTY);
         apiKey = properties.getProperty(Constants.API_KEY_PROPERTY);
         auditAPIKey();
+        uploadCache = createUploadCache(properties);
         this.client = httpClient;
     }
 
+    private static UploadCache createUploadCache(final Properties properties) {
+        return UploadCache.create(properties.getProperty(Constants.UPLOAD_CACHE_DIRECTORY_PROPERTY),
+                properties.getProperty(Constants.UPLOAD_CACHE_SIZE_PROPERTY)).orElse(null);
+    }
+
     private void auditAPIKey() {
         if ((apiUser == null) || (apiKey == null)) {
             throw new MemberDataException("Missing "
@@ -97,10 +113,14 @@ public class ApiClient {
 
     private HttpResponse<String> send(HttpRequest request) {
 
-        for (int retry = 0; retry < 10; retry++ ) {
+        for (int retry = 0; retry < MAX_ATTEMPTS; retry++ ) {
+            HttpResponse<String> response = null;
+
+            requestScheduler.acquire();
+
             //noinspection LoggingSimilarMessage
             try {
-                HttpResponse <String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
                 switch (response.statusCode()) {
                     case Constants.HTTP_TOO_MANY_REQUESTS:
                     case Constants.HTTP_SERVICE_UNAVAILABLE:
@@ -115,20 +135,16 @@ public class ApiClient {
                 throw new RuntimeException("send " + request + " was interrupted");
             }
 
-            if (retry < 9) {
-                LOGGER.warn("Failure talking to Discourse, waiting 10 seconds and retrying.");
-                nap(RETRY_NAP_MILLISECONDS);
+            if (retry < (MAX_ATTEMPTS - 1)) {
+                long backoff = RequestScheduler.backoffMilliseconds(retry, RETRY_NAP_MILLISECONDS, response);
+                LOGGER.warn("Failure talking to Discourse, waiting {} milliseconds and retrying.", backoff);
+                // Everyone waits, not just this request.
+                requestScheduler.pause(backoff);
             }
         }
 
-        LOGGER.warn("10th retry failure seen from Discourse, exiting with a failure");
-        throw new RuntimeException("10 attempts to talk with Discourse failed");
-    }
-
-    private void nap(long milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException ignored) { }
+        LOGGER.warn("{} attempts failed talking to Discourse, exiting with a failure", MAX_ATTEMPTS);
+        throw new RuntimeException(MAX_ATTEMPTS + " attempts to talk with Discourse failed");
     }
 
     private HttpResponse<String> get(final String endpoint) {
@@ -289,6 +305,14 @@ public class ApiClient {
 
     String downloadFile(final String shortURLFileName) {
 
+        // Uploads never change, so a cached copy is always current.
+        if (uploadCache != null) {
+            Optional<String> cached = uploadCache.get(shortURLFileName);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
         String endpoint = Constants.DOWNLOAD_ENDPOINT + shortURLFileName;
 
         HttpRequest request = HttpRequest.newBuilder()
@@ -313,6 +337,10 @@ public class ApiClient {
             fileData += "\n";
         }
 
+        if (uploadCache != null) {
+            uploadCache.put(shortURLFileName, fileData);
+        }
+
         return fileData;
     }
 
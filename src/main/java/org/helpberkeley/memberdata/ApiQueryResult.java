@@ -21,50 +21,364 @@
 //
 package org.helpberkeley.memberdata;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Column oriented view of a Data Explorer query result.
+ *
+ * Integer columns are held as long[], boolean columns as bits, and string
+ * columns as dictionary codes into a per column table of distinct values.
+ * Columns with mixed or nested values fall back to an Object[].
+ * Cells are read by (row, column) through the typed getters; look up the
+ * column index once with getColumnIndex() before walking the rows.
+ */
 public class ApiQueryResult {
 
     public final String[] headers;
-    public final Object[] rows;
+
+    private final int rowCount;
+    private final Column[] columns;
 
     final Map<String, Integer> columnIndexes = new HashMap<>();
 
-    ApiQueryResult(final Object[] headers, final Object[] rows) {
-        this.headers = validateColumns(headers);
-        this.rows = rows;
+    private ApiQueryResult(final String[] headers, final Column[] columns, int rowCount) {
+        this.headers = headers;
+        this.columns = columns;
+        this.rowCount = rowCount;
+
+        for (int index = 0; index < headers.length; index++) {
+            String columnName = headers[index];
+            assert ! columnIndexes.containsKey(columnName) : columnName;
+            columnIndexes.put(columnName, index);
+        }
+    }
+
+    /**
+     * Read all of the remaining rows from the reader.
+     */
+    static ApiQueryResult read(final QueryResultReader reader) {
+
+        String[] headers = reader.getColumns();
+        ColumnBuilder[] builders = new ColumnBuilder[headers.length];
+
+        for (int index = 0; index < builders.length; index++) {
+            builders[index] = new ColumnBuilder();
+        }
+
+        int rowCount = 0;
+        while (reader.next()) {
+            for (int index = 0; index < builders.length; index++) {
+                builders[index].add(reader, index, rowCount);
+            }
+            rowCount++;
+        }
+
+        Column[] columns = new Column[headers.length];
+        for (int index = 0; index < columns.length; index++) {
+            columns[index] = builders[index].build(rowCount);
+        }
 
-        validate();
+        return new ApiQueryResult(headers, columns, rowCount);
     }
 
     Integer getColumnIndex(final String columnName) {
         return columnIndexes.get(columnName);
     }
 
-    private String[] validateColumns(final Object[] columns) {
+    public int getRowCount() {
+        return rowCount;
+    }
 
-        assert columns != null;
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        return columns[column].nulls.get(row);
+    }
 
-        String[] columnNames = new String[columns.length];
+    public long getLong(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col instanceof LongColumn) {
+            if (! col.nulls.get(row)) {
+                return ((LongColumn) col).values[row];
+            }
+        } else if (col instanceof ObjectColumn) {
+            Object value = ((ObjectColumn) col).values[row];
+            if (value instanceof Long) {
+                return (Long) value;
+            }
+        }
+        throw typeMismatch(row, column, "an integer");
+    }
 
-        for (int index = 0; index < columns.length; index++) {
-            String columnName = (String)columns[index];
-            columnNames[index] = columnName;
-            assert ! columnIndexes.containsKey(columnName) : columnName;
-            columnIndexes.put(columnName, index);
+    public boolean getBoolean(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col instanceof BooleanColumn) {
+            if (! col.nulls.get(row)) {
+                return ((BooleanColumn) col).values.get(row);
+            }
+        } else if (col instanceof ObjectColumn) {
+            Object value = ((ObjectColumn) col).values[row];
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            }
         }
+        throw typeMismatch(row, column, "a boolean");
+    }
 
-        return columnNames;
+    /**
+     * @return String value of the cell, or null if the cell is null.
+     */
+    public String getString(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col.nulls.get(row)) {
+            return null;
+        }
+        if (col instanceof StringColumn) {
+            StringColumn stringColumn = (StringColumn) col;
+            return stringColumn.dictionary[stringColumn.codes[row]];
+        } else if (col instanceof ObjectColumn) {
+            Object value = ((ObjectColumn) col).values[row];
+            if (value instanceof String) {
+                return (String) value;
+            }
+        }
+        throw typeMismatch(row, column, "a string");
     }
 
-    private void validate() {
-        assert headers != null;
-        assert rows != null;
+    /**
+     * @return Boxed value of the cell: Long, Boolean, String, Double, Object[], Map, or null.
+     */
+    public Object getObject(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col.nulls.get(row)) {
+            return null;
+        }
+        if (col instanceof LongColumn) {
+            return ((LongColumn) col).values[row];
+        }
+        if (col instanceof BooleanColumn) {
+            return ((BooleanColumn) col).values.get(row);
+        }
+        if (col instanceof StringColumn) {
+            StringColumn stringColumn = (StringColumn) col;
+            return stringColumn.dictionary[stringColumn.codes[row]];
+        }
+        return ((ObjectColumn) col).values[row];
+    }
+
+    /**
+     * @return Number of distinct non-null values in a string column, or -1 for other columns.
+     */
+    int getDistinctStringCount(int column) {
+        Column col = columns[column];
+        return (col instanceof StringColumn) ? ((StringColumn) col).dictionary.length : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "ApiQueryResult" + Arrays.toString(headers) + ", " + rowCount + " rows";
+    }
+
+    private void checkRow(int row) {
+        if ((row < 0) || (row >= rowCount)) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+    }
+
+    private MemberDataException typeMismatch(int row, int column, final String expected) {
+        return new MemberDataException("Query result row " + row + " column "
+                + headers[column] + " is not " + expected + ": " + getObject(row, column));
+    }
+
+    private abstract static class Column {
+        final BitSet nulls;
+
+        Column(final BitSet nulls) {
+            this.nulls = nulls;
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        final long[] values;
+
+        LongColumn(final BitSet nulls, final long[] values) {
+            super(nulls);
+            this.values = values;
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+        final BitSet values;
+
+        BooleanColumn(final BitSet nulls, final BitSet values) {
+            super(nulls);
+            this.values = values;
+        }
+    }
+
+    private static final class StringColumn extends Column {
+        final int[] codes;
+        final String[] dictionary;
+
+        StringColumn(final BitSet nulls, final int[] codes, final String[] dictionary) {
+            super(nulls);
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+        final Object[] values;
+
+        ObjectColumn(final BitSet nulls, final Object[] values) {
+            super(nulls);
+            this.values = values;
+        }
+    }
+
+    /**
+     * Accumulates one column.  The representation is chosen by the first
+     * non-null value, and falls back to boxed objects if a later value
+     * has a different type.
+     */
+    private static final class ColumnBuilder {
+
+        private enum Kind { UNKNOWN, LONG, BOOLEAN, STRING, OBJECT }
+
+        private Kind kind = Kind.UNKNOWN;
+        private final BitSet nulls = new BitSet();
+        private long[] longs;
+        private BitSet booleans;
+        private int[] codes;
+        private Map<String, Integer> dictionary;
+        private Object[] objects;
+
+        void add(final QueryResultReader reader, int index, int row) {
+            if (reader.isNull(index)) {
+                nulls.set(row);
+                return;
+            }
+
+            if (kind == Kind.UNKNOWN) {
+                start(reader, index, row);
+            }
+
+            switch (kind) {
+                case LONG:
+                    if (reader.isLong(index)) {
+                        longs = ensureCapacity(longs, row);
+                        longs[row] = reader.getLong(index);
+                        return;
+                    }
+                    break;
+                case BOOLEAN:
+                    if (reader.isBoolean(index)) {
+                        booleans.set(row, reader.getBoolean(index));
+                        return;
+                    }
+                    break;
+                case STRING:
+                    if (reader.isString(index)) {
+                        String value = reader.getString(index);
+                        Integer code = dictionary.get(value);
+                        if (code == null) {
+                            code = dictionary.size();
+                            dictionary.put(value, code);
+                        }
+                        codes = ensureCapacity(codes, row);
+                        codes[row] = code;
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (kind != Kind.OBJECT) {
+                toObjects(row);
+            }
+            objects = ensureCapacity(objects, row);
+            objects[row] = reader.getObject(index);
+        }
+
+        Column build(int rowCount) {
+            switch (kind) {
+                case LONG:
+                    return new LongColumn(nulls, Arrays.copyOf(longs, rowCount));
+                case BOOLEAN:
+                    return new BooleanColumn(nulls, booleans);
+                case STRING:
+                    String[] values = new String[dictionary.size()];
+                    for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                        values[entry.getValue()] = entry.getKey();
+                    }
+                    return new StringColumn(nulls, Arrays.copyOf(codes, rowCount), values);
+                case OBJECT:
+                    return new ObjectColumn(nulls, Arrays.copyOf(objects, rowCount));
+                default:
+                    // All nulls
+                    return new ObjectColumn(nulls, new Object[rowCount]);
+            }
+        }
+
+        private void start(final QueryResultReader reader, int index, int row) {
+            if (reader.isLong(index)) {
+                kind = Kind.LONG;
+                longs = new long[Math.max(16, row + 1)];
+            } else if (reader.isBoolean(index)) {
+                kind = Kind.BOOLEAN;
+                booleans = new BitSet();
+            } else if (reader.isString(index)) {
+                kind = Kind.STRING;
+                codes = new int[Math.max(16, row + 1)];
+                dictionary = new HashMap<>();
+            } else {
+                kind = Kind.OBJECT;
+                objects = new Object[Math.max(16, row + 1)];
+            }
+        }
+
+        // Box everything read so far, rows [0, row).
+        private void toObjects(int row) {
+            Object[] boxed = new Object[Math.max(16, row + 1)];
+            Column column = build(row);
+            for (int index = 0; index < row; index++) {
+                if (nulls.get(index)) {
+                    continue;
+                }
+                if (column instanceof LongColumn) {
+                    boxed[index] = ((LongColumn) column).values[index];
+                } else if (column instanceof BooleanColumn) {
+                    boxed[index] = ((BooleanColumn) column).values.get(index);
+                } else if (column instanceof StringColumn) {
+                    StringColumn stringColumn = (StringColumn) column;
+                    boxed[index] = stringColumn.dictionary[stringColumn.codes[index]];
+                }
+            }
+            kind = Kind.OBJECT;
+            objects = boxed;
+            longs = null;
+            booleans = null;
+            codes = null;
+            dictionary = null;
+        }
+
+        private static long[] ensureCapacity(long[] array, int row) {
+            return (row < array.length) ? array : Arrays.copyOf(array, Math.max(row + 1, array.length * 2));
+        }
+
+        private static int[] ensureCapacity(int[] array, int row) {
+            return (row < array.length) ? array : Arrays.copyOf(array, Math.max(row + 1, array.length * 2));
+        }
 
-        for (Object rowObject : rows) {
-            assert rowObject instanceof Object[] : rowObject;
-            assert ((Object[]) rowObject).length == headers.length;
+        private static Object[] ensureCapacity(Object[] array, int row) {
+            return (row < array.length) ? array : Arrays.copyOf(array, Math.max(row + 1, array.length * 2));
         }
     }
 }
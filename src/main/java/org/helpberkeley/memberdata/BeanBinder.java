@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import com.opencsv.bean.CsvBindByName;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds CSV rows to beans annotated with CsvBindByName.
+ *
+ * The annotations are read once per bean class, and the header is resolved once per file,
+ * into a column-index-to-setter table of MethodHandles.  Binding a row is then one
+ * constructor call and one setter call per bound column.
+ *
+ * Column names match the way opencsv matched them: trimmed and case-insensitive.
+ * Cell values are assigned as read, and columns with no matching field are ignored.
+ */
+public final class BeanBinder<T> {
+
+    public static final String FIELD_COUNT_MISMATCH = "Number of data fields does not match number of headers.";
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, String.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final Map<Class<?>, BeanColumns> beanColumns = new ConcurrentHashMap<>();
+
+    private final Class<? extends T> type;
+    private final MethodHandle constructor;
+    // Indexed by column number, null for columns not bound to a field
+    private final MethodHandle[] setters;
+
+    private BeanBinder(Class<? extends T> type, BeanColumns columns, String[] header) {
+        this.type = type;
+        this.constructor = columns.constructor;
+
+        setters = new MethodHandle[header.length];
+        for (int column = 0; column < header.length; column++) {
+            setters[column] = columns.setters.get(key(header[column]));
+        }
+    }
+
+    /**
+     * @param type Bean class, with a no-argument constructor and CsvBindByName String fields.
+     * @param header Header row, as read.
+     * @return A binder for rows following this header.
+     */
+    public static <T> BeanBinder<T> create(Class<? extends T> type, String[] header) {
+        return new BeanBinder<>(type, beanColumns.computeIfAbsent(type, BeanColumns::new), header);
+    }
+
+    /**
+     * @param row Data row, as read.
+     * @return New bean populated from the row.
+     * @throws MemberDataException If the row and the header have a different number of columns.
+     */
+    public T bind(String[] row) {
+        if (row.length != setters.length) {
+            throw new MemberDataException(FIELD_COUNT_MISMATCH);
+        }
+
+        try {
+            Object bean = (Object) constructor.invokeExact();
+            for (int column = 0; column < row.length; column++) {
+                MethodHandle setter = setters[column];
+                if (setter != null) {
+                    setter.invokeExact(bean, row[column]);
+                }
+            }
+            return type.cast(bean);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new MemberDataException(new UndeclaredThrowableException(ex));
+        }
+    }
+
+    private static String key(final String columnName) {
+        return columnName.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Constructor and setters for one bean class, by column key.
+     */
+    private static final class BeanColumns {
+
+        final MethodHandle constructor;
+        final Map<String, MethodHandle> setters = new HashMap<>();
+
+        BeanColumns(Class<?> type) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(CONSTRUCTOR_TYPE);
+
+                for (Class<?> clazz = type; clazz != Object.class; clazz = clazz.getSuperclass()) {
+                    for (Field field : clazz.getDeclaredFields()) {
+                        CsvBindByName bindByName = field.getAnnotation(CsvBindByName.class);
+                        if (bindByName == null) {
+                            continue;
+                        }
+                        assert field.getType() == String.class : type.getName() + "." + field.getName();
+                        setters.putIfAbsent(key(bindByName.column()),
+                                lookup.unreflectSetter(field).asType(SETTER_TYPE));
+                    }
+                }
+            } catch (NoSuchMethodException | IllegalAccessException ex) {
+                throw new MemberDataException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2024 helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * A CSV file tokenized once, shared by version detection, control block
+ * processing and bean binding.
+ *
+ * Rows are read on demand.  Rows examined before binding begins (the header and the
+ * version scan of the control block) are kept so they can be read again; bean binding
+ * then streams the remaining rows straight from the reader without keeping them.
+ */
+public final class CSVRows {
+
+    private final CSVReader csvReader;
+    // Rows read ahead of bean binding
+    private final List<String[]> rows = new ArrayList<>();
+    // Physical line number of the end of each kept row, for error messages
+    private final List<Long> lineNumbers = new ArrayList<>();
+    private boolean exhausted = false;
+    private boolean streaming = false;
+    private List<String> header;
+
+    private CSVRows(final Reader reader) {
+        csvReader = new CSVReader(reader);
+    }
+
+    public static CSVRows parse(final String csvData) {
+        return new CSVRows(new StringReader(csvData));
+    }
+
+    public boolean isEmpty() {
+        return ! readAhead(0);
+    }
+
+    /**
+     * @return Trimmed column names from the first row.
+     */
+    public List<String> header() {
+        if (header == null) {
+            header = readAhead(0) ? trim(rows.get(0)) : List.of();
+        }
+        return header;
+    }
+
+    /**
+     * Rows, including the header, trimmed as each is read.
+     * Only the rows actually iterated over are read.  Not usable once bean binding has begun.
+     * @return Iterable over the rows.
+     */
+    public Iterable<List<String>> trimmedRows() {
+        return () -> new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return readAhead(index);
+            }
+
+            @Override
+            public List<String> next() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return trim(rows.get(index++));
+            }
+        };
+    }
+
+    /**
+     * Bind each row after the header to a bean, by the type's CsvBindByName columns,
+     * as the iterator advances.  Rows are bound once: this can only be called once.
+     * @param type Bean class.
+     * @return Beans, in file order.
+     * @throws MemberDataException From the iterator, if a row cannot be bound,
+     *         e.g. has the wrong number of columns.
+     */
+    public <T> Iterator<T> beans(Class<? extends T> type) {
+        assert ! streaming : "rows already bound";
+
+        BeanBinder<T> binder = BeanBinder.create(type, readAhead(0) ? rows.get(0) : new String[0]);
+        streaming = true;
+
+        return new Iterator<>() {
+            private int index = 1;
+            private String[] row;
+            private long lineNumber;
+
+            @Override
+            public boolean hasNext() {
+                if (row != null) {
+                    return true;
+                }
+                if (index < rows.size()) {
+                    row = rows.get(index);
+                    lineNumber = lineNumbers.get(index);
+                    index++;
+                } else if (! exhausted) {
+                    row = readNext();
+                    lineNumber = csvReader.getLinesRead();
+                }
+                return row != null;
+            }
+
+            @Override
+            public T next() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String[] next = row;
+                row = null;
+                try {
+                    return binder.bind(next);
+                } catch (MemberDataException ex) {
+                    // Same message CsvToBean used for rows it could not bind
+                    throw new MemberDataException("Error parsing CSV line: " + lineNumber
+                            + ". [" + String.join(",", next) + "]\n" + ex.getMessage(), ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * Bind every row after the header to a bean.
+     * @param type Bean class.
+     * @return One bean per data row, in file order.
+     * @throws MemberDataException If a row cannot be bound, e.g. has the wrong number of columns.
+     */
+    public <T> List<T> toBeans(Class<? extends T> type) {
+        List<T> beans = new ArrayList<>();
+        beans(type).forEachRemaining(beans::add);
+        return beans;
+    }
+
+    /**
+     * Read and keep rows up through index, if there are that many.
+     * @return Whether the row at index is available.
+     */
+    private boolean readAhead(int index) {
+        while ((rows.size() <= index) && (! exhausted)) {
+            assert ! streaming : "rows are being bound";
+
+            String[] row = readNext();
+            if (row != null) {
+                rows.add(row);
+                lineNumbers.add(csvReader.getLinesRead());
+            }
+        }
+        return index < rows.size();
+    }
+
+    private String[] readNext() {
+        try {
+            String[] row = csvReader.readNext();
+            exhausted = (row == null);
+            return row;
+        } catch (IOException | CsvValidationException ex) {
+            throw new MemberDataException(ex);
+        }
+    }
+
+    private static List<String> trim(String[] row) {
+        return Arrays.stream(row).map(String::trim).collect(Collectors.toList());
+    }
+}
@@ -269,6 +269,8 @@ public class Constants {
     public static final String MEMBERDATA_PROPERTIES = "memberdata.properties";
     static final String API_USER_PROPERTY = "Api-Username";
     static final String API_KEY_PROPERTY = "Api-Key";
+    static final String UPLOAD_CACHE_DIRECTORY_PROPERTY = "Upload-Cache-Directory";
+    static final String UPLOAD_CACHE_SIZE_PROPERTY = "Upload-Cache-Max-Megabytes";
 
     public static final int HTTP_TOO_MANY_REQUESTS = 429;
     public static final int HTTP_SERVICE_UNAVAILABLE = 503;
@@ -28,7 +28,6 @@ import org.helpberkeley.memberdata.v300.ControlBlockV300;
 import org.helpberkeley.memberdata.v300.ControlBlockV301;
 import org.helpberkeley.memberdata.v300.ControlBlockV302;
 
-import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.*;
 
@@ -112,15 +111,13 @@ public abstract class ControlBlock {
     }
 
     public static ControlBlock create(String csvData) {
+        return create(CSVRows.parse(csvData));
+    }
 
-        List<List<String>> lines;
-
-        try (StringReader reader = new StringReader(csvData)) {
-            lines = new CSVListReader(reader).readAllToList();
-        }
+    public static ControlBlock create(CSVRows rows) {
 
-        List<String> header = lines.get(0);
-        String version = new VersionParser(lines).version();
+        List<String> header = rows.header();
+        String version = new VersionParser(rows.trimmedRows()).version();
 
         switch (version) {
             case Constants.CONTROL_BLOCK_VERSION_UNKNOWN:
@@ -649,9 +646,9 @@ public abstract class ControlBlock {
 
     private static class VersionParser {
 
-        final List<List<String>> lines;
+        final Iterable<List<String>> lines;
 
-        VersionParser(List<List<String>> lines) {
+        VersionParser(Iterable<List<String>> lines) {
             this.lines = lines;
         }
 
@@ -32,7 +32,7 @@ import java.io.StringReader;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 import static java.time.DayOfWeek.MONDAY;
 import static java.time.DayOfWeek.SUNDAY;
@@ -47,8 +47,7 @@ public class DriverHistory {
     private static final long DAYS_IN_A_WEEK = DayOfWeek.values().length;
     private static final String DRIVER_HISTORY_HEADER =
         Constants.COLUMN_USERNAME + Constants.CSV_SEPARATOR + Constants.COLUMN_DELIVERY_DATE + '\n';
-
-    private static final long MILLISECONDS_BETWEEN_REQUESTS = 1200;
+    static final String LAST_POST_PROCESSED = "Last post processed: ";
 
     private final LocalDate today;
     private final Week[] weeks = new Week[WEEKS_OF_HISTORY];
@@ -102,40 +101,9 @@ public class DriverHistory {
         // Get the order history data posts
         OrderHistoryDataPosts orderHistoryDataPosts =
                 new OrderHistoryDataPosts(apiClient, Constants.QUERY_GET_ORDER_HISTORY_DATA_POSTS);
-        Collection<OrderHistoryData> postsToProcess = orderHistoryDataPosts.getAllPosts().values();
-
-        // If a reset of the order history has been done, we are going to download
-        // all of the delivery files.  Avoid getting rate limited by Discourse, which
-        // occurs when there are more than 60 requests per minute on a connection.
-        long napTime = (postsToProcess.size() > 10) ? MILLISECONDS_BETWEEN_REQUESTS : 0;
-
-        StringBuilder output = new StringBuilder();
-        output.append(DRIVER_HISTORY_HEADER);
-
-        for (OrderHistoryData orderHistoryData : postsToProcess) {
-            // Download the delivery file
-            UploadFile uploadFile = orderHistoryData.getUploadFile();
-            String deliveries = apiClient.downloadFile(uploadFile.getFileName());
-
-            if (isBlacklisted(uploadFile.getOriginalFileName())) {
-                LOGGER.info("Skipping blacklisted {}", uploadFile.getOriginalFileName());
-            } else {
-                LOGGER.debug("Processing drivers from {}", orderHistoryData.getDate());
-
-                Collection<String> drivers =
-                        HBParser.parseDeliveryDrivers(uploadFile.getOriginalFileName(), deliveries);
-
-                final String deliveryDate = orderHistoryData.getDate();
-                for (String driverName : drivers) {
-                    output.append(driverName).append(Constants.CSV_SEPARATOR).append(deliveryDate).append('\n');
-                }
-            }
-
-            try {
-                Thread.sleep(napTime);
-            } catch (InterruptedException ignored) { }
-        }
 
+        StringBuilder output = new StringBuilder(DRIVER_HISTORY_HEADER);
+        appendDrivers(apiClient, orderHistoryDataPosts.getAllPosts().values(), DriverHistory::deliveryDrivers, output);
         return output.toString();
     }
 
@@ -147,46 +115,134 @@ public class DriverHistory {
         // Get the OneKitchen order history data posts
         OrderHistoryDataPosts orderHistoryDataPosts =
                 new OrderHistoryDataPosts(apiClient, Constants.QUERY_GET_ONE_KITCHEN_ORDER_HISTORY_DATA_POSTS);
-        Collection<OrderHistoryData> postsToProcess = orderHistoryDataPosts.getAllPosts().values();
 
-        // If a reset of the order history has been done, we are going to download
-        // all of the delivery files.  Avoid getting rate limited by Discourse, which
-        // occurs when there are more than 60 requests per minute on a connection.
-        long napTime = (postsToProcess.size() > 10) ? TimeUnit.SECONDS.toMillis(1) : 0;
+        StringBuilder output = new StringBuilder(DRIVER_HISTORY_HEADER);
+        appendDrivers(apiClient, orderHistoryDataPosts.getAllPosts().values(),
+                DriverHistory::oneKitchenDeliveryDrivers, output);
+        return output.toString();
+    }
 
-        StringBuilder output = new StringBuilder();
-        output.append(DRIVER_HISTORY_HEADER);
+    /**
+     * Bring the driver history table in the given post up to date.
+     */
+    static Table updateDriverHistory(ApiClient apiClient, long historyPostId) {
+        return updateHistory(apiClient, historyPostId,
+                Constants.QUERY_GET_ORDER_HISTORY_DATA_POSTS, DriverHistory::deliveryDrivers);
+    }
 
+    /**
+     * Bring the OneKitchen driver history table in the given post up to date.
+     */
+    static Table updateOneKitchenDriverHistory(ApiClient apiClient, long historyPostId) {
+        return updateHistory(apiClient, historyPostId,
+                Constants.QUERY_GET_ONE_KITCHEN_ORDER_HISTORY_DATA_POSTS, DriverHistory::oneKitchenDeliveryDrivers);
+    }
+
+    /**
+     * Append the drivers from the order history data posts made since the history post
+     * was last updated to its table.
+     * If the history post has no last post processed, or any of the new posts is not
+     * later than the last delivery date in the table, regenerate the table from all of the posts.
+     */
+    private static Table updateHistory(ApiClient apiClient, long historyPostId, int dataPostsQueryId,
+            BiFunction<String, String, Collection<String>> driversParser) {
+
+        OrderHistoryDataPosts orderHistoryDataPosts = new OrderHistoryDataPosts(apiClient, dataPostsQueryId);
+        long lastPostNumber = orderHistoryDataPosts.getLastPostNumber();
+
+        String historyPost = HBParser.postBody(apiClient.getPost(historyPostId));
+        long lastPostProcessed = parseLastPostProcessed(historyPost);
+
+        if (lastPostProcessed != -1) {
+            SortedMap<String, OrderHistoryData> newPosts = orderHistoryDataPosts.getPostsAfter(lastPostProcessed);
+            UploadFile historyFile = HBParser.parseFileFromPost(historyPost);
+            String driverRuns = apiClient.downloadFile(historyFile.getFileName()).replaceAll("\\r\\n?", "\n");
+
+            if (newPosts.isEmpty() || (historyThroughDate(driverRuns).compareTo(newPosts.firstKey()) < 0)) {
+                StringBuilder output = new StringBuilder(driverRuns);
+                if (output.charAt(output.length() - 1) != '\n') {
+                    output.append('\n');
+                }
+                appendDrivers(apiClient, newPosts.values(), driversParser, output);
+                return new Table(output.toString(), lastPostNumber);
+            }
+        }
+
+        LOGGER.info("Full driver history regeneration");
+        StringBuilder output = new StringBuilder(DRIVER_HISTORY_HEADER);
+        appendDrivers(apiClient, orderHistoryDataPosts.getAllPosts().values(), driversParser, output);
+        return new Table(output.toString(), lastPostNumber);
+    }
+
+    private static void appendDrivers(ApiClient apiClient, Collection<OrderHistoryData> postsToProcess,
+            BiFunction<String, String, Collection<String>> driversParser, StringBuilder output) {
+
+        // ApiClient paces the downloads to stay within the Discourse rate limit.
         for (OrderHistoryData orderHistoryData : postsToProcess) {
-            // Download the delivery file
             UploadFile uploadFile = orderHistoryData.getUploadFile();
-            String deliveries = apiClient.downloadFile(uploadFile.getFileName());
 
             if (isBlacklisted(uploadFile.getOriginalFileName())) {
                 LOGGER.info("Skipping blacklisted {}", uploadFile.getOriginalFileName());
-            } else {
-                LOGGER.debug("Processing drivers from {}", orderHistoryData.getDate());
+                continue;
+            }
 
-                // Get drivers
-                Collection<String> drivers =
-                        HBParser.parseOneKitchenDeliveryDrivers(uploadFile.getOriginalFileName(), deliveries);
+            LOGGER.debug("Processing drivers from {}", orderHistoryData.getDate());
 
-                // Add in backup drivers
-                drivers.addAll(HBParser.parseOneKitchenBackupDrivers(
-                        uploadFile.getOriginalFileName(), deliveries));
+            // Download the delivery file
+            String deliveries = apiClient.downloadFile(uploadFile.getFileName());
+            Collection<String> drivers = driversParser.apply(uploadFile.getOriginalFileName(), deliveries);
 
-                final String deliveryDate = orderHistoryData.getDate();
-                for (String driverName : drivers) {
-                    output.append(driverName).append(Constants.CSV_SEPARATOR).append(deliveryDate).append('\n');
-                }
+            final String deliveryDate = orderHistoryData.getDate();
+            for (String driverName : drivers) {
+                output.append(driverName).append(Constants.CSV_SEPARATOR).append(deliveryDate).append('\n');
             }
+        }
+    }
+
+    private static Collection<String> deliveryDrivers(String fileName, String deliveries) {
+        return HBParser.parseDeliveryDrivers(fileName, deliveries);
+    }
+
+    private static Collection<String> oneKitchenDeliveryDrivers(String fileName, String deliveries) {
+        // Get drivers
+        Collection<String> drivers = HBParser.parseOneKitchenDeliveryDrivers(fileName, deliveries);
+
+        // Add in backup drivers
+        drivers.addAll(HBParser.parseOneKitchenBackupDrivers(fileName, deliveries));
+        return drivers;
+    }
+
+    /**
+     * @return The last post processed recorded in a driver history post, or -1 if there is none.
+     */
+    static long parseLastPostProcessed(String historyPost) {
+        int index = historyPost.indexOf(LAST_POST_PROCESSED);
+        if (index == -1) {
+            return -1;
+        }
 
-            try {
-                Thread.sleep(napTime);
-            } catch (InterruptedException ignored) { }
+        String value = historyPost.substring(index + LAST_POST_PROCESSED.length()).split("\n", 2)[0].trim();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            LOGGER.warn("Ignoring bad {}{}", LAST_POST_PROCESSED, value);
+            return -1;
         }
+    }
 
-        return output.toString();
+    /**
+     * @return The latest delivery date in a driver history table, or "" if it is empty.
+     */
+    private static String historyThroughDate(String driverRuns) {
+        String throughDate = "";
+
+        for (String[] columns : parseDriverRuns(driverRuns)) {
+            if (columns[1].compareTo(throughDate) > 0) {
+                throughDate = columns[1];
+            }
+        }
+
+        return throughDate;
     }
 
     private static final List<String> BLACKLIST = List.of(
@@ -225,6 +281,19 @@ public class DriverHistory {
 
         String driverRuns = getDriverRuns(apiClient, postID);
 
+        for (String[] columns : parseDriverRuns(driverRuns)) {
+            // Use lower case version of driver user name to make the history insensitive to
+            // the case in the workflow spreadsheet.  Map back to actual case in DriverExporter usage
+            // of history.
+            DriverHistory driver = driverHistory.computeIfAbsent(columns[0].toLowerCase(), DriverHistory::new);
+            driver.addRun(columns[1]);
+        }
+    }
+
+    /**
+     * @return The rows of a driver history table, without the header.
+     */
+    private static List<String[]> parseDriverRuns(String driverRuns) {
         List<String[]> lines;
         try (StringReader reader = new StringReader(driverRuns)) {
             lines = new CSVReader(reader).readAll();
@@ -240,13 +309,8 @@ public class DriverHistory {
         lines.remove(0);
         for (String[] columns : lines) {
             assert columns.length == 2 : columns.length;
-
-            // Use lower case version of driver user name to make the history insensitive to
-            // the case in the workflow spreadsheet.  Map back to actual case in DriverExporter usage
-            // of history.
-            DriverHistory driver = driverHistory.computeIfAbsent(columns[0].toLowerCase(), DriverHistory::new);
-            driver.addRun(columns[1]);
         }
+        return lines;
     }
 
     private static String getDriverRuns(ApiClient apiClient, long postID) {
@@ -296,4 +360,17 @@ public class DriverHistory {
             return numberOfRuns;
         }
     }
+
+    /**
+     * A driver history table, and the last order history data post that it includes.
+     */
+    static final class Table {
+        final String driverRuns;
+        final long lastPostProcessed;
+
+        Table(String driverRuns, long lastPostProcessed) {
+            this.driverRuns = driverRuns;
+            this.lastPostProcessed = lastPostProcessed;
+        }
+    }
 }
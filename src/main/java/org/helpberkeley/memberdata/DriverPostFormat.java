@@ -29,6 +29,9 @@ import org.slf4j.LoggerFactory;
 
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public abstract class DriverPostFormat {
 
@@ -42,6 +45,11 @@ public abstract class DriverPostFormat {
             "Backup driver {0} is also a driver.\n";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DriverPostFormat.class);
+
+    // Below this many drivers, posts are rendered on the calling thread.
+    // Test support - not final.
+    static int parallelRenderThreshold = 16;
+
     protected ApiClient apiClient;
 
     // FIX THIS, DS: fix lifecycle.  Currently initialized in an abstract
@@ -53,6 +61,7 @@ public abstract class DriverPostFormat {
     protected final List<MessageBlock> driverPostMessageBlocks = new ArrayList<>();
     protected final List<MessageBlock> groupInstructionMessageBlocks = new ArrayList<>();
     protected final List<MessageBlock> backupDriverMessageBlocks = new ArrayList<>();
+    private final Map<MessageBlock, List<RenderNode>> compiledBlocks = new ConcurrentHashMap<>();
 
     public static DriverPostFormat create(
             ApiClient apiClient, Map<String, User> users, String routedDeliveries) {
@@ -69,7 +78,8 @@ public abstract class DriverPostFormat {
     private static DriverPostFormat doCreate(ApiClient apiClient,
          Map<String, User> users, String routedDeliveries, RequestType requestType) {
 
-        ControlBlock controlBlock = ControlBlock.create(routedDeliveries);
+        CSVRows rows = CSVRows.parse(routedDeliveries);
+        ControlBlock controlBlock = ControlBlock.create(rows);
 
         // FIX THIS, DS: check warnings here?
 
@@ -88,7 +98,7 @@ public abstract class DriverPostFormat {
 
         driverPostFormat.apiClient = apiClient;
         driverPostFormat.users = users;
-        driverPostFormat.initialize(routedDeliveries, requestType);
+        driverPostFormat.initialize(rows, requestType);
         return driverPostFormat;
     }
 
@@ -96,46 +106,52 @@ public abstract class DriverPostFormat {
     }
 
     public abstract ControlBlock getControlBlock();
-    protected abstract void initialize(String routedDeliveries, RequestType requestType);
+    protected abstract void initialize(CSVRows routedDeliveries, RequestType requestType);
     protected abstract int restaurantTemplateQueryID();
     protected abstract int driverTemplateQueryID();
     protected abstract int groupTemplateQueryID();
     public abstract List<Driver> getDrivers();
     public abstract String statusMessages();
     public abstract String generateSummary();
-    protected abstract ProcessingReturnValue processStructRef(MessageBlockStructRef structRef, MessageBlockContext context);
-    protected abstract boolean processBooleanSimpleRef(MessageBlockSimpleRef element, MessageBlockContext context);
-    protected abstract boolean processBooleanListRef(MessageBlockListRef listRef, MessageBlockContext context);
-    protected abstract ProcessingReturnValue processListRef(MessageBlockListRef listRef, MessageBlockContext context);
-    protected abstract ProcessingReturnValue processLoopListRef(
-            MessageBlockLoop loop, MessageBlockListRef listRef, MessageBlockContext context);
-    protected abstract String versionSpecificSimpleRef(MessageBlockContext context, String varName);
-    protected abstract String versionSpecificDriverListRef(MessageBlockContext context, String varName);
-
+    protected abstract ValueAccessor bindStructRef(MessageBlockStructRef structRef);
+    protected abstract ConditionAccessor bindBooleanSimpleRef(MessageBlockSimpleRef element);
+    protected abstract ConditionAccessor bindBooleanListRef(MessageBlockListRef listRef);
+    protected abstract ValueAccessor bindListRef(MessageBlockListRef listRef);
+    protected abstract LoopRenderer bindLoopListRef(MessageBlockListRef listRef);
+    protected abstract ValueAccessor bindVersionSpecificSimpleRef(String varName);
+    protected abstract ValueAccessor bindVersionSpecificDriverListRef(String varName);
+
+    /**
+     * Render one post per driver.  Each driver is rendered with its own context and
+     * reads only the drivers, restaurants and control block, so at or above
+     * parallelRenderThreshold drivers the posts are rendered on the common fork-join pool.
+     *
+     * @return Driver posts, in driver order.
+     */
     public final List<String> generateDriverPosts() {
+        Stream<Driver> stream = (drivers.size() >= parallelRenderThreshold)
+                ? drivers.parallelStream() : drivers.stream();
+        return stream.map(this::generateDriverPost).collect(Collectors.toList());
+    }
 
-        List<String> driverPosts = new ArrayList<>();
-        for (Driver driver : drivers) {
-            StringBuilder post = new StringBuilder();
-
-            MessageBlockContext context = new MessageBlockContext("Base", null);
-            context.setDriver(driver);
+    private String generateDriverPost(Driver driver) {
+        StringBuilder post = new StringBuilder();
 
-            for (MessageBlock messageBlock : driverPostMessageBlocks) {
+        MessageBlockContext context = new MessageBlockContext("Base", null);
+        context.setDriver(driver);
 
-                context.setMessageBlock(messageBlock);
+        for (MessageBlock messageBlock : driverPostMessageBlocks) {
 
-                if (messageBlock.getName().equalsIgnoreCase("comment")) {
-                    continue;
-                }
+            context.setMessageBlock(messageBlock);
 
-                post.append(processMessageBlock(messageBlock, context));
+            if (messageBlock.getName().equalsIgnoreCase("comment")) {
+                continue;
             }
 
-            driverPosts.add(post.toString());
+            processMessageBlock(messageBlock, context, post);
         }
 
-        return driverPosts;
+        return post.toString();
     }
 
     public final String generateGroupInstructionsPost() {
@@ -152,7 +168,7 @@ public abstract class DriverPostFormat {
                 continue;
             }
 
-            post.append(processMessageBlock(messageBlock, context));
+            processMessageBlock(messageBlock, context, post);
         }
 
         return post.toString();
@@ -172,7 +188,7 @@ public abstract class DriverPostFormat {
                 continue;
             }
 
-            post.append(processMessageBlock(messageBlock, context));
+            processMessageBlock(messageBlock, context, post);
         }
 
         return post.toString();
@@ -189,27 +205,24 @@ public abstract class DriverPostFormat {
     protected final void loadLastRestaurantTemplate() {
         String  json = apiClient.runQuery(restaurantTemplateQueryID());
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
-        assert apiQueryResult.rows.length == 1;
+        assert apiQueryResult.getRowCount() == 1;
+        assert apiQueryResult.headers.length == 3 : apiQueryResult.headers.length;
 
-        Object[] columns = (Object[])apiQueryResult.rows[0];
-        assert columns.length == 3 : columns.length;
-        String rawPost = (String)columns[2];
+        String rawPost = apiQueryResult.getString(0, 2);
         RestaurantTemplatePost restaurantTemplatePost = HBParser.restaurantTemplatePost(rawPost);
-        String restaurantTemplate = apiClient.downloadFile(restaurantTemplatePost.uploadFile.getFileName());
-        RestaurantTemplateParser parser = RestaurantTemplateParser.create(restaurantTemplate);
-        restaurants = parser.restaurants();
+        restaurants = RestaurantTemplateCache.restaurants(
+                restaurantTemplatePost.uploadFile.getFileName(), apiClient::downloadFile);
     }
 
     protected final void loadDriverPostFormat() {
         String json = apiClient.runQuery(driverTemplateQueryID());
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 4 : columns.length;
+        assert apiQueryResult.headers.length == 4 : apiQueryResult.headers.length;
 
-            MessageBlock messageBlock = new MessageBlock(
-                    (Long)columns[1], (Long)columns[0], (String)columns[2]);
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            MessageBlock messageBlock = new MessageBlock(apiQueryResult.getLong(row, 1),
+                    apiQueryResult.getLong(row, 0), apiQueryResult.getString(row, 2));
             // FIX THIS, DS: catch and update status here?
             messageBlock.parse();
             driverPostMessageBlocks.add(messageBlock);
@@ -220,12 +233,11 @@ public abstract class DriverPostFormat {
         String json = apiClient.runQuery(groupTemplateQueryID());
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 4 : columns.length;
+        assert apiQueryResult.headers.length == 4 : apiQueryResult.headers.length;
 
-            MessageBlock messageBlock = new MessageBlock(
-                    (Long)columns[1], (Long)columns[0], (String)columns[2]);
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            MessageBlock messageBlock = new MessageBlock(apiQueryResult.getLong(row, 1),
+                    apiQueryResult.getLong(row, 0), apiQueryResult.getString(row, 2));
             // FIX THIS, DS: catch and update status here?
             messageBlock.parse();
             groupInstructionMessageBlocks.add(messageBlock);
@@ -236,266 +248,210 @@ public abstract class DriverPostFormat {
         String json = apiClient.runQuery(Constants.QUERY_GET_BACKUP_DRIVER_FORMAT);
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 4 : columns.length;
+        assert apiQueryResult.headers.length == 4 : apiQueryResult.headers.length;
 
-            MessageBlock messageBlock = new MessageBlock(
-                    (Long)columns[1], (Long)columns[0], (String)columns[2]);
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            MessageBlock messageBlock = new MessageBlock(apiQueryResult.getLong(row, 1),
+                    apiQueryResult.getLong(row, 0), apiQueryResult.getString(row, 2));
             // FIX THIS, DS: catch and update status here?
             messageBlock.parse();
             backupDriverMessageBlocks.add(messageBlock);
         }
     }
 
-    protected final String processMessageBlock(MessageBlock messageBlock, MessageBlockContext context) {
-
-        StringBuilder message = new StringBuilder();
+    // Render a message block by appending it to the caller's post.
+    //
+    protected final void processMessageBlock(
+            MessageBlock messageBlock, MessageBlockContext context, StringBuilder post) {
 
         LOGGER.trace("Processing block {}", context.getBlockName());
 
-        for (MessageBlockElement element : messageBlock.getElements()) {
-            ProcessingReturnValue returnValue = processElement(element, context);
-
-            if (returnValue.status == ProcessingStatus.CONTINUE) {
+        for (RenderNode node : compile(messageBlock)) {
+            if (node.render(context, post) == ProcessingStatus.CONTINUE) {
                 throw new MemberDataException(context.formatException(ERROR_CONTINUE_WITHOUT_LOOP));
             }
-
-            message.append(returnValue.output);
         }
+    }
 
-        return message.toString();
+    // Compile a parsed message block into render nodes.  Variable names, loop lists and
+    // quoted strings are resolved once here; rendering only calls the bound accessors.
+    // Unknown names are bound to nodes that throw when rendered, so an unknown variable
+    // in a branch that is never taken is still not an error.
+    //
+    protected final List<RenderNode> compile(MessageBlock messageBlock) {
+        return compiledBlocks.computeIfAbsent(messageBlock, block -> compileElements(block.getElements()));
     }
 
-    protected final ProcessingReturnValue processElement(
-            MessageBlockElement element, MessageBlockContext context) {
+    private List<RenderNode> compileElements(List<MessageBlockElement> elements) {
+        List<RenderNode> nodes = new ArrayList<>(elements.size());
 
-        ProcessingReturnValue returnValue;
+        for (MessageBlockElement element : elements) {
+            nodes.add(compileElement(element));
+        }
 
-        LOGGER.trace("processing element {}, {}", element, context);
+        return List.copyOf(nodes);
+    }
+
+    private RenderNode compileElement(MessageBlockElement element) {
 
         if (element instanceof MessageBlockQuotedString) {
-            returnValue = processQuotedString((MessageBlockQuotedString)element);
+            return new TextNode(element, processQuotedString((MessageBlockQuotedString)element));
         } else if (element instanceof MessageBlockSimpleRef) {
-            returnValue = processSimpleRef((MessageBlockSimpleRef)element, context);
+            return new ValueNode(element, bindSimpleRef(element.getName()));
         } else if (element instanceof MessageBlockStructRef) {
-            returnValue = processStructRef((MessageBlockStructRef)element, context);
+            return new ValueNode(element, bindStructRef((MessageBlockStructRef)element));
         } else if (element instanceof MessageBlockListRef) {
-            returnValue = processListRef((MessageBlockListRef)element, context);
+            return new ValueNode(element, bindListRef((MessageBlockListRef)element));
         } else if (element instanceof MessageBlockConditional) {
-            returnValue = processConditional((MessageBlockConditional)element, context);
+            MessageBlockConditional conditional = (MessageBlockConditional)element;
+            return new ConditionalNode(conditional,
+                    bindCondition(conditional.getConditional()),
+                    conditional.getEvaluationType() == MessageBlockConditional.EvaluationType.EVAL_TRUE,
+                    compileElements(conditional.getElements()));
         } else if (element instanceof MessageBlockLoop) {
-            returnValue = processLoop((MessageBlockLoop)element, context);
+            MessageBlockLoop loop = (MessageBlockLoop)element;
+            return new LoopNode(bindLoop(loop.getLoopRef()),
+                    new CompiledLoop(loop, compileElements(loop.getElements())));
         } else if (element instanceof MessageBlockContinue) {
-            returnValue = new ProcessingReturnValue(ProcessingStatus.CONTINUE, "");
-        }
-        else {
-            throw new MemberDataException(
-                    context.formatException("unknown element type: " + element + ", " + element.getName()));
+            return CONTINUE_NODE;
         }
 
-        return returnValue;
+        return new ValueNode(element,
+                unknownValue("unknown element type: " + element + ", " + element.getName()));
+    }
+
+    protected final ProcessingStatus processElement(
+            RenderNode node, MessageBlockContext context, StringBuilder output) {
+        LOGGER.trace("processing element {}, {}", node, context);
+        return node.render(context, output);
     }
 
     // Replace "\\n" with newline.
     //
-    protected final ProcessingReturnValue processQuotedString(MessageBlockQuotedString quotedString) {
-        return new ProcessingReturnValue(
-                ProcessingStatus.COMPLETE,
-                quotedString.getValue().replaceAll("\n", "").replaceAll("\\\\n", "\n"));
+    protected final String processQuotedString(MessageBlockQuotedString quotedString) {
+        return quotedString.getValue().replaceAll("\n", "").replaceAll("\\\\n", "\n");
     }
 
-    // Do simple variable replacement
+    // Bind simple variable replacement
     //
-    protected final  ProcessingReturnValue processSimpleRef(MessageBlockSimpleRef simpleRef, MessageBlockContext context) {
-        String varName = simpleRef.getName();
-        String value;
+    private ValueAccessor bindSimpleRef(String varName) {
 
         switch (varName) {
             case "ThisDriverUserName":
-                value = context.getDriver().getUserName();
-                break;
+                return context -> context.getDriver().getUserName();
             case "ThisDriverGMapURL":
-                value = context.getDriver().getgMapURL();
-                break;
+                return context -> context.getDriver().getgMapURL();
             case "ThisDriverFirstRestaurant":
-                value = context.getDriver().getFirstRestaurantName();
-                break;
+                return context -> context.getDriver().getFirstRestaurantName();
             case "ThisDriverFirstRestaurantStartTime":
-                value = context.getDriver().getStartTime();
-                break;
+                return context -> context.getDriver().getStartTime();
             case "ThisDriverFirstRestaurantClosingTime":
-                value = restaurants.get(context.getDriver().getFirstRestaurantName()).getClosingTime();
-                break;
+                return context -> restaurants.get(context.getDriver().getFirstRestaurantName()).getClosingTime();
             case "FirstRestaurantEmoji":
-                value = restaurants.get(context.getDriver().getFirstRestaurantName()).getEmoji();
-                break;
+                return context -> restaurants.get(context.getDriver().getFirstRestaurantName()).getEmoji();
             default:
-                value = versionSpecificSimpleRef(context, varName);
-        }
-
-        LOGGER.trace("${{}} = \"{}\"", varName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
-    }
-
-    protected final ProcessingReturnValue processConditional(
-            MessageBlockConditional conditional, MessageBlockContext context) {
-
-        StringBuilder output = new StringBuilder();
-
-        boolean conditionalExpression = evaluateCondition(conditional.getConditional(), context);
-        MessageBlockConditional.EvaluationType evaluationType = conditional.getEvaluationType();
-
-        if ((conditionalExpression && (evaluationType == MessageBlockConditional.EvaluationType.EVAL_TRUE))
-                || ((! conditionalExpression)) && (evaluationType == MessageBlockConditional.EvaluationType.EVAL_FALSE)) {
-
-            for (MessageBlockElement element : conditional.getElements()) {
-                ProcessingReturnValue returnValue = processElement(element, context);
-                output.append(returnValue.output);
-
-                if (returnValue.status == ProcessingStatus.CONTINUE) {
-                    return new ProcessingReturnValue(ProcessingStatus.CONTINUE, output.toString());
-                }
-            }
+                return bindVersionSpecificSimpleRef(varName);
         }
-
-        LOGGER.trace("{} {} = {}", conditional, conditional.getConditional(), conditionalExpression);
-        // FIX THIS, DS: rework? remove?
-        LOGGER.trace("${{}} = \"{}\"", conditional, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
     }
 
-    private boolean evaluateCondition(MessageBlockElement element, MessageBlockContext context) {
-        boolean expressionValue;
+    private ConditionAccessor bindCondition(MessageBlockElement element) {
 
         if (element instanceof MessageBlockSimpleRef) {
-            expressionValue = processBooleanSimpleRef((MessageBlockSimpleRef)element, context);
+            return bindBooleanSimpleRef((MessageBlockSimpleRef)element);
         } else if (element instanceof MessageBlockListRef) {
-            expressionValue = processBooleanListRef((MessageBlockListRef)element, context);
+            return bindBooleanListRef((MessageBlockListRef)element);
         } else if (element instanceof MessageBlockStructRef) {
-            expressionValue = processBooleanStructRef((MessageBlockStructRef)element, context);
-        } else {
-            throw new MemberDataException(context.formatException("unknown boolean element " + element.getName()));
+            return unknownCondition("Unknown boolean variable &{" + element.getName() + "}");
         }
 
-        LOGGER.trace("${{}} = \"{}\"", element, expressionValue);
-        return expressionValue;
+        return unknownCondition("unknown boolean element " + element.getName());
     }
 
-    protected final ProcessingReturnValue processLoop(MessageBlockLoop loop, MessageBlockContext context) {
-
-        MessageBlockElement loopRef = loop.getLoopRef();
+    private LoopRenderer bindLoop(MessageBlockElement loopRef) {
 
         if (loopRef instanceof MessageBlockListNameRef) {
-            return processLoopListNameRef(loop, (MessageBlockListNameRef) loopRef, context);
+            return bindLoopListNameRef(loopRef.getName());
         } else {
             assert loopRef instanceof MessageBlockListRef : loopRef;
-            return processLoopListRef(loop, (MessageBlockListRef) loopRef, context);
+            return bindLoopListRef((MessageBlockListRef) loopRef);
         }
     }
 
-    private boolean processBooleanStructRef(MessageBlockStructRef structRef, MessageBlockContext context) {
-        String refName = structRef.getName();
-
-        throw new MemberDataException(context.formatException("Unknown boolean variable &{" + refName + "}"));
-    }
-
-    protected final ProcessingReturnValue processDriverListRef(
-            MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        String value;
-
-        Driver driver = context.getDriver();
+    protected final ValueAccessor bindDriverListRef(String refName) {
 
         switch (refName) {
             case "Driver.Name":
-                value = driver.getName();
-                break;
+                return context -> context.getDriver().getName();
             case "Driver.UserName":
-                value = driver.getUserName();
-                break;
+                return context -> context.getDriver().getUserName();
             case "Driver.CompactPhone":
-                value = compactPhone(driver.getPhoneNumber());
-                break;
+                return context -> compactPhone(context.getDriver().getPhoneNumber());
             default:
-                value = versionSpecificDriverListRef(context, refName);
-                break;
+                return bindVersionSpecificDriverListRef(refName);
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    protected final ProcessingReturnValue processBackupDriverListRef(
-            MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        String value;
-
-        String backupDriverUserName = context.getBackupDriver();
-        User user = users.get(backupDriverUserName);
+    protected final ValueAccessor bindBackupDriverListRef(String refName) {
 
         switch (refName) {
             case "BackupDriver.Name":
-                value = user.getName();
-                break;
+                return context -> users.get(context.getBackupDriver()).getName();
             case "BackupDriver.UserName":
-                value = backupDriverUserName;
-                break;
+                return MessageBlockContext::getBackupDriver;
             case "BackupDriver.CompactPhone":
-                value = compactPhone(user.getPhoneNumber());
-                break;
+                return context -> compactPhone(users.get(context.getBackupDriver()).getPhoneNumber());
             default:
-                value = versionSpecificDriverListRef(context, refName);
-                break;
+                return bindVersionSpecificDriverListRef(refName);
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processLoopListNameRef(
-            MessageBlockLoop loop, MessageBlockListNameRef listNameRef, MessageBlockContext context) {
-
-        String listName = listNameRef.getName();
-        ProcessingReturnValue returnValue;
+    private LoopRenderer bindLoopListNameRef(String listName) {
 
         switch (listName) {
             case "ThisDriverRestaurant":
-                returnValue = processPickups(loop, context);
-                break;
+                return this::processPickups;
             case "Consumer":
-                returnValue = processDeliveries(loop, context);
-                break;
+                return this::processDeliveries;
             case "Driver":
-                returnValue = processDrivers(loop, context);
-                break;
+                return this::processDrivers;
             case "SplitRestaurant":
-                returnValue = processSplitRestaurants(loop, context);
-                break;
+                return this::processSplitRestaurants;
             case "BackupDriver":
-                returnValue = processBackupDrivers(loop, context);
-                break;
+                return this::processBackupDrivers;
             case "Itinerary":
-                returnValue = processItinerary(loop, context);
-                break;
+                return this::processItinerary;
             default:
-                returnValue = processVersionSpecificLoopListNameRef(listName, loop, context);
+                return bindVersionSpecificLoopListNameRef(listName);
         }
+    }
 
-        LOGGER.trace("${{}} = \"{}\"", listName, returnValue.output);
-        return returnValue;
+    protected LoopRenderer bindVersionSpecificLoopListNameRef(String listName) {
+        return unknownLoop("unknown list variable &{" + listName + "}");
     }
 
-    protected ProcessingReturnValue processVersionSpecificLoopListNameRef(
-            String listName, MessageBlockLoop loop, MessageBlockContext context) {
-        throw new MemberDataException(context.formatException("unknown list variable &{" + listName + "}"));
+    // Accessors for names that are not known.  The error is raised when, and only if,
+    // the element is rendered, so that it carries the render context.
+    //
+    protected static ValueAccessor unknownValue(String message) {
+        return context -> {
+            throw new MemberDataException(context.formatException(message));
+        };
+    }
+
+    protected static ConditionAccessor unknownCondition(String message) {
+        return context -> {
+            throw new MemberDataException(context.formatException(message));
+        };
     }
 
-    private ProcessingReturnValue processPickups(MessageBlockLoop loop, MessageBlockContext context) {
+    protected static LoopRenderer unknownLoop(String message) {
+        return (loop, context, output) -> {
+            throw new MemberDataException(context.formatException(message));
+        };
+    }
+
+    private ProcessingStatus processPickups(CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         Driver driver = context.getDriver();
         MessageBlockContext pickupRestaurantContext = new MessageBlockContext("Pickups", context);
 
@@ -508,23 +464,18 @@ public abstract class DriverPostFormat {
 
             pickupRestaurantContext.setPickupRestaurant(pickup);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, pickupRestaurantContext);
-                output.append(returnValue.output);
-
-                if (returnValue.status == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, pickupRestaurantContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    private ProcessingReturnValue processDeliveries(MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processDeliveries(CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         Driver driver = context.getDriver();
         MessageBlockContext deliveryContext = new MessageBlockContext("Loop", context);
 
@@ -534,23 +485,18 @@ public abstract class DriverPostFormat {
 
             deliveryContext.setDelivery(delivery);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, deliveryContext);
-                output.append(returnValue.output);
-
-                if (returnValue.status == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, deliveryContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    private ProcessingReturnValue processItinerary(MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processItinerary(CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         Driver driver = context.getDriver();
         MessageBlockContext itineraryContext = new MessageBlockContext("Itinerary", context);
 
@@ -560,23 +506,18 @@ public abstract class DriverPostFormat {
 
             itineraryContext.setItineraryStop(itineraryStop);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, itineraryContext);
-                output.append(returnValue.output);
-
-                if (returnValue.status == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, itineraryContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    private ProcessingReturnValue processDrivers(MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processDrivers(CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext driverContext = new MessageBlockContext("Loop", context);
 
         LOGGER.trace("processDrivers: {}", driverContext);
@@ -585,25 +526,20 @@ public abstract class DriverPostFormat {
 
             driverContext.setDriver(driver);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, driverContext);
-                output.append(returnValue.output);
-
-                if (returnValue.status == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, driverContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
     // Loop through all of the split restaurants
     //
-    private ProcessingReturnValue processSplitRestaurants(MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processSplitRestaurants(CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext splitRestaurantContext = new MessageBlockContext("SplitRestaurants", context);
 
         LOGGER.trace("processSplitRestaurants: {}", splitRestaurantContext);
@@ -616,25 +552,20 @@ public abstract class DriverPostFormat {
 
             splitRestaurantContext.setSplitRestaurant(restaurant);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, splitRestaurantContext);
-                output.append(returnValue.output);
-
-                if (returnValue.status == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, splitRestaurantContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
     // Loop through all of the backup drivers
     //
-    private ProcessingReturnValue processBackupDrivers(MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processBackupDrivers(CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext backupDriverContext = new MessageBlockContext("BackupDrivers", context);
 
         LOGGER.trace("processBackupDrivers: {}", backupDriverContext);
@@ -643,18 +574,14 @@ public abstract class DriverPostFormat {
 
             backupDriverContext.setBackupDriver(backupDriver);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, backupDriverContext);
-                output.append(returnValue.output);
-
-                if (returnValue.status == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, backupDriverContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
     // Convert to (NNN) NNN.NNNN
@@ -683,22 +610,162 @@ public abstract class DriverPostFormat {
         CONTINUE
     }
 
-    public static class ProcessingReturnValue {
+    @FunctionalInterface
+    protected interface ValueAccessor {
+        String get(MessageBlockContext context);
+    }
+
+    @FunctionalInterface
+    protected interface ConditionAccessor {
+        boolean test(MessageBlockContext context);
+    }
+
+    @FunctionalInterface
+    protected interface LoopRenderer {
+        ProcessingStatus render(CompiledLoop loop, MessageBlockContext context, StringBuilder output);
+    }
+
+    // Render nodes append their output and return CONTINUE to end the current loop iteration.
+    //
+    protected interface RenderNode {
+        ProcessingStatus render(MessageBlockContext context, StringBuilder output);
+    }
+
+    protected static final class CompiledLoop {
+
+        private final MessageBlockLoop loop;
+        private final List<RenderNode> elements;
+
+        private CompiledLoop(MessageBlockLoop loop, List<RenderNode> elements) {
+            this.loop = loop;
+            this.elements = elements;
+        }
+
+        public List<RenderNode> getElements() {
+            return elements;
+        }
+
+        @Override
+        public String toString() {
+            return loop.toString();
+        }
+    }
+
+    private static final RenderNode CONTINUE_NODE = new RenderNode() {
+        @Override
+        public ProcessingStatus render(MessageBlockContext context, StringBuilder output) {
+            return ProcessingStatus.CONTINUE;
+        }
+
+        @Override
+        public String toString() {
+            return "CONTINUE";
+        }
+    };
+
+    private static final class TextNode implements RenderNode {
+
+        private final MessageBlockElement element;
+        private final String text;
+
+        private TextNode(MessageBlockElement element, String text) {
+            this.element = element;
+            this.text = text;
+        }
+
+        @Override
+        public ProcessingStatus render(MessageBlockContext context, StringBuilder output) {
+            output.append(text);
+            return ProcessingStatus.COMPLETE;
+        }
+
+        @Override
+        public String toString() {
+            return element.toString();
+        }
+    }
+
+    private static final class ValueNode implements RenderNode {
+
+        private final MessageBlockElement element;
+        private final ValueAccessor accessor;
+
+        private ValueNode(MessageBlockElement element, ValueAccessor accessor) {
+            this.element = element;
+            this.accessor = accessor;
+        }
+
+        @Override
+        public ProcessingStatus render(MessageBlockContext context, StringBuilder output) {
+            String value = accessor.get(context);
+            LOGGER.trace("${{}} = \"{}\"", element, value);
+            output.append(value);
+            return ProcessingStatus.COMPLETE;
+        }
+
+        @Override
+        public String toString() {
+            return element.toString();
+        }
+    }
+
+    private static final class ConditionalNode implements RenderNode {
+
+        private final MessageBlockConditional conditional;
+        private final ConditionAccessor condition;
+        private final boolean renderWhen;
+        private final List<RenderNode> elements;
+
+        private ConditionalNode(MessageBlockConditional conditional,
+                ConditionAccessor condition, boolean renderWhen, List<RenderNode> elements) {
+            this.conditional = conditional;
+            this.condition = condition;
+            this.renderWhen = renderWhen;
+            this.elements = elements;
+        }
+
+        @Override
+        public ProcessingStatus render(MessageBlockContext context, StringBuilder output) {
+
+            boolean conditionalExpression = condition.test(context);
+            LOGGER.trace("{} = {}", conditional, conditionalExpression);
+
+            if (conditionalExpression == renderWhen) {
+                for (RenderNode element : elements) {
+                    if (element.render(context, output) == ProcessingStatus.CONTINUE) {
+                        return ProcessingStatus.CONTINUE;
+                    }
+                }
+            }
+
+            return ProcessingStatus.COMPLETE;
+        }
+
+        @Override
+        public String toString() {
+            return conditional.toString();
+        }
+    }
+
+    private static final class LoopNode implements RenderNode {
 
-        private final ProcessingStatus status;
-        private final String output;
+        private final LoopRenderer renderer;
+        private final CompiledLoop loop;
 
-        public ProcessingReturnValue(ProcessingStatus status, String output) {
-            this.status = status;
-            this.output = output;
+        private LoopNode(LoopRenderer renderer, CompiledLoop loop) {
+            this.renderer = renderer;
+            this.loop = loop;
         }
 
-        public ProcessingStatus getStatus() {
-            return status;
+        @Override
+        public ProcessingStatus render(MessageBlockContext context, StringBuilder output) {
+            LOGGER.trace("rendering {}", loop);
+            return renderer.render(loop, context, output);
         }
 
-        public String getOutput() {
-            return output;
+        @Override
+        public String toString() {
+            return loop.toString();
         }
     }
 }
@@ -27,68 +27,83 @@ import org.slf4j.LoggerFactory;
 import java.util.*;
 
 /**
- * Group
+ * Supported groups, and their bits in a group membership mask.
  */
 public class Group {
 
-    static final String NAME_FIELD = "name";
-    static final String USERS_FIELD = "users";
-
     private static final Logger LOGGER = LoggerFactory.getLogger(Group.class);
 
-    final String name;
-    private final Set<Long> userIds = new HashSet<>();
-    private final Set<Long> ownerIds = new HashSet<>();
-
-    Group(final String name) {
-
-        this.name = name;
-    }
-
-    void addUserIDs(List<Long> userIDs) {
-        this.userIds.addAll(userIDs);
-    }
-
-    void addUser(Long userId) {
-        userIds.add(userId);
-    }
-
-    void addOwner(Long ownerId) {
-        ownerIds.add(ownerId);
+    /**
+     * Groups with software processing.  The position in the list is the
+     * group's bit in a membership mask, see GroupMemberships.
+     */
+    static final List<String> SUPPORTED_GROUPS = List.of(
+            Constants.GROUP_CONSUMERS,
+            Constants.GROUP_DRIVERS,
+            Constants.GROUP_DISPATCHERS,
+            Constants.GROUP_SPECIALISTS,
+            Constants.GROUP_BHS,
+            Constants.GROUP_HELPLINE,
+            Constants.GROUP_SITELINE,
+            Constants.GROUP_TRAINED_CUSTOMER_CARE_A,
+            Constants.GROUP_TRAINED_CUSTOMER_CARE_B,
+            Constants.GROUP_INREACH,
+            Constants.GROUP_OUTREACH,
+            Constants.GROUP_MARKETING,
+            Constants.GROUP_MODERATORS,
+            Constants.GROUP_WORKFLOW,
+            Constants.GROUP_VOICEONLY,
+            Constants.GROUP_TRUST_LEVEL_4,
+            Constants.GROUP_CUSTOMER_INFO,
+            Constants.GROUP_ADVISOR,
+            Constants.GROUP_COORDINATORS,
+            Constants.GROUP_ADMIN,
+            Constants.GROUP_LOGISTICS,
+            Constants.GROUP_BOARDMEMBERS,
+            Constants.GROUP_LIMITED,
+            Constants.GROUP_AT_RISK,
+            Constants.GROUP_BIKERS,
+            Constants.GROUP_OUT,
+            Constants.GROUP_TRAINED_DRIVERS,
+            Constants.GROUP_EVENT_DRIVERS,
+            Constants.GROUP_TRAINED_EVENT_DRIVERS,
+            Constants.GROUP_GONE,
+            Constants.GROUP_OTHER_DRIVERS,
+            Constants.GROUP_MONDAY_FRREG,
+            Constants.GROUP_WEDNESDAY_FRREG,
+            Constants.GROUP_THURSDAY_FRREG,
+            Constants.GROUP_FRVOICEONLY,
+            Constants.GROUP_EVOLUNTEERS);
+
+    private static final Map<String, Integer> SUPPORTED_GROUP_BITS = new HashMap<>();
+
+    static {
+        assert SUPPORTED_GROUPS.size() <= Long.SIZE : SUPPORTED_GROUPS.size();
+        for (int bit = 0; bit < SUPPORTED_GROUPS.size(); bit++) {
+            SUPPORTED_GROUP_BITS.put(SUPPORTED_GROUPS.get(bit), bit);
+        }
     }
 
-    boolean hasMember(long userId) {
-        return userIds.contains(userId);
+    private Group() {
     }
 
-    boolean hasOwner(long userId) {
-        return ownerIds.contains(userId);
+    /**
+     * @return Bit for the group in a membership mask, or -1 if the group is not supported.
+     */
+    static int groupBit(final String groupName) {
+        Integer bit = SUPPORTED_GROUP_BITS.get(groupName);
+        return (bit == null) ? -1 : bit;
     }
 
-    @Override
-    public String toString() {
-        StringBuilder builder = new StringBuilder();
-
-        builder.append(NAME_FIELD);
-        builder.append("=");
-        builder.append(name);
-        builder.append(':');
-
-        builder.append(USERS_FIELD);
-        builder.append("=");
-        for (long userId : userIds) {
-            builder.append(userId);
-            builder.append(',');
+    /**
+     * Add the names of the groups set in the mask to the list.
+     */
+    static void groupNames(long mask, final List<String> groupNames) {
+        while (mask != 0) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            groupNames.add(SUPPORTED_GROUPS.get(bit));
+            mask &= mask - 1;
         }
-
-        return builder.toString();
-    }
-
-    static Group createGroup(final String name, List<Long> userIDs) {
-        Group group = new Group(name);
-        group.addUserIDs(userIDs);
-
-        return group;
     }
 
     static boolean supportedGroup(Long groupId, final String groupName) {
@@ -98,46 +113,6 @@ public class Group {
             return false;
         }
 
-        switch (groupName) {
-            case Constants.GROUP_CONSUMERS:
-            case Constants.GROUP_DRIVERS:
-            case Constants.GROUP_DISPATCHERS:
-            case Constants.GROUP_SPECIALISTS:
-            case Constants.GROUP_BHS:
-            case Constants.GROUP_HELPLINE:
-            case Constants.GROUP_SITELINE:
-            case Constants.GROUP_TRAINED_CUSTOMER_CARE_A:
-            case Constants.GROUP_TRAINED_CUSTOMER_CARE_B:
-            case Constants.GROUP_INREACH:
-            case Constants.GROUP_OUTREACH:
-            case Constants.GROUP_MARKETING:
-            case Constants.GROUP_MODERATORS:
-            case Constants.GROUP_WORKFLOW:
-            case Constants.GROUP_VOICEONLY:
-            case Constants.GROUP_TRUST_LEVEL_4:
-            case Constants.GROUP_CUSTOMER_INFO:
-            case Constants.GROUP_ADVISOR:
-            case Constants.GROUP_COORDINATORS:
-            case Constants.GROUP_ADMIN:
-            case Constants.GROUP_LOGISTICS:
-            case Constants.GROUP_BOARDMEMBERS:
-            case Constants.GROUP_LIMITED:
-            case Constants.GROUP_AT_RISK:
-            case Constants.GROUP_BIKERS:
-            case Constants.GROUP_OUT:
-            case Constants.GROUP_TRAINED_DRIVERS:
-            case Constants.GROUP_EVENT_DRIVERS:
-            case Constants.GROUP_TRAINED_EVENT_DRIVERS:
-            case Constants.GROUP_GONE:
-            case Constants.GROUP_OTHER_DRIVERS:
-            case Constants.GROUP_MONDAY_FRREG:
-            case Constants.GROUP_WEDNESDAY_FRREG:
-            case Constants.GROUP_THURSDAY_FRREG:
-            case Constants.GROUP_FRVOICEONLY:
-            case Constants.GROUP_EVOLUNTEERS:
-                return true;
-            default:
-                return false;
-        }
+        return SUPPORTED_GROUP_BITS.containsKey(groupName);
     }
 }
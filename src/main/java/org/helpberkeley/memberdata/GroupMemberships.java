@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index from user id to the supported groups the user
+ * is a member or owner of.  Memberships are kept as bit masks over
+ * Group.SUPPORTED_GROUPS, in an open addressing table keyed by user id,
+ * so that looking up a user's groups is a single probe with no boxing.
+ */
+class GroupMemberships {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Marks a free user id slot
+    private static final long FREE = Long.MIN_VALUE;
+
+    // User id slots, linearly probed.  The masks are parallel to the slots.
+    private long[] userIds = newSlots(INITIAL_CAPACITY);
+    private long[] memberMasks = new long[INITIAL_CAPACITY];
+    private long[] ownerMasks = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Record a user as a member, and optionally owner, of a supported group.
+     */
+    void add(final String groupName, long userId, boolean owner) {
+        int bit = Group.groupBit(groupName);
+        assert bit != -1 : groupName + " is not a supported group";
+        assert userId != FREE : userId;
+
+        int slot = findSlot(userIds, userId);
+        if (userIds[slot] != userId) {
+            if ((size + 1) * 2 > userIds.length) {
+                grow();
+                slot = findSlot(userIds, userId);
+            }
+            userIds[slot] = userId;
+            size++;
+        }
+        memberMasks[slot] |= 1L << bit;
+        if (owner) {
+            ownerMasks[slot] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @return Mask of the groups the user is a member of.
+     */
+    long memberships(long userId) {
+        return memberMasks[findSlot(userIds, userId)];
+    }
+
+    /**
+     * @return Mask of the groups the user is an owner of.
+     */
+    long ownerships(long userId) {
+        return ownerMasks[findSlot(userIds, userId)];
+    }
+
+    /**
+     * Add the names of the groups the user is a member of to the list.
+     */
+    void memberships(long userId, final List<String> groupNames) {
+        Group.groupNames(memberships(userId), groupNames);
+    }
+
+    /**
+     * Add the names of the groups the user is an owner of to the list.
+     */
+    void ownerships(long userId, final List<String> groupNames) {
+        Group.groupNames(ownerships(userId), groupNames);
+    }
+
+    /**
+     * @return Number of users in at least one group.
+     */
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldUserIds = userIds;
+        long[] oldMemberMasks = memberMasks;
+        long[] oldOwnerMasks = ownerMasks;
+
+        int capacity = oldUserIds.length * 2;
+        userIds = newSlots(capacity);
+        memberMasks = new long[capacity];
+        ownerMasks = new long[capacity];
+
+        for (int index = 0; index < oldUserIds.length; index++) {
+            if (oldUserIds[index] != FREE) {
+                int slot = findSlot(userIds, oldUserIds[index]);
+                userIds[slot] = oldUserIds[index];
+                memberMasks[slot] = oldMemberMasks[index];
+                ownerMasks[slot] = oldOwnerMasks[index];
+            }
+        }
+    }
+
+    // Slot holding the user id, or the free slot where it would go.
+    private static int findSlot(final long[] slots, long userId) {
+        int mask = slots.length - 1;
+        int slot = hash(userId) & mask;
+
+        while ((slots[slot] != FREE) && (slots[slot] != userId)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long[] newSlots(int capacity) {
+        long[] slots = new long[capacity];
+        Arrays.fill(slots, FREE);
+        return slots;
+    }
+}
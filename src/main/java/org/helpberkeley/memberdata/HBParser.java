@@ -32,8 +32,12 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class HBParser {
 
@@ -44,99 +48,103 @@ public class HBParser {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HBParser.class);
 
+    private static final int USER_CSV_COLUMNS = 51;
+
+    // Below this many rows, users are built on the calling thread.
+    // Test support - not final.
+    static int parallelUsersThreshold = 256;
+
     public static final String INVALID_TOPIC_URL = "{0} is not a valid topic URL. Please make sure your URL includes" +
             " \"go.helpberkeley.org/t/TOPIC_NAME/TOPIC_ID\"";
 
     public static ApiQueryResult parseQueryResult(final String queryResultJson) {
 
-        Map<String, Object> map = JsonIo.toObjects(queryResultJson,
-                new ReadOptionsBuilder().returnAsNativeJsonObjects().build(), Map.class);
-
-        Object[] columns = (Object[])map.get("columns");
-        Object[] rows = (Object[])map.get("rows");
-
-        return new ApiQueryResult(columns, rows);
+        return ApiQueryResult.read(new QueryResultReader(queryResultJson));
     }
 
-    static List<User> users(final Map<String, Group> groups,
-        final Set<Long> emailVerified, final ApiQueryResult queryResult) {
-
-        List<User> users = new ArrayList<>();
-
-        assert queryResult.headers.length == 14 :
-                "Unexpected number of columns for users query result: " + queryResult;
-
-        assert queryResult.headers[0].equals(Constants.COLUMN_USER_ID) : queryResult.headers[0];
-        assert queryResult.headers[1].equals(Constants.COLUMN_USERNAME) : queryResult.headers[1];
-        assert queryResult.headers[2].equals(Constants.COLUMN_NAME) : queryResult.headers[2];
-        assert queryResult.headers[3].equals(Constants.COLUMN_STAGED) : queryResult.headers[3];
-        assert queryResult.headers[4].equals(Constants.COLUMN_ADDRESS) : queryResult.headers[4];
-        assert queryResult.headers[5].equals(Constants.COLUMN_PHONE) : queryResult.headers[5];
-        assert queryResult.headers[6].equals(Constants.COLUMN_NEIGHBORHOOD) : queryResult.headers[6];
-        assert queryResult.headers[7].equals(Constants.COLUMN_CITY) : queryResult.headers[7];
-        assert queryResult.headers[8].equals(Constants.COLUMN_CONDO) : queryResult.headers[8];
-        assert queryResult.headers[9].equals(Constants.COLUMN_CONSUMER_REQUEST) : queryResult.headers[9];
-        assert queryResult.headers[10].equals(Constants.COLUMN_VOLUNTEER_REQUEST) : queryResult.headers[10];
-        assert queryResult.headers[11].equals(Constants.COLUMN_ALT_PHONE) : queryResult.headers[11];
-        assert queryResult.headers[12].equals(Constants.COLUMN_REFERRAL) : queryResult.headers[12];
-        assert queryResult.headers[13].equals(Constants.COLUMN_CREATE_TIME) : queryResult.headers[13];
-
-        List<String> groupMemberships = new ArrayList<>();
-        List<String> groupOwnerships = new ArrayList<>();
-
-        for (Object rowObj : queryResult.rows) {
-
-            Object[] columns = (Object[])rowObj;
-
-            long userId = (Long)columns[0];
-
-            if (skipUserId(userId) || (Boolean)columns[3]) {
+    static List<User> users(final GroupMemberships groups,
+        final Set<Long> emailVerified, final QueryResultReader queryResult) {
+
+        List<Supplier<User>> rows = new ArrayList<>();
+
+        String[] headers = queryResult.getColumns();
+        assert headers.length == 14 :
+                "Unexpected number of columns for users query result: " + Arrays.toString(headers);
+
+        assert headers[0].equals(Constants.COLUMN_USER_ID) : headers[0];
+        assert headers[1].equals(Constants.COLUMN_USERNAME) : headers[1];
+        assert headers[2].equals(Constants.COLUMN_NAME) : headers[2];
+        assert headers[3].equals(Constants.COLUMN_STAGED) : headers[3];
+        assert headers[4].equals(Constants.COLUMN_ADDRESS) : headers[4];
+        assert headers[5].equals(Constants.COLUMN_PHONE) : headers[5];
+        assert headers[6].equals(Constants.COLUMN_NEIGHBORHOOD) : headers[6];
+        assert headers[7].equals(Constants.COLUMN_CITY) : headers[7];
+        assert headers[8].equals(Constants.COLUMN_CONDO) : headers[8];
+        assert headers[9].equals(Constants.COLUMN_CONSUMER_REQUEST) : headers[9];
+        assert headers[10].equals(Constants.COLUMN_VOLUNTEER_REQUEST) : headers[10];
+        assert headers[11].equals(Constants.COLUMN_ALT_PHONE) : headers[11];
+        assert headers[12].equals(Constants.COLUMN_REFERRAL) : headers[12];
+        assert headers[13].equals(Constants.COLUMN_CREATE_TIME) : headers[13];
+
+        // Rows are handed over one at a time, the full result is never built.
+        // Only the values needed for each user are kept, the users are built afterwards.
+        while (queryResult.next()) {
+
+            long userId = queryResult.getLong(0);
+
+            if (skipUserId(userId) || queryResult.getBoolean(3)) {
                 continue;
             }
 
-            String userName = (String)columns[1];
+            String userName = queryResult.getString(1);
 
             // FIX THIS, DS: need a reliable way to detect anonymized users
             if (userName.startsWith("anon")) {
                 continue;
             }
-            String name = (String)columns[2];
-            String address = (String)columns[4];
-            String phone = (String)columns[5];
-            String neighborhood = (String)columns[6];
-            String city = (String)columns[7];
-            Boolean isCondo = Boolean.valueOf((String)columns[8]);
-            Boolean hasConsumerRequest = Boolean.valueOf((String)columns[9]);
-            String volunteerRequest = (String)columns[10];
-            String altPhone = (String)columns[11];
-            String referral = (String)columns[12];
-            String createdAt = (String)columns[13];
-
-            groupMemberships.clear();
-            groupOwnerships.clear();
-
-            for (Group group : groups.values()) {
-                if (group.hasMember(userId)) {
-                    groupMemberships.add(group.name);
-                }
-                if (group.hasOwner(userId)) {
-                    groupOwnerships.add(group.name);
-                }
-            }
+            String name = queryResult.getString(2);
+            String address = queryResult.getString(4);
+            String phone = queryResult.getString(5);
+            String neighborhood = queryResult.getString(6);
+            String city = queryResult.getString(7);
+            Boolean isCondo = Boolean.valueOf(queryResult.getString(8));
+            Boolean hasConsumerRequest = Boolean.valueOf(queryResult.getString(9));
+            String volunteerRequest = queryResult.getString(10);
+            String altPhone = queryResult.getString(11);
+            String referral = queryResult.getString(12);
+            String createdAt = queryResult.getString(13);
+
+            List<String> groupMemberships = new ArrayList<>();
+            List<String> groupOwnerships = new ArrayList<>();
+            groups.memberships(userId, groupMemberships);
+            groups.ownerships(userId, groupOwnerships);
 
             Boolean verified = emailVerified.contains(userId);
 
-            try {
-                users.add(User.createUser(name, userName, userId, address, city, phone, altPhone, neighborhood,
-                        createdAt, isCondo, hasConsumerRequest, volunteerRequest, referral, verified,
-                        groupMemberships, groupOwnerships));
-            } catch (UserException ex) {
-                // FIX THIS, DS: get rid of UserException?
-                users.add(ex.user);
-            }
+            rows.add(() -> {
+                try {
+                    return User.createUser(name, userName, userId, address, city, phone, altPhone, neighborhood,
+                            createdAt, isCondo, hasConsumerRequest, volunteerRequest, referral, verified,
+                            groupMemberships, groupOwnerships);
+                } catch (UserException ex) {
+                    // FIX THIS, DS: get rid of UserException?
+                    return ex.user;
+                }
+            });
         }
 
-        return users;
+        return buildUsers(rows, Supplier::get);
+    }
+
+    /**
+     * Build a User from each row.  Creating a user is independent CPU work,
+     * so large inputs are split across the common fork join pool.
+     *
+     * @return Users, in the same order as the rows.
+     */
+    static <T> List<User> buildUsers(final List<T> rows, final Function<T, User> builder) {
+        Stream<T> stream = (rows.size() >= parallelUsersThreshold) ? rows.parallelStream() : rows.stream();
+        return stream.map(builder).collect(Collectors.toList());
     }
 
     static Map<Long, String> groupNames(ApiQueryResult queryResult) {
@@ -147,11 +155,9 @@ public class HBParser {
         assert queryResult.headers[0].equals(Constants.COLUMN_ID) : queryResult.headers[0];
         assert queryResult.headers[1].equals(Constants.COLUMN_NAME) : queryResult.headers[1];
 
-        for (Object rowObj :  queryResult.rows) {
-            Object[] columns = (Object[])rowObj;
-
-            Long groupId = (Long)columns[0];
-            String groupName = (String)columns[1];
+        for (int row = 0; row < queryResult.getRowCount(); row++) {
+            long groupId = queryResult.getLong(row, 0);
+            String groupName = queryResult.getString(row, 1);
 
             // Skip groups that don't have any software processing
             if (Group.supportedGroup(groupId, groupName)) {
@@ -162,34 +168,28 @@ public class HBParser {
         return results;
     }
 
-    static Map<String, Group> groupUsers(final Map<Long, String> groupNames, final ApiQueryResult queryResult) {
-        Map<String, Group> groups = new HashMap<>();
-
-        assert queryResult.headers.length == 3 :
-                "Unexpected number of columns for groupUsers query result: " + queryResult;
-        assert queryResult.headers[0].equals(Constants.COLUMN_GROUP_ID) : queryResult.headers[0];
-        assert queryResult.headers[1].equals(Constants.COLUMN_USER_ID) : queryResult.headers[1];
-        assert queryResult.headers[2].equals(Constants.COLUMN_GROUP_OWNER) : queryResult.headers[2];
+    static GroupMemberships groupUsers(final Map<Long, String> groupNames, final QueryResultReader queryResult) {
+        GroupMemberships groups = new GroupMemberships();
 
-        for (Object rowObj : queryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 3 : columns.length;
-
-            Long groupId = (Long)columns[0];
-            Long userId = (Long)columns[1];
-            Boolean owner = (Boolean)columns[2];
+        String[] headers = queryResult.getColumns();
+        assert headers.length == 3 :
+                "Unexpected number of columns for groupUsers query result: " + Arrays.toString(headers);
+        assert headers[0].equals(Constants.COLUMN_GROUP_ID) : headers[0];
+        assert headers[1].equals(Constants.COLUMN_USER_ID) : headers[1];
+        assert headers[2].equals(Constants.COLUMN_GROUP_OWNER) : headers[2];
 
+        while (queryResult.next()) {
+            Long groupId = queryResult.getLong(0);
             String groupName = groupNames.get(groupId);
 
             if (! Group.supportedGroup(groupId, groupName)) {
                 continue;
             }
 
-            Group group = groups.computeIfAbsent(groupName, Group::new);
-            group.addUser(userId);
-            if (owner) {
-                group.addOwner(userId);
-            }
+            long userId = queryResult.getLong(1);
+            boolean owner = queryResult.getBoolean(2);
+
+            groups.add(groupName, userId, owner);
         }
 
         return groups;
@@ -209,7 +209,7 @@ public class HBParser {
         }
 
         String[] headers = lines.get(0);
-        assert headers.length == 51 : headers.length;
+        assert headers.length == USER_CSV_COLUMNS : headers.length;
 
         int index = 0;
         assert headers[index].equals(User.ID_COLUMN) : headers[index];
@@ -264,189 +264,181 @@ public class HBParser {
         assert headers[++index].equals(User.THURSDAY_FRREG_COLUMN) : headers[index];
         assert headers[++index].equals(User.EVOLUNTEERS_COLUMN) : headers[index];
 
-        List<User> users = new ArrayList<>();
-        List<String> groups = new ArrayList<>();
-
-        Iterator<String[]> iterator = lines.iterator();
         // Skip the header line.
-        iterator.next();
-
-        while (iterator.hasNext()) {
-            String[] columns = iterator.next();
-
-            assert columns.length == headers.length : columns.length + " != " + headers.length;
-            index = 0;
-
-            long id = Long.parseLong(columns[index++]);
-            String name = columns[index++];
-            String userName = columns[index++];
-            String phone = columns[index++];
-            String altPhone = columns[index++];
-            String neighborhood = columns[index++];
-            String city = columns[index++];
-            String address = columns[index++];
-
-            groups.clear();
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_CONSUMERS);
-            }
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_VOICEONLY);
-            }
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_FRVOICEONLY);
-            }
+        return buildUsers(lines.subList(1, lines.size()), HBParser::csvUser);
+    }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_DISPATCHERS);
-            }
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_DRIVERS);
-            }
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_TRAINED_DRIVERS);
-            }
+    private static User csvUser(final String[] columns) {
+        assert columns.length == USER_CSV_COLUMNS : columns.length + " != " + USER_CSV_COLUMNS;
+        int index = 0;
 
-            String createdAt = columns[index++];
-            Boolean isCondo = Boolean.valueOf(columns[index++]);
-            String referral = columns[index++];
-            Boolean emailVerified = Boolean.valueOf(columns[index++]);
-            Boolean hasConsumerRequest = Boolean.valueOf(columns[index++]);
-            String volunteerRequest = columns[index++];
+        long id = Long.parseLong(columns[index++]);
+        String name = columns[index++];
+        String userName = columns[index++];
+        String phone = columns[index++];
+        String altPhone = columns[index++];
+        String neighborhood = columns[index++];
+        String city = columns[index++];
+        String address = columns[index++];
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_SPECIALISTS);
-            }
+        List<String> groups = new ArrayList<>();
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_CONSUMERS);
+        }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_VOICEONLY);
+        }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_FRVOICEONLY);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_LOGISTICS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_DISPATCHERS);
+        }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_DRIVERS);
+        }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_TRAINED_DRIVERS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_BHS);
-            }
+        String createdAt = columns[index++];
+        Boolean isCondo = Boolean.valueOf(columns[index++]);
+        String referral = columns[index++];
+        Boolean emailVerified = Boolean.valueOf(columns[index++]);
+        Boolean hasConsumerRequest = Boolean.valueOf(columns[index++]);
+        String volunteerRequest = columns[index++];
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_HELPLINE);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_SPECIALISTS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_SITELINE);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_LOGISTICS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_TRAINED_CUSTOMER_CARE_A);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_BHS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_TRAINED_CUSTOMER_CARE_B);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_HELPLINE);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_INREACH);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_SITELINE);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_OUTREACH);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_TRAINED_CUSTOMER_CARE_A);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_MARKETING);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_TRAINED_CUSTOMER_CARE_B);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_MODERATORS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_INREACH);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_TRUST_LEVEL_4);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_OUTREACH);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_WORKFLOW);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_MARKETING);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_CUSTOMER_INFO);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_MODERATORS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_ADVISOR);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_TRUST_LEVEL_4);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_BOARDMEMBERS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_WORKFLOW);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_COORDINATORS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_CUSTOMER_INFO);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_LIMITED);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_ADVISOR);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_AT_RISK);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_BOARDMEMBERS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_BIKERS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_COORDINATORS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_OUT);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_LIMITED);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_EVENT_DRIVERS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_AT_RISK);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_TRAINED_EVENT_DRIVERS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_BIKERS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_GONE);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_OUT);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_OTHER_DRIVERS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_EVENT_DRIVERS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_ADMIN);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_TRAINED_EVENT_DRIVERS);
+        }
 
-            String groupsOwned = columns[index++];
-            List<String> groupsOwnedList = Arrays.asList(groupsOwned.split(Constants.CSV_SEPARATOR));
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_GONE);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_MONDAY_FRREG);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_OTHER_DRIVERS);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_WEDNESDAY_FRREG);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_ADMIN);
+        }
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_THURSDAY_FRREG);
-            }
+        String groupsOwned = columns[index++];
+        List<String> groupsOwnedList = Arrays.asList(groupsOwned.split(Constants.CSV_SEPARATOR));
 
-            if (Boolean.parseBoolean(columns[index++])) {
-                groups.add(Constants.GROUP_EVOLUNTEERS);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_MONDAY_FRREG);
+        }
 
-            try {
-                users.add(User.createUser(name, userName, id, address, city, phone, altPhone,
-                        neighborhood, createdAt, isCondo, hasConsumerRequest,
-                        volunteerRequest, referral, emailVerified, groups, groupsOwnedList));
-            } catch (UserException ex) {
-                users.add(ex.user);
-            }
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_WEDNESDAY_FRREG);
+        }
+
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_THURSDAY_FRREG);
         }
 
-        return users;
+        if (Boolean.parseBoolean(columns[index++])) {
+            groups.add(Constants.GROUP_EVOLUNTEERS);
+        }
+
+        try {
+            return User.createUser(name, userName, id, address, city, phone, altPhone,
+                    neighborhood, createdAt, isCondo, hasConsumerRequest,
+                    volunteerRequest, referral, emailVerified, groups, groupsOwnedList);
+        } catch (UserException ex) {
+            return ex.user;
+        }
     }
 
     static Map<String, DetailsPost> deliveryDetails(ApiQueryResult apiQueryResult) {
@@ -457,13 +449,9 @@ public class HBParser {
 
         Map<String, DetailsPost> deliveryDetails = new HashMap<>();
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 3 : columns.length;
-
-            //
-            Long id = ((Long)columns[0]);
-            String raw = ((String)columns[1]).trim();
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            long id = apiQueryResult.getLong(row, 0);
+            String raw = apiQueryResult.getString(row, 1).trim();
 
             if (id == 1) {
                 assert raw.startsWith("This must be specifically formatted.") : raw;
@@ -484,15 +472,12 @@ public class HBParser {
 
         Map<String, DetailsPost> driverDetails = new HashMap<>();
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 3 : columns.length;
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
 
             // FIX THIS, DS: make this a common routine with delivery details
 
-            //
-            Long postNumber = ((Long)columns[0]);
-            String raw = ((String)columns[2]).trim();
+            long postNumber = apiQueryResult.getLong(row, 0);
+            String raw = apiQueryResult.getString(row, 2).trim();
 
             parseDetails(postNumber, raw, DetailsHandling.CONCATENTATE_MULTIPLE_POSTS, driverDetails);
         }
@@ -634,12 +619,9 @@ public class HBParser {
 
         Map<Long, String> emailAddresses = new HashMap<>();
 
-        for (Object rowObj : queryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 3 : columns.length;
-
-            Long userId = (Long)columns[0];
-            String email = (String)columns[2];
+        for (int row = 0; row < queryResult.getRowCount(); row++) {
+            long userId = queryResult.getLong(row, 0);
+            String email = queryResult.getString(row, 2);
 
             if (emailAddresses.containsKey(userId)) {
                 // FIX THIS, DS: update the query to just fetch the primary email address
@@ -740,14 +722,9 @@ public class HBParser {
 
         Set<Long> confirmations = new HashSet<>();
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 2 : columns.length;
-
-            Long userId = (Long)columns[0];
-            assert userId != null;
-            Boolean confirmed = (Boolean)columns[1];
-            assert confirmed != null;
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            long userId = apiQueryResult.getLong(row, 0);
+            boolean confirmed = apiQueryResult.getBoolean(row, 1);
 
             if (confirmed) {
                 confirmations.add(userId);
@@ -27,6 +27,10 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Load User and group data from the site.
@@ -35,8 +39,11 @@ public class Loader {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Loader.class);
 
+    // One per query issued by load()
+    static final int QUERY_THREADS = 4;
+
     private final ApiClient apiClient;
-    private Map<String, Group> groups;
+    private GroupMemberships groups;
     private Set<Long> emailConfirmations;
 
     // FIX THIS, DS: refactor these two ctors and the load methods
@@ -50,10 +57,39 @@ public class Loader {
      * @return User list.
      */
     public List<User> load() {
+        ExecutorService executor = Executors.newFixedThreadPool(QUERY_THREADS);
+        try {
+            return load(executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Return a list of Users fetched from the website, running the queries on the executor.
+     * The queries are independent of each other, only the final join needs all of them.
+     *
+     * @param executor Executor to run the queries on.
+     * @return User list.
+     */
+    List<User> load(final Executor executor) {
         LOGGER.trace("load");
-        loadGroups();
-        loadEmailConfirmations();
-        return loadUsers();
+        assert apiClient != null;
+
+        CompletableFuture<Map<Long, String>> groupNames =
+                CompletableFuture.supplyAsync(this::loadGroupNames, executor);
+        CompletableFuture<String> groupUsersJson = CompletableFuture.supplyAsync(
+                () -> apiClient.runQuery(Constants.CURRENT_GET_GROUP_USERS_QUERY), executor);
+        CompletableFuture<Set<Long>> confirmations =
+                CompletableFuture.supplyAsync(this::loadEmailConfirmations, executor);
+        CompletableFuture<String> usersJson = CompletableFuture.supplyAsync(
+                () -> apiClient.runQuery(Constants.CURRENT_USERS_QUERY), executor);
+
+        groups = Futures.waitFor(groupNames.thenCombine(groupUsersJson,
+                (names, json) -> HBParser.groupUsers(names, new QueryResultReader(json))));
+        emailConfirmations = Futures.waitFor(confirmations);
+
+        return loadUsers(Futures.waitFor(usersJson));
     }
 
     Map<Long, String> loadEmailAddresses() {
@@ -63,33 +99,20 @@ public class Loader {
         return HBParser.emailAddresses(apiQueryResult);
     }
 
-    private void loadGroups() {
-
-        assert apiClient != null;
+    private Map<Long, String> loadGroupNames() {
         String json = apiClient.runQuery(Constants.QUERY_GET_GROUPS_ID);
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
-        Map<Long, String> groupNames = HBParser.groupNames(apiQueryResult);
-
-        json = apiClient.runQuery(Constants.CURRENT_GET_GROUP_USERS_QUERY);
-        apiQueryResult = HBParser.parseQueryResult(json);
-
-        groups = HBParser.groupUsers(groupNames, apiQueryResult);
+        return HBParser.groupNames(apiQueryResult);
     }
 
-    private void loadEmailConfirmations() {
-        assert apiClient != null;
+    private Set<Long> loadEmailConfirmations() {
         String json = apiClient.runQuery(Constants.QUERY_EMAIL_CONFIRMATIONS);
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
-
-        emailConfirmations = HBParser.emailConfirmations(apiQueryResult);
+        return HBParser.emailConfirmations(apiQueryResult);
     }
 
-    private List<User> loadUsers() {
+    private List<User> loadUsers(final String json) {
         LOGGER.trace("loadUsers");
-
-        assert apiClient != null;
-        String json = apiClient.runQuery(Constants.CURRENT_USERS_QUERY);
-        ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
-        return HBParser.users(groups, emailConfirmations, apiQueryResult);
+        return HBParser.users(groups, emailConfirmations, new QueryResultReader(json));
     }
 }
@@ -39,6 +39,11 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static java.net.HttpURLConnection.HTTP_OK;
 
@@ -89,6 +94,20 @@ public class Main {
     static final long OUT_DRIVERS_POST_ID =  64492;
     static final long COPY_EVENT_DRIVERS_TABLE_SHORT_POST_ID = 94664;
 
+    // Loader queries plus driver details and driver history
+    static final int FETCH_THREADS = Loader.QUERY_THREADS + 2;
+
+    // Work requests handled at once.  Their Discourse calls share the ApiClient rate limit.
+    static final int WORK_REQUEST_THREADS = 4;
+
+    // Test support - not final.  Number of polls before serve returns.
+    static long servePolls = Long.MAX_VALUE;
+    // Test support - not final.  Unit of the serve poll interval.
+    static TimeUnit servePollUnit = TimeUnit.SECONDS;
+    // Test support.  Polls run, and polls failed, by the last serve.
+    static long servePollsRun = 0;
+    static long servePollsFailed = 0;
+
     static final String WRONG_REQUEST_TOPIC =
             "Control block version {0} is not supported in {1}. Did you mean to send this to {2} ?\n";
     static final String UNSUPPORTED_CONTROL_BLOCK_VERSION =
@@ -125,6 +144,9 @@ public class Main {
             case Options.COMMAND_WORK_REQUESTS:
                 workRequests(apiClient, options.getFileName());
                 break;
+            case Options.COMMAND_SERVE:
+                serve(apiClient, options.getFileName(), options.getPollSeconds());
+                break;
             case Options.COMMAND_FETCH:
                 fetch(apiClient);
                 break;
@@ -222,18 +244,39 @@ public class Main {
         return properties;
     }
 
-    private static void fetch(ApiClient apiClient) {
+    private static void fetch(ApiClient apiClient) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(FETCH_THREADS);
+        try {
+            fetch(apiClient, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void fetch(ApiClient apiClient, ExecutorService executor) throws IOException {
+        // Driver details and history don't depend on the member data, start them first.
+        Future<Map<String, DetailsPost>> driverDetails = executor.submit(() -> {
+            String json = apiClient.runQuery(Constants.QUERY_GET_DRIVER_DETAILS);
+            ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
+            return HBParser.driverDetails(apiQueryResult);
+        });
+        Future<Map<String, DriverHistory>> history =
+                executor.submit(() -> DriverHistory.getDriverHistory(apiClient));
+
         // Create a User loader
         Loader loader = new Loader(apiClient);
 
         // Load the member data from the website
-        List<User> users = loader.load();
+        List<User> users = loader.load(executor);
 
         // Create an exporter
         UserExporter exporter = new UserExporter(users);
 
         // Export all users
-        exporter.allMembersRawToFile(Constants.MEMBERDATA_RAW_FILE);
+        String rawFileName = exporter.allMembersRawToFile(Constants.MEMBERDATA_RAW_FILE);
+
+        // Snapshot the users as they load from the CSV file, for the commands that take it
+        MemberSnapshotFile.write(rawFileName, HBParser.users(Files.readString(Paths.get(rawFileName))));
 
         // Export all users report
         exporter.allMembersReportToFile(MEMBERDATA_REPORT_FILE);
@@ -250,16 +293,8 @@ public class Main {
         // Export dispatchers
         exporter.dispatchersToFile(Constants.DISPATCHERS_FILE);
 
-        // Fetch driver details
-        String json = apiClient.runQuery(Constants.QUERY_GET_DRIVER_DETAILS);
-        ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
-        Map<String, DetailsPost> driverDetails = HBParser.driverDetails(apiQueryResult);
-
-        // Fetch driver history
-        Map<String, DriverHistory> history = DriverHistory.getDriverHistory(apiClient);
-
         // Export drivers
-        new DriverExporter(users, history, driverDetails).driversToFile();
+        new DriverExporter(users, Futures.waitFor(history), Futures.waitFor(driverDetails)).driversToFile();
     }
 
     private static void postConsumerRequests(ApiClient apiClient, final String fileName)
@@ -429,6 +464,11 @@ public class Main {
 
     private static void updateFile(ApiClient apiClient, final String fileName,
                 final String shortUrl, String title, long postId) {
+        updateFile(apiClient, fileName, shortUrl, title, postId, "");
+    }
+
+    private static void updateFile(ApiClient apiClient, final String fileName,
+                final String shortUrl, String title, long postId, final String footer) {
 
         String now = ZonedDateTime.now(ZoneId.systemDefault()).format(
                 DateTimeFormatter.ofPattern("uuuu.MM.dd HH:mm:ss"));
@@ -439,15 +479,15 @@ public class Main {
                 now +
                 "**\n\n" +
                 // postRaw.append("[" + fileName + "|attachment](upload://" + fileName + ") (5.49 KB)");
-                "[" + fileName + "|attachment](" + shortUrl + ")";
+                "[" + fileName + "|attachment](" + shortUrl + ")" +
+                (footer.isEmpty() ? "" : "\n\n" + footer);
         HttpResponse<?> response = apiClient.updatePost(postId, postRaw);
         LOGGER.info("updateFile {} {}", fileName, response.statusCode() == HTTP_OK ?
                 "" : "failed " + response.statusCode() + ": " + response.body());
     }
 
     private static void generateInreach(ApiClient apiClient, String usersFile) throws IOException {
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
 
         // Download order history file
         OrderHistory orderHistory = OrderHistory.getOrderHistory(apiClient);
@@ -464,8 +504,7 @@ public class Main {
 
     private static void generateEmail(ApiClient apiClient, final String usersFile)
             throws IOException {
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
 
         Map<Long, String> emails = new Loader(apiClient).loadEmailAddresses();
 
@@ -476,18 +515,16 @@ public class Main {
             throws IOException {
 
         // Read/parse the members data
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
 
         // Fetch/parse the last restaurant template reply
         String  json = apiClient.runQuery(
                 Constants.QUERY_GET_CURRENT_VALIDATED_DRIVER_MESSAGE_RESTAURANT_TEMPLATE);
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
-        assert apiQueryResult.rows.length == 1;
+        assert apiQueryResult.getRowCount() == 1;
+        assert apiQueryResult.headers.length == 3 : apiQueryResult.headers.length;
 
-        Object[] columns = (Object[])apiQueryResult.rows[0];
-        assert columns.length == 3 : columns.length;
-        String rawPost = (String)columns[2];
+        String rawPost = apiQueryResult.getString(0, 2);
         RestaurantTemplatePost restaurantTemplatePost = HBParser.restaurantTemplatePost(rawPost);
 
         // Fetch/parse the delivery details
@@ -531,18 +568,16 @@ public class Main {
             throws IOException {
 
         // Read/parse the members data
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
 
         // Fetch/parse the last restaurant template reply
         String  json = apiClient.runQuery(
                 Constants.QUERY_GET_CURRENT_VALIDATED_ONE_KITCHEN_RESTAURANT_TEMPLATE);
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
-        assert apiQueryResult.rows.length == 1;
+        assert apiQueryResult.getRowCount() == 1;
+        assert apiQueryResult.headers.length == 3 : apiQueryResult.headers.length;
 
-        Object[] columns = (Object[])apiQueryResult.rows[0];
-        assert columns.length == 3 : columns.length;
-        String rawPost = (String)columns[2];
+        String rawPost = apiQueryResult.getString(0, 2);
         RestaurantTemplatePost restaurantTemplatePost = HBParser.restaurantTemplatePost(rawPost);
 
         // Fetch/parse the delivery details
@@ -725,48 +760,45 @@ public class Main {
         List<Long> postIds = new ArrayList<>();
         String groupPostURL = null;
 
-        PostResponse driversTablePostResponse = generateDriversTablePost(
-                apiClient, driverPostFormat, topic, statusMessages);
-        PostResponse ordersTablePostResponse = generateOrdersTablePost(
-                apiClient, driverPostFormat, topic, statusMessages);
+        PostResponse driversTablePostResponse;
+        PostResponse ordersTablePostResponse;
+        PostResponse backupDriversPostResponse;
 
-        Post post = new Post();
-        post.title = "Generated Group Instructions Post";
-        post.topic_id = topic.getId();
-        post.raw = driverPostFormat.generateGroupInstructionsPost();
-        post.createdAt = ZonedDateTime.now(ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("uuuu.MM.dd.HH.mm.ss"));
+        // Each post is rendered while the ones before it are being sent.
+        try (PostPublisher publisher = new PostPublisher(apiClient, topic)) {
+            CompletableFuture<PostResponse> driversTablePost = generateDriversTablePost(publisher, driverPostFormat);
+            CompletableFuture<PostResponse> ordersTablePost = generateOrdersTablePost(publisher, driverPostFormat);
+            CompletableFuture<PostResponse> groupPost = publisher.publish(
+                    "Generated Group Instructions Post", driverPostFormat.generateGroupInstructionsPost());
 
-        HttpResponse<?> response = apiClient.post(post.toJson());
-
-        PostResponse postResponse = HBParser.postResponse((String)response.body());
-        postIds.add(postResponse.postId);
-        groupPostURL = postResponse.URL;
-
-        List<String> posts = driverPostFormat.generateDriverPosts();
-        Iterator<Driver> driverIterator = driverPostFormat.getDrivers().iterator();
-        for (String rawPost : posts) {
-            post = new Post();
-            post.title = "Generated Driver Post";
-            post.topic_id = topic.getId();
-            post.raw = rawPost;
-            post.createdAt = ZonedDateTime.now(ZoneId.systemDefault())
-                    .format(DateTimeFormatter.ofPattern("uuuu.MM.dd.HH.mm.ss"));
+            List<CompletableFuture<PostResponse>> driverPosts = new ArrayList<>();
+            for (String rawPost : driverPostFormat.generateDriverPosts()) {
+                driverPosts.add(publisher.publish("Generated Driver Post", rawPost));
+            }
 
-            response = apiClient.post(post.toJson());
+            CompletableFuture<PostResponse> backupDriversPost =
+                    generateBackupDriversPost(publisher, driverPostFormat);
 
-            postResponse = HBParser.postResponse((String)response.body());
+            PostResponse postResponse = Futures.waitFor(groupPost);
             postIds.add(postResponse.postId);
-            postURLs.add(
-                    "["
-                            + driverIterator.next().getUserName()
-                            + " message]("
-                            + postResponse.URL
-                            + ')');
-        }
+            groupPostURL = postResponse.URL;
+
+            Iterator<Driver> driverIterator = driverPostFormat.getDrivers().iterator();
+            for (CompletableFuture<PostResponse> driverPost : driverPosts) {
+                postResponse = Futures.waitFor(driverPost);
+                postIds.add(postResponse.postId);
+                postURLs.add(
+                        "["
+                                + driverIterator.next().getUserName()
+                                + " message]("
+                                + postResponse.URL
+                                + ')');
+            }
 
-        PostResponse backupDriversPostResponse = generateBackupDriversPost(
-                apiClient, driverPostFormat, topic, statusMessages);
+            driversTablePostResponse = Futures.waitFor(driversTablePost);
+            ordersTablePostResponse = Futures.waitFor(ordersTablePost);
+            backupDriversPostResponse = Futures.waitFor(backupDriversPost);
+        }
 
         statusMessages.append(driverPostFormat.statusTitle());
 
@@ -804,71 +836,42 @@ public class Main {
         }
 
         if (! topic.equals(Constants.TOPIC_DRIVERS_POST_STAGING)) {
-            response = apiClient.changePostOwner(topic.getId(), postIds, dispatcherUsername);
+            apiClient.changePostOwner(topic.getId(), postIds, dispatcherUsername);
         }
 
         return statusMessages.toString();
     }
 
-    private static PostResponse generateDriversTablePost(ApiClient apiClient, DriverPostFormat driverPostFormat,
-           Topic topic, StringBuilder statusMessages) {
+    private static CompletableFuture<PostResponse> generateDriversTablePost(
+            PostPublisher publisher, DriverPostFormat driverPostFormat) {
 
         if (! (driverPostFormat instanceof DriverPostFormatV300)) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         DriverPostFormatV300 driverPostFormatV300 = (DriverPostFormatV300) driverPostFormat;
-
-        Post post = new Post();
-        post.title = "Generated Drivers Table Post";
-        post.topic_id = topic.getId();
-        post.raw = driverPostFormatV300.generateDriversTablePost();
-        post.createdAt = ZonedDateTime.now(ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("uuuu.MM.dd.HH.mm.ss"));
-
-        HttpResponse<?> response = apiClient.post(post.toJson());
-
-        return HBParser.postResponse((String)response.body());
+        return publisher.publish("Generated Drivers Table Post", driverPostFormatV300.generateDriversTablePost());
     }
 
-    private static PostResponse generateOrdersTablePost(ApiClient apiClient,
-              DriverPostFormat driverPostFormat, Topic topic, StringBuilder statusMessages) {
+    private static CompletableFuture<PostResponse> generateOrdersTablePost(
+            PostPublisher publisher, DriverPostFormat driverPostFormat) {
 
         if (! (driverPostFormat instanceof DriverPostFormatV300)) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         DriverPostFormatV300 driverPostFormatV300 = (DriverPostFormatV300) driverPostFormat;
-
-        Post post = new Post();
-        post.title = "Generated Orders Table Post";
-        post.topic_id = topic.getId();
-        post.raw = driverPostFormatV300.generateOrdersTablePost();
-        post.createdAt = ZonedDateTime.now(ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("uuuu.MM.dd.HH.mm.ss"));
-
-        HttpResponse<?> response = apiClient.post(post.toJson());
-
-        return HBParser.postResponse((String)response.body());
+        return publisher.publish("Generated Orders Table Post", driverPostFormatV300.generateOrdersTablePost());
     }
 
-    private static PostResponse generateBackupDriversPost(ApiClient apiClient,
-                DriverPostFormat driverPostFormat, Topic topic, StringBuilder statusMessages) {
+    private static CompletableFuture<PostResponse> generateBackupDriversPost(
+            PostPublisher publisher, DriverPostFormat driverPostFormat) {
 
         if (! (driverPostFormat instanceof DriverPostFormatV200)) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
-        Post post = new Post();
-        post.title = "Generated Backup Driver Post";
-        post.topic_id = topic.getId();
-        post.raw = driverPostFormat.generateBackupDriverPost();
-        post.createdAt = ZonedDateTime.now(ZoneId.systemDefault())
-                .format(DateTimeFormatter.ofPattern("uuuu.MM.dd.HH.mm.ss"));
-
-        HttpResponse<?> response = apiClient.post(post.toJson());
-
-        return HBParser.postResponse((String)response.body());
+        return publisher.publish("Generated Backup Driver Post", driverPostFormat.generateBackupDriverPost());
     }
 
     // Process the last request in the Post completed daily orders topic
@@ -894,10 +897,8 @@ public class Main {
 
         WorkRequestHandler.WorkRequest request = (WorkRequestHandler.WorkRequest) reply;
 
-        // Read users file
-        String csvData = Files.readString(Paths.get(allMembersFile));
-        // Parse users
-        List<User> userList = HBParser.users(csvData);
+        // Read/parse users file
+        List<User> userList = MemberSnapshotFile.load(allMembersFile);
         // Build a map of users by user name.
         Map<String, User> users = new Tables(userList).mapByUserName();
 
@@ -992,10 +993,8 @@ public class Main {
 
         WorkRequestHandler.WorkRequest request = (WorkRequestHandler.WorkRequest) reply;
 
-        // Read users file
-        String csvData = Files.readString(Paths.get(allMembersFile));
-        // Parse users
-        List<User> userList = HBParser.users(csvData);
+        // Read/parse users file
+        List<User> userList = MemberSnapshotFile.load(allMembersFile);
         // Build a map of users by user name.
         Map<String, User> users = new Tables(userList).mapByUserName();
 
@@ -1054,8 +1053,7 @@ public class Main {
             throws IOException {
 
         // Load users
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
         Tables tables = new Tables(users);
         Map<String, User> usersByUserName = tables.mapByUserName();
 
@@ -1084,8 +1082,7 @@ public class Main {
 
     private static void drivers(ApiClient apiClient, String usersFile) throws IOException {
         // Load users
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
 
         // Fetch driver details
         String json = apiClient.runQuery(Constants.QUERY_GET_DRIVER_DETAILS);
@@ -1156,34 +1153,36 @@ public class Main {
     }
 
     private static void driverHistory(ApiClient apiClient) {
-        // Generate the driver history table
-        String driverHistoryTable = DriverHistory.generateDriverHistory(apiClient);
+        // Bring the driver history table up to date
+        DriverHistory.Table driverHistoryTable = DriverHistory.updateDriverHistory(apiClient, DRIVER_HISTORY_POST_ID);
 
         // Export updated driver history
-        String fileName = new DriverHistoryExporter(driverHistoryTable).driverHistoryToFile("");
+        String fileName = new DriverHistoryExporter(driverHistoryTable.driverRuns).driverHistoryToFile("");
 
         // Upload new driver history
         Upload upload = new Upload(apiClient, fileName);
 
-        // Update order history post
-        updateFile(apiClient, upload.getFileName(), upload.getShortURL(),
-                DRIVER_HISTORY_TITLE, DRIVER_HISTORY_POST_ID);
+        // Update driver history post, with the last order history data post included
+        updateFile(apiClient, upload.getFileName(), upload.getShortURL(), DRIVER_HISTORY_TITLE,
+                DRIVER_HISTORY_POST_ID, DriverHistory.LAST_POST_PROCESSED + driverHistoryTable.lastPostProcessed);
     }
 
     private static void oneKitchenDriverHistory(ApiClient apiClient) {
 
-        // Generate the OneKitchen driver history table
-        String driverHistoryTable = DriverHistory.generateOneKitchenDriverHistory(apiClient);
+        // Bring the OneKitchen driver history table up to date
+        DriverHistory.Table driverHistoryTable =
+                DriverHistory.updateOneKitchenDriverHistory(apiClient, ONE_KITCHEN_DRIVER_HISTORY_POST_ID);
 
         // Export updated order history
-        String fileName = new DriverHistoryExporter(driverHistoryTable).driverHistoryToFile("onekitchen-");
+        String fileName = new DriverHistoryExporter(driverHistoryTable.driverRuns).driverHistoryToFile("onekitchen-");
 
         // Upload new driver history
         Upload upload = new Upload(apiClient, fileName);
 
-        // Update OneKitchen order history post
-        updateFile(apiClient, upload.getFileName(), upload.getShortURL(),
-                DRIVER_HISTORY_TITLE, ONE_KITCHEN_DRIVER_HISTORY_POST_ID);
+        // Update OneKitchen driver history post, with the last order history data post included
+        updateFile(apiClient, upload.getFileName(), upload.getShortURL(), DRIVER_HISTORY_TITLE,
+                ONE_KITCHEN_DRIVER_HISTORY_POST_ID,
+                DriverHistory.LAST_POST_PROCESSED + driverHistoryTable.lastPostProcessed);
     }
 
     private static void restaurantTemplate(ApiClient apiClient) {
@@ -1369,8 +1368,7 @@ public class Main {
     private static void customerCarePost(
             ApiClient apiClient, String usersFile) throws IOException {
         // Load users
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
 
         UserExporter userExporter = new UserExporter(users);
 
@@ -1385,8 +1383,7 @@ public class Main {
     private static void frreg(
             ApiClient apiClient, String usersFile) throws IOException {
         // Load users
-        String csvData = Files.readString(Paths.get(usersFile));
-        List<User> users = HBParser.users(csvData);
+        List<User> users = MemberSnapshotFile.load(usersFile);
 
         UserExporter userExporter = new UserExporter(users);
 
@@ -1398,11 +1395,45 @@ public class Main {
         assert response.statusCode() == HTTP_OK : "failed " + response.statusCode() + ": " + response.body();
     }
 
-    private static void workRequests(ApiClient apiClient, String usersFile) throws IOException {
+    /**
+     * Poll for work requests until the process is stopped.
+     *
+     * Unlike running work-requests from cron, the JVM, the ApiClient and the process wide
+     * caches (compiled message blocks, restaurant templates, downloads) stay warm between polls.
+     * A failed poll is logged and retried at the next interval.
+     */
+    private static void serve(ApiClient apiClient, String usersFile, long pollSeconds) {
+        LOGGER.info("Serving work requests, polling every {} {}", pollSeconds,
+                servePollUnit.toString().toLowerCase());
+        servePollsRun = 0;
+        servePollsFailed = 0;
+
+        for (long poll = 0; poll < servePolls; poll++) {
+            if (poll > 0) {
+                try {
+                    Thread.sleep(servePollUnit.toMillis(pollSeconds));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    LOGGER.info("Serving work requests interrupted");
+                    return;
+                }
+            }
+
+            servePollsRun++;
+            try {
+                workRequests(apiClient, usersFile);
+            } catch (RuntimeException ex) {
+                servePollsFailed++;
+                LOGGER.error("Work requests poll failed: {}", ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private static void workRequests(ApiClient apiClient, String usersFile) {
         String json = apiClient.runQuery(Constants.QUERY_GET_REQUESTS_LAST_REPLIES);
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
 
-        assert apiQueryResult.rows.length == 9 : apiQueryResult.rows.length;
+        assert apiQueryResult.getRowCount() == 9 : apiQueryResult.getRowCount();
         Integer postNumberIndex = apiQueryResult.getColumnIndex(Constants.DISCOURSE_COLUMN_POST_NUMBER);
         assert postNumberIndex != null;
         Integer posterUsernameIndex = apiQueryResult.getColumnIndex(Constants.DISCOURSE_COLUMN_POSTER_USERNAME);
@@ -1412,15 +1443,19 @@ public class Main {
         Integer topicIdIndex = apiQueryResult.getColumnIndex(Constants.DISCOURSE_COLUMN_TOPIC_ID);
         assert topicIdIndex != null;
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 6 : columns.length;
+        assert apiQueryResult.headers.length == 6 : apiQueryResult.headers.length;
+
+        // Find the pending requests.  Replies that are already a status need nothing further.
+        List<WorkRequestHandler> handlers = new ArrayList<>();
+        List<WorkRequestHandler.WorkRequest> requests = new ArrayList<>();
+        List<Long> topicIds = new ArrayList<>();
 
-            Long topicId = (Long)columns[topicIdIndex];
-            Long postNumber = (Long)columns[postNumberIndex];
-            String posterUsername = (String)columns[posterUsernameIndex];
-            String raw = (String)columns[rawIndex];
-            String topicName = (String)columns[rawIndex];
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            long topicId = apiQueryResult.getLong(row, topicIdIndex);
+            long postNumber = apiQueryResult.getLong(row, postNumberIndex);
+            String posterUsername = apiQueryResult.getString(row, posterUsernameIndex);
+            String raw = apiQueryResult.getString(row, rawIndex);
+            String topicName = apiQueryResult.getString(row, rawIndex);
 
             WorkRequestHandler requestHandler = new WorkRequestHandler(
                     apiClient, new Topic(topicName, topicId), postNumber, raw, posterUsername);
@@ -1439,37 +1474,82 @@ public class Main {
                 continue;
             }
 
-            // Parse users files
-            String csvData = Files.readString(Paths.get(usersFile));
-            Map<String, User> users = new Tables(HBParser.users(csvData)).mapByUserName();
+            handlers.add(requestHandler);
+            requests.add((WorkRequestHandler.WorkRequest) reply);
+            topicIds.add(topicId);
+        }
 
-            WorkRequestHandler.WorkRequest request = (WorkRequestHandler.WorkRequest) reply;
+        if (requests.isEmpty()) {
+            return;
+        }
 
-            try {
-                if (topicId == Constants.TOPIC_REQUEST_DRIVER_MESSAGES.getId()) {
-                    doDriverMessages(apiClient, request, users);
-                } else if (topicId == Constants.TOPIC_POST_COMPLETED_DAILY_ORDERS.getId()) {
-                    doCompletedDailyOrders(apiClient, request, users);
-                } else if (topicId == Constants.TOPIC_REQUEST_ONE_KITCHEN_DRIVER_MESSAGES.getId()) {
-                    doOneKitchenDriverMessages(apiClient, request, users);
-                } else if (topicId == Constants.TOPIC_REQUEST_WORKFLOW.getId()) {
-                    createWorkflowRequest(request);
-                } else if (topicId == Constants.TOPIC_POST_ONE_KITCHEN_RESTAURANT_TEMPLATE.getId()) {
-                    doOneKitchenRestaurantTemplate(apiClient, request);
-                } else if (topicId == Constants.TOPIC_POST_RESTAURANT_TEMPLATE.getId()) {
-                    doRestaurantTemplate(apiClient, request);
-                } else if (topicId == Constants.TOPIC_POST_COMPLETED_ONEKITCHEN_ORDERS.getId()) {
-                    doCompletedOneKitchenOrders(apiClient, request, users);
-                } else if (topicId == Constants.TOPIC_REQUEST_DATA.getId()) {
-                    doUpdateMemberData(apiClient, request, users);
-                } else {
-                    assert topicId == Constants.TOPIC_REQUEST_DRIVER_ROUTES.getId() : topicId;
-                    requestHandler.postStatus(WorkRequestHandler.RequestStatus.Failed,
-                            "Route requests not supported");
+        // Each request is on its own topic, only reads the shared member snapshot,
+        // and posts its own status, so they can run side by side.
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(WORK_REQUEST_THREADS, requests.size()));
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int index = 0; index < requests.size(); index++) {
+                WorkRequestHandler requestHandler = handlers.get(index);
+                WorkRequestHandler.WorkRequest request = requests.get(index);
+                long topicId = topicIds.get(index);
+
+                futures.add(executor.submit(() -> {
+                    workRequest(apiClient, usersFile, requestHandler, request, topicId);
+                    return null;
+                }));
+            }
+
+            // Let every request finish before reporting the first unexpected failure.
+            RuntimeException failure = null;
+            for (Future<Void> future : futures) {
+                try {
+                    Futures.waitFor(future);
+                } catch (RuntimeException ex) {
+                    if (failure == null) {
+                        failure = ex;
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
                 }
-            } catch (MemberDataException ex) {
-                requestHandler.postStatus(WorkRequestHandler.RequestStatus.Failed, ex.getMessage());
             }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void workRequest(ApiClient apiClient, String usersFile, WorkRequestHandler requestHandler,
+            WorkRequestHandler.WorkRequest request, long topicId) throws IOException {
+
+        // Parsed once, and shared read-only between requests
+        Map<String, User> users = MemberSnapshot.users(usersFile);
+
+        try {
+            if (topicId == Constants.TOPIC_REQUEST_DRIVER_MESSAGES.getId()) {
+                doDriverMessages(apiClient, request, users);
+            } else if (topicId == Constants.TOPIC_POST_COMPLETED_DAILY_ORDERS.getId()) {
+                doCompletedDailyOrders(apiClient, request, users);
+            } else if (topicId == Constants.TOPIC_REQUEST_ONE_KITCHEN_DRIVER_MESSAGES.getId()) {
+                doOneKitchenDriverMessages(apiClient, request, users);
+            } else if (topicId == Constants.TOPIC_REQUEST_WORKFLOW.getId()) {
+                createWorkflowRequest(request);
+            } else if (topicId == Constants.TOPIC_POST_ONE_KITCHEN_RESTAURANT_TEMPLATE.getId()) {
+                doOneKitchenRestaurantTemplate(apiClient, request);
+            } else if (topicId == Constants.TOPIC_POST_RESTAURANT_TEMPLATE.getId()) {
+                doRestaurantTemplate(apiClient, request);
+            } else if (topicId == Constants.TOPIC_POST_COMPLETED_ONEKITCHEN_ORDERS.getId()) {
+                doCompletedOneKitchenOrders(apiClient, request, users);
+            } else if (topicId == Constants.TOPIC_REQUEST_DATA.getId()) {
+                doUpdateMemberData(apiClient, request, users);
+            } else {
+                assert topicId == Constants.TOPIC_REQUEST_DRIVER_ROUTES.getId() : topicId;
+                requestHandler.postStatus(WorkRequestHandler.RequestStatus.Failed,
+                        "Route requests not supported");
+            }
+        } catch (MemberDataException ex) {
+            requestHandler.postStatus(WorkRequestHandler.RequestStatus.Failed, ex.getMessage());
         }
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Process wide snapshot of the parsed all-members file, so that the work requests
+ * handled in one run, or in successive serve polls, share a single parse.
+ *
+ * The file's modification time and size are checked on every lookup.  When either
+ * has changed the file is read again, and it is only reparsed if its content differs
+ * from the snapshot.  The users map is unmodifiable and shared between handlers,
+ * which only read it.
+ */
+final class MemberSnapshot {
+
+    private static String fileName = null;
+    private static FileTime lastModified = null;
+    private static long size = -1;
+    private static String csvData = null;
+    private static Map<String, User> users = null;
+
+    private static long hits = 0;
+    private static long misses = 0;
+
+    private MemberSnapshot() {
+    }
+
+    /**
+     * @return The users in the given all-members file, mapped by user name.
+     */
+    static synchronized Map<String, User> users(final String usersFile) throws IOException {
+        Path path = Paths.get(usersFile);
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        if (! usersFile.equals(fileName)) {
+            load(usersFile, path, attributes);
+        } else if ((attributes.size() != size) || (! attributes.lastModifiedTime().equals(lastModified))) {
+            String data = Files.readString(path);
+
+            if (data.equals(csvData)) {
+                hits++;
+                lastModified = attributes.lastModifiedTime();
+                size = attributes.size();
+            } else {
+                load(usersFile, data, attributes);
+            }
+        } else {
+            hits++;
+        }
+
+        return users;
+    }
+
+    private static void load(final String usersFile, final Path path,
+            final BasicFileAttributes attributes) throws IOException {
+        load(usersFile, Files.readString(path), attributes);
+    }
+
+    private static void load(final String usersFile, final String data,
+            final BasicFileAttributes attributes) throws IOException {
+        misses++;
+
+        // Parse before replacing anything, so that a bad file leaves the previous snapshot in place.
+        Map<String, User> parsed = new Tables(MemberSnapshotFile.load(usersFile, data)).mapByUserName();
+
+        users = Collections.unmodifiableMap(parsed);
+        csvData = data;
+        fileName = usersFile;
+        lastModified = attributes.lastModifiedTime();
+        size = attributes.size();
+    }
+
+    static synchronized void clear() {
+        fileName = null;
+        lastModified = null;
+        size = -1;
+        csvData = null;
+        users = null;
+        hits = 0;
+        misses = 0;
+    }
+
+    static synchronized long getHits() {
+        return hits;
+    }
+
+    static synchronized long getMisses() {
+        return misses;
+    }
+}
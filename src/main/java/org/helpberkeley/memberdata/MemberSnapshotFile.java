@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Binary snapshot of the users in an all-members file, written next to the CSV file
+ * by fetch, so that later commands can load the users without parsing the CSV
+ * and normalizing every user again.
+ *
+ * Layout, big endian:
+ *   header:  magic, version, CSV size, CSV modified millis, user count,
+ *            group count, string count, data error count
+ *   groups:  string index of each group name, bit N of a group bitmask is group N
+ *   strings: start offset of each string, then the end offset, then UTF-8 bytes.
+ *            Each distinct string is stored once.
+ *   errors:  string index of each data error
+ *   users:   fixed size records, see RECORD_SIZE
+ *
+ * The CSV size and modification time are recorded so that a snapshot is only used
+ * while its CSV file is unchanged.  Otherwise the CSV is parsed as before.
+ */
+final class MemberSnapshotFile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemberSnapshotFile.class);
+
+    static final String SUFFIX = "snapshot";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int MAGIC = 0x48424d53;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = (6 * Integer.BYTES) + (2 * Long.BYTES);
+
+    // String fields in each record
+    private static final int NAME = 0;
+    private static final int USER_NAME = 1;
+    private static final int ADDRESS = 2;
+    private static final int CITY = 3;
+    private static final int PHONE = 4;
+    private static final int ALT_PHONE = 5;
+    private static final int NEIGHBORHOOD = 6;
+    private static final int CREATE_TIME = 7;
+    private static final int VOLUNTEER_REQUEST = 8;
+    private static final int REFERRAL = 9;
+    private static final int STRING_FIELDS = 10;
+
+    // id, string fields, first error and error count, condo/consumer request/email verified
+    private static final int FIXED_RECORD_SIZE = Long.BYTES + (STRING_FIELDS * Integer.BYTES)
+            + (2 * Integer.BYTES) + (3 * Byte.BYTES);
+
+    private static final int NO_STRING = -1;
+    private static final byte NULL_BOOLEAN = -1;
+
+    private MemberSnapshotFile() {
+    }
+
+    /**
+     * @return The name of the snapshot file kept alongside the given CSV file.
+     */
+    static String snapshotFileName(final String csvFileName) {
+        String baseName = csvFileName.endsWith(".csv")
+                ? csvFileName.substring(0, csvFileName.length() - ".csv".length())
+                : csvFileName;
+        return baseName + '.' + SUFFIX;
+    }
+
+    /**
+     * Write a snapshot of the given users, as loaded from the given CSV file.
+     */
+    static void write(final String csvFileName, final List<User> users) throws IOException {
+        BasicFileAttributes csvAttributes = Files.readAttributes(Paths.get(csvFileName), BasicFileAttributes.class);
+        Path snapshotPath = Paths.get(snapshotFileName(csvFileName)).toAbsolutePath();
+        byte[] snapshot = encode(users, csvAttributes.size(), csvAttributes.lastModifiedTime().toMillis());
+
+        // Write to a private temp file in the same directory and then move it into place,
+        // so that a concurrent or later reader never sees a partial snapshot.
+        Path temp = Files.createTempFile(snapshotPath.getParent(), snapshotPath.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            Files.write(temp, snapshot);
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        LOGGER.trace("Wrote: {}", snapshotPath);
+    }
+
+    /**
+     * Load the users from the given all-members CSV file, through its snapshot when
+     * there is a current one.
+     */
+    static List<User> load(final String csvFileName) throws IOException {
+        List<User> users = read(csvFileName);
+        return (users != null) ? users : HBParser.users(Files.readString(Paths.get(csvFileName)));
+    }
+
+    /**
+     * Load the users from the given all-members CSV file, whose content has already been read,
+     * through its snapshot when there is a current one.
+     */
+    static List<User> load(final String csvFileName, final String csvData) throws IOException {
+        List<User> users = read(csvFileName);
+        return (users != null) ? users : HBParser.users(csvData);
+    }
+
+    /**
+     * @return The users in the snapshot for the given CSV file, or null if there is no
+     *         snapshot, or it does not match the CSV file.
+     */
+    static List<User> read(final String csvFileName) throws IOException {
+        Path snapshotPath = Paths.get(snapshotFileName(csvFileName));
+        if (! Files.exists(snapshotPath)) {
+            return null;
+        }
+
+        BasicFileAttributes csvAttributes = Files.readAttributes(Paths.get(csvFileName), BasicFileAttributes.class);
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if ((buffer.remaining() < HEADER_SIZE) || (buffer.getInt(0) != MAGIC) || (buffer.getInt(4) != VERSION)) {
+                LOGGER.warn("Ignoring unrecognized member snapshot {}", snapshotPath);
+                return null;
+            }
+            if ((buffer.getLong(8) != csvAttributes.size())
+                    || (buffer.getLong(16) != csvAttributes.lastModifiedTime().toMillis())) {
+                LOGGER.info("Ignoring out of date member snapshot {}", snapshotPath);
+                return null;
+            }
+
+            try {
+                return decode(buffer);
+            } catch (RuntimeException ex) {
+                // Corrupt or truncated, parse the CSV instead
+                LOGGER.warn("Ignoring unreadable member snapshot {}: {}", snapshotPath, ex.toString());
+                return null;
+            }
+        }
+    }
+
+    static byte[] encode(final List<User> users, long csvSize, long csvModified) throws IOException {
+
+        // Intern the strings and group names
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> groupIndex = new LinkedHashMap<>();
+        int errorCount = 0;
+
+        for (User user : users) {
+            for (String value : stringFields(user)) {
+                intern(value, stringIndex, strings);
+            }
+            for (String error : user.getDataErrors()) {
+                intern(error, stringIndex, strings);
+            }
+            errorCount += user.getDataErrors().size();
+
+            for (String group : user.groupMemberships()) {
+                groupIndex.putIfAbsent(group, groupIndex.size());
+            }
+            for (String group : user.groupOwnerships()) {
+                groupIndex.putIfAbsent(group, groupIndex.size());
+            }
+        }
+        for (String group : groupIndex.keySet()) {
+            intern(group, stringIndex, strings);
+        }
+
+        int groupWords = groupWords(groupIndex.size());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(csvSize);
+        out.writeLong(csvModified);
+        out.writeInt(users.size());
+        out.writeInt(groupIndex.size());
+        out.writeInt(strings.size());
+        out.writeInt(errorCount);
+
+        for (String group : groupIndex.keySet()) {
+            out.writeInt(stringIndex.get(group));
+        }
+
+        List<byte[]> encodedStrings = new ArrayList<>(strings.size());
+        int offset = 0;
+        for (String value : strings) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            encodedStrings.add(encoded);
+            out.writeInt(offset);
+            offset += encoded.length;
+        }
+        out.writeInt(offset);
+        for (byte[] encoded : encodedStrings) {
+            out.write(encoded);
+        }
+
+        for (User user : users) {
+            for (String error : user.getDataErrors()) {
+                out.writeInt(stringIndex.get(error));
+            }
+        }
+
+        int firstError = 0;
+        for (User user : users) {
+            out.writeLong(user.getId());
+            for (String value : stringFields(user)) {
+                out.writeInt(value == null ? NO_STRING : stringIndex.get(value));
+            }
+            out.writeInt(firstError);
+            out.writeInt(user.getDataErrors().size());
+            firstError += user.getDataErrors().size();
+
+            out.writeByte(encodeBoolean(user.isCondo()));
+            out.writeByte(encodeBoolean(user.hasConsumerRequest()));
+            out.writeByte(encodeBoolean(user.getEmailVerified()));
+
+            writeGroups(out, user.groupMemberships(), groupIndex, groupWords);
+            writeGroups(out, user.groupOwnerships(), groupIndex, groupWords);
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static List<User> decode(final ByteBuffer buffer) {
+        int userCount = buffer.getInt(24);
+        int groupCount = buffer.getInt(28);
+        int stringCount = buffer.getInt(32);
+        int errorCount = buffer.getInt(36);
+
+        int groupsStart = HEADER_SIZE;
+        int offsetsStart = groupsStart + (groupCount * Integer.BYTES);
+        int stringsStart = offsetsStart + ((stringCount + 1) * Integer.BYTES);
+        int errorsStart = stringsStart + buffer.getInt(offsetsStart + (stringCount * Integer.BYTES));
+        int recordsStart = errorsStart + (errorCount * Integer.BYTES);
+
+        int groupWords = groupWords(groupCount);
+        int recordSize = FIXED_RECORD_SIZE + (2 * groupWords * Long.BYTES);
+
+        if (buffer.limit() != recordsStart + ((long) userCount * recordSize)) {
+            throw new MemberDataException("Corrupt member snapshot, unexpected size " + buffer.limit());
+        }
+
+        // Decode each distinct string once
+        String[] strings = new String[stringCount];
+        ByteBuffer stringBytes = buffer.duplicate();
+        for (int index = 0; index < stringCount; index++) {
+            int start = buffer.getInt(offsetsStart + (index * Integer.BYTES));
+            int end = buffer.getInt(offsetsStart + ((index + 1) * Integer.BYTES));
+            byte[] encoded = new byte[end - start];
+            stringBytes.position(stringsStart + start);
+            stringBytes.get(encoded);
+            strings[index] = new String(encoded, StandardCharsets.UTF_8);
+        }
+
+        String[] groups = new String[groupCount];
+        for (int index = 0; index < groupCount; index++) {
+            groups[index] = strings[buffer.getInt(groupsStart + (index * Integer.BYTES))];
+        }
+
+        List<User> users = new ArrayList<>(userCount);
+        String[] fields = new String[STRING_FIELDS];
+
+        for (int record = 0; record < userCount; record++) {
+            int position = recordsStart + (record * recordSize);
+
+            long id = buffer.getLong(position);
+            position += Long.BYTES;
+
+            for (int field = 0; field < STRING_FIELDS; field++) {
+                int index = buffer.getInt(position);
+                fields[field] = (index == NO_STRING) ? null : strings[index];
+                position += Integer.BYTES;
+            }
+
+            int firstError = buffer.getInt(position);
+            int userErrorCount = buffer.getInt(position + Integer.BYTES);
+            position += 2 * Integer.BYTES;
+            List<String> dataErrors = new ArrayList<>(userErrorCount);
+            for (int error = firstError; error < firstError + userErrorCount; error++) {
+                dataErrors.add(strings[buffer.getInt(errorsStart + (error * Integer.BYTES))]);
+            }
+
+            Boolean condo = decodeBoolean(buffer.get(position++));
+            Boolean consumerRequest = decodeBoolean(buffer.get(position++));
+            Boolean emailVerified = decodeBoolean(buffer.get(position++));
+
+            List<String> memberships = readGroups(buffer, position, groups, groupWords);
+            position += groupWords * Long.BYTES;
+            List<String> ownerships = readGroups(buffer, position, groups, groupWords);
+
+            users.add(User.restoreUser(fields[NAME], fields[USER_NAME], id, fields[ADDRESS], fields[CITY],
+                    fields[PHONE], fields[ALT_PHONE], fields[NEIGHBORHOOD], fields[CREATE_TIME],
+                    condo, consumerRequest, fields[VOLUNTEER_REQUEST], fields[REFERRAL], emailVerified,
+                    memberships, ownerships, dataErrors));
+        }
+
+        return users;
+    }
+
+    private static String[] stringFields(final User user) {
+        String[] fields = new String[STRING_FIELDS];
+        fields[NAME] = user.getName();
+        fields[USER_NAME] = user.getUserName();
+        fields[ADDRESS] = user.getAddress();
+        fields[CITY] = user.getCity();
+        fields[PHONE] = user.getPhoneNumber();
+        fields[ALT_PHONE] = user.getAltPhoneNumber();
+        fields[NEIGHBORHOOD] = user.getNeighborhood();
+        fields[CREATE_TIME] = user.getCreateTime();
+        fields[VOLUNTEER_REQUEST] = user.getVolunteerRequest();
+        fields[REFERRAL] = user.getReferral();
+        return fields;
+    }
+
+    private static void intern(final String value, Map<String, Integer> stringIndex, List<String> strings) {
+        if ((value != null) && (! stringIndex.containsKey(value))) {
+            stringIndex.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    private static int groupWords(int groupCount) {
+        return (groupCount + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static void writeGroups(DataOutputStream out, final Set<String> userGroups,
+            final Map<String, Integer> groupIndex, int groupWords) throws IOException {
+
+        long[] words = new long[groupWords];
+        for (String group : userGroups) {
+            int bit = groupIndex.get(group);
+            words[bit / Long.SIZE] |= 1L << (bit % Long.SIZE);
+        }
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    private static List<String> readGroups(final ByteBuffer buffer, int position,
+            final String[] groups, int groupWords) {
+
+        List<String> userGroups = new ArrayList<>();
+        for (int word = 0; word < groupWords; word++) {
+            long bits = buffer.getLong(position + (word * Long.BYTES));
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                userGroups.add(groups[(word * Long.SIZE) + bit]);
+                bits &= bits - 1;
+            }
+        }
+        return userGroups;
+    }
+
+    private static byte encodeBoolean(final Boolean value) {
+        return (value == null) ? NULL_BOOLEAN : (byte) (value ? 1 : 0);
+    }
+
+    private static Boolean decodeBoolean(byte value) {
+        return (value == NULL_BOOLEAN) ? null : (value == 1);
+    }
+}
@@ -64,6 +64,15 @@ public class MessageBlock implements MessageBlockScope {
     }
 
     public void parse() {
+        // An unchanged block has already been parsed by this process
+        MessageBlockCache.Compiled compiled = MessageBlockCache.get(topic, postNumber, raw);
+        if (compiled != null) {
+            LOGGER.trace("Using cached parse of {}:{}", topic, postNumber);
+            setName(compiled.name);
+            elements.addAll(compiled.elements);
+            return;
+        }
+
         // create a lexer that feeds off of input CharStream
         MessageBlockLexer lexer = new MessageBlockBailLexer(name, postNumber, CharStreams.fromString(raw));
 
@@ -94,6 +103,8 @@ public class MessageBlock implements MessageBlockScope {
         // Walk the tree
         ParseTreeWalker walker = new ParseTreeWalker();
         walker.walk(new Listener(this), tree);
+
+        MessageBlockCache.put(topic, postNumber, raw, name, elements);
     }
 
     void setName(final String name) {
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Process wide cache of parsed message blocks, so that an unchanged format
+ * post is only lexed and parsed once per process.
+ *
+ * Entries are keyed by (topic, post number, content hash), and the raw content
+ * is compared on lookup so that a hash collision is never a hit.
+ * The least recently used entry is evicted once the cache is full.
+ * The cached element trees are shared between MessageBlocks, and are not
+ * modified after parsing.
+ */
+final class MessageBlockCache {
+
+    static final int MAX_ENTRIES = 512;
+
+    private static final Map<Key, Compiled> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Compiled> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static long hits = 0;
+    private static long misses = 0;
+
+    private MessageBlockCache() {
+    }
+
+    /**
+     * @return The parsed block, or null if it is not in the cache.
+     */
+    static synchronized Compiled get(long topic, long postNumber, final String raw) {
+        Compiled compiled = cache.get(new Key(topic, postNumber, raw.hashCode()));
+
+        if ((compiled == null) || (! compiled.raw.equals(raw))) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return compiled;
+    }
+
+    static synchronized void put(long topic, long postNumber, final String raw,
+            final String name, final List<MessageBlockElement> elements) {
+        cache.put(new Key(topic, postNumber, raw.hashCode()), new Compiled(raw, name, elements));
+    }
+
+    static synchronized void clear() {
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    static synchronized int size() {
+        return cache.size();
+    }
+
+    static synchronized long getHits() {
+        return hits;
+    }
+
+    static synchronized long getMisses() {
+        return misses;
+    }
+
+    static final class Compiled {
+        final String raw;
+        final String name;
+        final List<MessageBlockElement> elements;
+
+        private Compiled(final String raw, final String name, final List<MessageBlockElement> elements) {
+            this.raw = raw;
+            this.name = name;
+            this.elements = List.copyOf(elements);
+        }
+    }
+
+    private static final class Key {
+        private final long topic;
+        private final long postNumber;
+        private final int contentHash;
+
+        Key(long topic, long postNumber, int contentHash) {
+            this.topic = topic;
+            this.postNumber = postNumber;
+            this.contentHash = contentHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (! (obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return (topic == other.topic) && (postNumber == other.postNumber) && (contentHash == other.contentHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topic, postNumber, contentHash);
+        }
+    }
+}
@@ -52,6 +52,9 @@ public class Options {
     static final String COMMAND_CUSTOMER_CARE_POST = "customer-care";
     static final String COMMAND_FRREG = "frreg";
     static final String COMMAND_WORK_REQUESTS = "work-requests";
+    static final String COMMAND_SERVE = "serve";
+
+    static final long DEFAULT_POLL_SECONDS = 60;
 
     static final String USAGE_ERROR = "Usage error for command ";
     static final String UNKNOWN_COMMAND = USAGE_ERROR + ": unknown command: ";
@@ -61,10 +64,12 @@ public class Options {
     static final String COMMAND_REQUIRES_ONE_ARG = ": command requires an argument";
     static final String BAD_SHORT_URL = USAGE_ERROR + ": short url syntax error";
     static final String FILE_DOES_NOT_EXIST = USAGE_ERROR + ": file does not exist: ";
+    static final String BAD_POLL_INTERVAL = ": poll interval must be a whole number of seconds, at least 1: ";
 
     static final String USAGE =
             "Usage: " + COMMAND_FETCH + "\n"
                     + "    | " + COMMAND_WORK_REQUESTS + " all-members-file\n"
+                    + "    | " + COMMAND_SERVE + " all-members-file [poll-seconds]\n"
                     + "    | " + COMMAND_COMPLETED_DAILY_ORDERS + " all-members-file\n"
                     + "    | " + COMMAND_COMPLETED_ONEKITCHEN_ORDERS + " all-members-file\n"
                     + "    | " + COMMAND_ORDER_HISTORY + " all-members-file\n"
@@ -93,6 +98,7 @@ public class Options {
     private String fileName;
     private String shortURL;
     private boolean postStatus = false;
+    private long pollSeconds = DEFAULT_POLL_SECONDS;
 
 
     Options(final String[] args) {
@@ -154,6 +160,26 @@ public class Options {
                     postStatus = Boolean.parseBoolean(args[index++]);
                 }
 
+                break;
+            case COMMAND_SERVE:
+                setCommand(arg);
+                if (index == args.length) {
+                    dieMessage(USAGE_ERROR + arg + COMMAND_REQUIRES_FILE_NAME);
+                }
+                fileName = args[index++];
+
+                if (index < args.length) {
+                    String seconds = args[index++];
+                    try {
+                        pollSeconds = Long.parseLong(seconds);
+                    } catch (NumberFormatException ex) {
+                        pollSeconds = -1;
+                    }
+                    if (pollSeconds < 1) {
+                        dieMessage(USAGE_ERROR + arg + BAD_POLL_INTERVAL + seconds);
+                    }
+                }
+
                 break;
             case COMMAND_POST_DISPATCHERS:
                 setCommand(arg);
@@ -202,6 +228,10 @@ public class Options {
         return postStatus;
     }
 
+    long getPollSeconds() {
+        return pollSeconds;
+    }
+
     private void setCommand(final String command) {
         if (this.command != null) {
             dieMessage(TOO_MANY_COMMANDS);
@@ -26,7 +26,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class OrderHistory {
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderHistory.class);
@@ -36,6 +38,11 @@ public class OrderHistory {
     private static final String FIRST_ORDER_DATE_COLUMN = "First Order Date";
     private static final String LAST_ORDER_DATE_COLUMN = "Last Order Date";
 
+    // Concurrent delivery file downloads during a merge
+    static final int DOWNLOAD_THREADS = 4;
+    // Downloads in flight, or parsed and waiting to be merged
+    static final int MAX_PENDING_DOWNLOADS = DOWNLOAD_THREADS * 2;
+
     private final Map<Long, Row> history = new TreeMap<>();
     String historyThroughDate;
 
@@ -106,27 +113,43 @@ public class OrderHistory {
                  Map<String, User> usersByUserName) {
 
         // If a reset of the order history has been done, we are going to download
-        // all of the delivery files.  Avoid getting rate limited by Discourse, which
-        // occurs when there are more than 60 requests per minute on a connection.
-        long napTime = (postsToProcess.size() > 10) ? TimeUnit.SECONDS.toMillis(1) : 0;
-
-        for (OrderHistoryData orderHistoryData : postsToProcess.values()) {
-            LOGGER.debug("processing {}", orderHistoryData);
-            // Download the delivery file
-            UploadFile uploadFile = orderHistoryData.getUploadFile();
-            String deliveries = apiClient.downloadFile(uploadFile.getFileName());
-            // Parse list of user restaurant orders
-            List<UserOrder> userOrders = HBParser.parseOrders(uploadFile.getOriginalFileName(), deliveries);
-
-            // Merge the data into the existing order history
-            merge(orderHistoryData.getDate(), userOrders, usersByUserName);
-
-            try {
-                Thread.sleep(napTime);
-            } catch (InterruptedException ignored) { }
+        // all of the delivery files.  Download and parse them concurrently,
+        // ApiClient paces the downloads to stay within the Discourse rate limit.
+        // The results are merged in date order.  At most MAX_PENDING_DOWNLOADS
+        // parsed files are held waiting on an earlier, slower download.
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(postsToProcess.size(), DOWNLOAD_THREADS)));
+
+        try {
+            Iterator<OrderHistoryData> toSubmit = postsToProcess.values().iterator();
+            Deque<Future<List<UserOrder>>> pending = new ArrayDeque<>();
+
+            for (OrderHistoryData orderHistoryData : postsToProcess.values()) {
+                while (toSubmit.hasNext() && (pending.size() < MAX_PENDING_DOWNLOADS)) {
+                    OrderHistoryData next = toSubmit.next();
+                    pending.add(executor.submit(() -> downloadOrders(apiClient, next)));
+                }
+
+                List<UserOrder> userOrders = Futures.waitFor(pending.remove());
+
+                // Merge the data into the existing order history
+                merge(orderHistoryData.getDate(), userOrders, usersByUserName);
+            }
+            assert pending.isEmpty() : pending.size();
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    private static List<UserOrder> downloadOrders(ApiClient apiClient, OrderHistoryData orderHistoryData) {
+        LOGGER.debug("processing {}", orderHistoryData);
+        // Download the delivery file
+        UploadFile uploadFile = orderHistoryData.getUploadFile();
+        String deliveries = apiClient.downloadFile(uploadFile.getFileName());
+        // Parse list of user restaurant orders
+        return HBParser.parseOrders(uploadFile.getOriginalFileName(), deliveries);
+    }
+
     // FIX THIS, DS: make this private and rename to mergeOrders
     void merge(String date, List<UserOrder> userOrders, Map<String, User> usersByUserName) {
 
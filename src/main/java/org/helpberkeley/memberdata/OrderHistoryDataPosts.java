@@ -44,6 +44,7 @@ public class OrderHistoryDataPosts {
     private final long currentLastPostProcessed;
     private final SortedMap<String, OrderHistoryData> allPosts = new TreeMap<>();
     private final SortedMap<String, OrderHistoryData> newPosts = new TreeMap<>();
+    private final SortedMap<Long, OrderHistoryData> postsByNumber = new TreeMap<>();
 
     public OrderHistoryDataPosts(ApiClient apiClient, int queryId) {
         this.apiClient = apiClient;
@@ -70,6 +71,26 @@ public class OrderHistoryDataPosts {
         return newPosts;
     }
 
+    /**
+     * Posts newer than a last post processed watermark kept by some other consumer
+     * of the Order History Data topic, keyed by date.  Later posts overwrite earlier
+     * posts for the same date.
+     */
+    public SortedMap<String, OrderHistoryData> getPostsAfter(long lastPostProcessed) {
+        SortedMap<String, OrderHistoryData> posts = new TreeMap<>();
+        for (OrderHistoryData orderHistoryData : postsByNumber.tailMap(lastPostProcessed + 1).values()) {
+            posts.put(orderHistoryData.getDate(), orderHistoryData);
+        }
+        return posts;
+    }
+
+    /**
+     * @return Number (1-origin) of the last post in the topic.
+     */
+    public long getLastPostNumber() {
+        return currentLastPostProcessed;
+    }
+
     public ApiClient getApiClient() {
         return apiClient;
     }
@@ -81,12 +102,9 @@ public class OrderHistoryDataPosts {
     private long parseLastProcessedPost(ApiQueryResult apiQueryResult) {
         assert apiQueryResult.headers.length == 3 : apiQueryResult.headers.length;
         assert apiQueryResult.headers[2].equals(Constants.DISCOURSE_COLUMN_RAW);
-        assert apiQueryResult.rows.length != 0 : "No rows returned";
-        Object rowObj = apiQueryResult.rows[0];
-        Object[] columns = (Object[]) rowObj;
-        assert columns.length == 3 : "Wrong number of columns: " + columns.length;
+        assert apiQueryResult.getRowCount() != 0 : "No rows returned";
 
-        String raw = ((String)columns[2]).trim();
+        String raw = apiQueryResult.getString(0, 2).trim();
         int index = raw.indexOf(LAST_POST_PROCESSED);
         assert index != -1 : LAST_POST_PROCESSED + " not found in " + raw;
         return Long.parseLong(raw.substring(index + LAST_POST_PROCESSED.length()));
@@ -110,22 +128,20 @@ public class OrderHistoryDataPosts {
 
         long postNumber = 0;
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 3 : columns.length;
-
-            postNumber = (Long) (columns[0]);
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            postNumber = apiQueryResult.getLong(row, 0);
 
             assert postNumber != 0;
             if (postNumber == 1) {
                 continue;
             }
 
-            String raw = ((String) columns[2]).trim();
+            String raw = apiQueryResult.getString(row, 2).trim();
 
             OrderHistoryData orderHistoryData = new OrderHistoryData(raw);
 
             allPosts.put(orderHistoryData.getDate(), orderHistoryData);
+            postsByNumber.put(postNumber, orderHistoryData);
 
             if (postNumber > previousLastPostProcessed) {
                 newPosts.put(orderHistoryData.getDate(), orderHistoryData);
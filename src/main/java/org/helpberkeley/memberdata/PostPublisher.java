@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Publishes posts to a topic in the background, in submission order.
+ *
+ * Discourse numbers the posts in a topic in the order it receives them, so
+ * the posts for a topic are sent one at a time, in the order submitted.
+ * The caller goes on rendering the next post while earlier ones are in
+ * flight, and collects the PostResponses from the returned futures.
+ * Rate limiting is left to the RequestScheduler in ApiClient.
+ *
+ * Once a post fails, nothing after it is sent.  The futures for the
+ * failed post and all later posts complete with the failure.
+ * Closing the publisher waits for the queued posts.
+ */
+class PostPublisher implements AutoCloseable {
+
+    private final ApiClient apiClient;
+    private final Topic topic;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Last post submitted.  Each post is chained after it.
+    private CompletableFuture<PostResponse> last = CompletableFuture.completedFuture(null);
+
+    PostPublisher(ApiClient apiClient, Topic topic) {
+        this.apiClient = apiClient;
+        this.topic = topic;
+    }
+
+    /**
+     * Queue a post to the topic.
+     *
+     * @param title Post title
+     * @param raw Post content
+     * @return Response for the post, once it has been sent.
+     */
+    CompletableFuture<PostResponse> publish(final String title, final String raw) {
+        Post post = new Post();
+        post.title = title;
+        post.topic_id = topic.getId();
+        post.raw = raw;
+        post.createdAt = ZonedDateTime.now(ZoneId.systemDefault())
+                .format(DateTimeFormatter.ofPattern("uuuu.MM.dd.HH.mm.ss"));
+
+        last = last.thenApplyAsync(previous -> HBParser.postResponse(apiClient.post(post.toJson()).body()), executor);
+        return last;
+    }
+
+    /**
+     * Wait for the queued posts to be sent, even when the caller is leaving on a failure,
+     * so that every post published before the failure still goes out.
+     */
+    @Override
+    public void close() {
+        try {
+            last.join();
+        } catch (CompletionException ex) {
+            // Reported through the futures returned by publish
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,561 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pull parser for Data Explorer query results.
+ *
+ * Reads the columns array up front and then walks the rows array one
+ * row at a time, without building an object graph for the whole result.
+ * Cell values for the current row are held in reusable primitive slots,
+ * so that ids and flags can be read without boxing.
+ *
+ * <pre>
+ *     QueryResultReader reader = new QueryResultReader(json);
+ *     int userIdIndex = reader.getColumnIndex(Constants.COLUMN_USER_ID);
+ *     while (reader.next()) {
+ *         long userId = reader.getLong(userIdIndex);
+ *         ...
+ *     }
+ * </pre>
+ */
+class QueryResultReader {
+
+    static final String COLUMNS_FIELD = "columns";
+    static final String ROWS_FIELD = "rows";
+
+    private static final int NULL = 0;
+    private static final int LONG = 1;
+    private static final int BOOLEAN = 2;
+    private static final int STRING = 3;
+    private static final int OTHER = 4;
+
+    private static final int END_OF_INPUT = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+    private final StringBuilder scratch = new StringBuilder();
+
+    private final String[] columns;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+    // Current row.  Longs and booleans live in longValues, everything else in objectValues.
+    private final int[] kinds;
+    private final long[] longValues;
+    private final Object[] objectValues;
+
+    private int rowNumber = 0;
+    private boolean done = false;
+
+    QueryResultReader(final String json) {
+        this(new StringReader(json));
+    }
+
+    QueryResultReader(final Reader reader) {
+        this.reader = reader;
+        columns = readColumns();
+
+        for (int index = 0; index < columns.length; index++) {
+            Integer previous = columnIndexes.put(columns[index], index);
+            assert previous == null : columns[index];
+        }
+
+        kinds = new int[columns.length];
+        longValues = new long[columns.length];
+        objectValues = new Object[columns.length];
+    }
+
+    String[] getColumns() {
+        return columns.clone();
+    }
+
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    Integer getColumnIndex(final String columnName) {
+        return columnIndexes.get(columnName);
+    }
+
+    /**
+     * Advance to the next row.
+     *
+     * @return false if there are no more rows.
+     */
+    boolean next() {
+        if (done) {
+            return false;
+        }
+
+        int c = skipWhitespace();
+
+        if (c == ']') {
+            read();
+            done = true;
+            return false;
+        }
+
+        if (rowNumber > 0) {
+            expect(',');
+            skipWhitespace();
+        }
+
+        expect('[');
+        for (int index = 0; index < columns.length; index++) {
+            if (index > 0) {
+                skipWhitespace();
+                if (peek() == ']') {
+                    throw new MemberDataException("Query result row " + rowNumber + " has "
+                            + index + " columns, expected " + columns.length);
+                }
+                expect(',');
+            }
+            readCell(index);
+        }
+        skipWhitespace();
+        if (peek() != ']') {
+            throw new MemberDataException("Query result row " + rowNumber
+                    + " has more than " + columns.length + " columns");
+        }
+        read();
+
+        rowNumber++;
+        return true;
+    }
+
+    boolean isNull(int index) {
+        return kinds[index] == NULL;
+    }
+
+    boolean isLong(int index) {
+        return kinds[index] == LONG;
+    }
+
+    boolean isBoolean(int index) {
+        return kinds[index] == BOOLEAN;
+    }
+
+    boolean isString(int index) {
+        return kinds[index] == STRING;
+    }
+
+    long getLong(int index) {
+        if (kinds[index] != LONG) {
+            throw typeMismatch(index, "an integer");
+        }
+        return longValues[index];
+    }
+
+    boolean getBoolean(int index) {
+        if (kinds[index] != BOOLEAN) {
+            throw typeMismatch(index, "a boolean");
+        }
+        return longValues[index] != 0;
+    }
+
+    /**
+     * @return String value of the cell, or null if the cell is null.
+     */
+    String getString(int index) {
+        switch (kinds[index]) {
+            case NULL:
+                return null;
+            case STRING:
+                return (String) objectValues[index];
+            default:
+                throw typeMismatch(index, "a string");
+        }
+    }
+
+    /**
+     * @return Boxed value of the cell: Long, Boolean, String, Double, Object[], Map, or null.
+     */
+    Object getObject(int index) {
+        switch (kinds[index]) {
+            case NULL:
+                return null;
+            case LONG:
+                return longValues[index];
+            case BOOLEAN:
+                return longValues[index] != 0;
+            default:
+                return objectValues[index];
+        }
+    }
+
+    private MemberDataException typeMismatch(int index, final String expected) {
+        return new MemberDataException("Query result row " + (rowNumber - 1) + " column "
+                + columns[index] + " is not " + expected + ": " + getObject(index));
+    }
+
+    // Walk the top level object until the start of the rows array.
+    private String[] readColumns() {
+        String[] columnNames = null;
+
+        skipWhitespace();
+        expect('{');
+
+        int c = skipWhitespace();
+        if (c == '}') {
+            throw new MemberDataException("Query result has no " + COLUMNS_FIELD);
+        }
+
+        while (true) {
+            skipWhitespace();
+            String fieldName = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            if (fieldName.equals(COLUMNS_FIELD)) {
+                Object value = readValue(true);
+                if (! (value instanceof Object[])) {
+                    throw new MemberDataException("Query result " + COLUMNS_FIELD + " is not an array");
+                }
+                Object[] values = (Object[]) value;
+                columnNames = new String[values.length];
+                for (int index = 0; index < values.length; index++) {
+                    columnNames[index] = (String) values[index];
+                }
+            } else if (fieldName.equals(ROWS_FIELD)) {
+                if (columnNames == null) {
+                    throw new MemberDataException("Query result " + ROWS_FIELD
+                            + " seen before " + COLUMNS_FIELD);
+                }
+                expect('[');
+                return columnNames;
+            } else {
+                readValue(false);
+            }
+
+            c = skipWhitespace();
+            if (c == '}') {
+                break;
+            }
+            expect(',');
+        }
+
+        if (columnNames == null) {
+            throw new MemberDataException("Query result has no " + COLUMNS_FIELD);
+        }
+
+        // No rows array at all
+        done = true;
+        return columnNames;
+    }
+
+    private void readCell(int index) {
+        int c = skipWhitespace();
+
+        switch (c) {
+            case '"':
+                kinds[index] = STRING;
+                objectValues[index] = readString();
+                break;
+            case 't':
+            case 'f':
+                kinds[index] = BOOLEAN;
+                longValues[index] = readBoolean() ? 1 : 0;
+                break;
+            case 'n':
+                readLiteral("null");
+                kinds[index] = NULL;
+                objectValues[index] = null;
+                break;
+            case '[':
+            case '{':
+                kinds[index] = OTHER;
+                objectValues[index] = readValue(true);
+                break;
+            default:
+                Object number = readNumber();
+                if (number instanceof Long) {
+                    kinds[index] = LONG;
+                    longValues[index] = (Long) number;
+                } else {
+                    kinds[index] = OTHER;
+                    objectValues[index] = number;
+                }
+                break;
+        }
+    }
+
+    /**
+     * Read any JSON value.
+     *
+     * @param keep false to skip over the value without building it.
+     * @return The value, or null if not kept.
+     */
+    private Object readValue(boolean keep) {
+        int c = skipWhitespace();
+
+        switch (c) {
+            case '"':
+                if (keep) {
+                    return readString();
+                }
+                skipString();
+                return null;
+            case 't':
+            case 'f':
+                return readBoolean();
+            case 'n':
+                readLiteral("null");
+                return null;
+            case '[':
+                return readArray(keep);
+            case '{':
+                return readObject(keep);
+            case END_OF_INPUT:
+                throw new MemberDataException("Query result ended unexpectedly");
+            default:
+                return readNumber();
+        }
+    }
+
+    private Object[] readArray(boolean keep) {
+        expect('[');
+        List<Object> values = keep ? new ArrayList<>() : null;
+
+        if (skipWhitespace() == ']') {
+            read();
+            return keep ? new Object[0] : null;
+        }
+
+        while (true) {
+            Object value = readValue(keep);
+            if (keep) {
+                values.add(value);
+            }
+            int c = skipWhitespace();
+            if (c == ']') {
+                read();
+                return keep ? values.toArray() : null;
+            }
+            expect(',');
+        }
+    }
+
+    private Map<String, Object> readObject(boolean keep) {
+        expect('{');
+        Map<String, Object> values = keep ? new LinkedHashMap<>() : null;
+
+        if (skipWhitespace() == '}') {
+            read();
+            return values;
+        }
+
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            Object value = readValue(keep);
+            if (keep) {
+                values.put(key, value);
+            }
+            int c = skipWhitespace();
+            if (c == '}') {
+                read();
+                return values;
+            }
+            expect(',');
+        }
+    }
+
+    private boolean readBoolean() {
+        if (peek() == 't') {
+            readLiteral("true");
+            return true;
+        }
+        readLiteral("false");
+        return false;
+    }
+
+    private void readLiteral(final String literal) {
+        for (int index = 0; index < literal.length(); index++) {
+            expect(literal.charAt(index));
+        }
+    }
+
+    private Object readNumber() {
+        scratch.setLength(0);
+        boolean integral = true;
+
+        while (true) {
+            int c = peek();
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+') {
+                scratch.append((char) read());
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                scratch.append((char) read());
+            } else {
+                break;
+            }
+        }
+
+        if (scratch.length() == 0) {
+            throw new MemberDataException("Unexpected character '" + (char) peek()
+                    + "' in query result row " + rowNumber);
+        }
+
+        String number = scratch.toString();
+        try {
+            if (integral) {
+                return Long.parseLong(number);
+            }
+        } catch (NumberFormatException ignored) {
+            // Too big for a long
+        }
+
+        try {
+            return Double.parseDouble(number);
+        } catch (NumberFormatException ex) {
+            throw new MemberDataException("Invalid number " + number + " in query result");
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        scratch.setLength(0);
+
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return scratch.toString();
+            } else if (c == '\\') {
+                scratch.append(readEscape());
+            } else if (c == END_OF_INPUT) {
+                throw new MemberDataException("Unterminated string in query result");
+            } else {
+                scratch.append((char) c);
+            }
+        }
+    }
+
+    private void skipString() {
+        expect('"');
+
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                readEscape();
+            } else if (c == END_OF_INPUT) {
+                throw new MemberDataException("Unterminated string in query result");
+            }
+        }
+    }
+
+    private char readEscape() {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int digit = 0; digit < 4; digit++) {
+                    int hex = Character.digit(read(), 16);
+                    if (hex == -1) {
+                        throw new MemberDataException("Invalid unicode escape in query result");
+                    }
+                    value = (value << 4) | hex;
+                }
+                return (char) value;
+            default:
+                throw new MemberDataException("Invalid escape \\" + (char) c + " in query result");
+        }
+    }
+
+    private void expect(char expected) {
+        int c = read();
+        if (c != expected) {
+            throw new MemberDataException("Expected '" + expected + "' but found "
+                    + (c == END_OF_INPUT ? "end of input" : "'" + (char) c + "'") + " in query result");
+        }
+    }
+
+    // Skip whitespace and return the next character without consuming it.
+    private int skipWhitespace() {
+        while (true) {
+            int c = peek();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int peek() {
+        if (position == limit && ! fill()) {
+            return END_OF_INPUT;
+        }
+        return buffer[position];
+    }
+
+    private int read() {
+        if (position == limit && ! fill()) {
+            return END_OF_INPUT;
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() {
+        try {
+            int count = reader.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = count;
+            return true;
+        } catch (IOException ex) {
+            throw new MemberDataException(ex);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by all Discourse requests.
+ *
+ * Discourse rate limits API requests to 60 per minute.  Every request
+ * sent by ApiClient first takes a permit from here, so callers no longer
+ * need to sleep between requests.  A Retry-After from a 429/503 response
+ * pauses all callers until the server is willing to talk again.
+ */
+class RequestScheduler {
+
+    static final int DISCOURSE_REQUESTS_PER_MINUTE = 60;
+    static final int DISCOURSE_BURST = 10;
+
+    static final long MAX_BACKOFF_MILLISECONDS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final long nanosPerPermit;
+    private final long burstToleranceNanos;
+
+    // Earliest time at which the bucket will be full again.  Guarded by this.
+    private long fullAtNanos;
+
+    RequestScheduler(int requestsPerMinute, int burst) {
+        assert requestsPerMinute > 0 : requestsPerMinute;
+        assert burst > 0 : burst;
+
+        nanosPerPermit = TimeUnit.MINUTES.toNanos(1) / requestsPerMinute;
+        burstToleranceNanos = nanosPerPermit * (burst - 1);
+        fullAtNanos = System.nanoTime();
+    }
+
+    /**
+     * Create a scheduler sized to the Discourse rate limit.
+     */
+    static RequestScheduler forDiscourse() {
+        return new RequestScheduler(DISCOURSE_REQUESTS_PER_MINUTE, DISCOURSE_BURST);
+    }
+
+    /**
+     * Block until a request may be sent.
+     */
+    void acquire() {
+        long waitNanos;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            // Idle time only banks up to a burst worth of permits
+            fullAtNanos = Math.max(fullAtNanos, now);
+            waitNanos = fullAtNanos - now - burstToleranceNanos;
+            fullAtNanos += nanosPerPermit;
+        }
+
+        if (waitNanos > 0) {
+            sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Hold off all callers for the given time.
+     *
+     * @param milliseconds Time the server asked us to wait.
+     */
+    void pause(long milliseconds) {
+        synchronized (this) {
+            long resume = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(milliseconds);
+            fullAtNanos = Math.max(fullAtNanos, resume + burstToleranceNanos);
+        }
+    }
+
+    /**
+     * Time to wait before the given retry attempt.  Honors a Retry-After header
+     * in the response, when there is one.  Otherwise uses exponential backoff
+     * with jitter, so that concurrent callers do not retry in lock step.
+     *
+     * @param attempt 0-origin retry attempt
+     * @param baseMilliseconds Backoff for the first retry
+     * @param response Failed response, or null if the request threw.
+     * @return Milliseconds to wait
+     */
+    static long backoffMilliseconds(int attempt, long baseMilliseconds, HttpResponse<?> response) {
+
+        Optional<Long> retryAfter = retryAfterMilliseconds(response);
+        if (retryAfter.isPresent()) {
+            return Math.min(retryAfter.get(), MAX_BACKOFF_MILLISECONDS);
+        }
+
+        if (baseMilliseconds <= 0) {
+            return 0;
+        }
+
+        long ceiling = baseMilliseconds << Math.min(attempt, 16);
+        ceiling = Math.min(ceiling, MAX_BACKOFF_MILLISECONDS);
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    /**
+     * Parse a Retry-After header, which is either a number of seconds or an HTTP date.
+     */
+    static Optional<Long> retryAfterMilliseconds(HttpResponse<?> response) {
+
+        if ((response == null) || (response.headers() == null)) {
+            return Optional.empty();
+        }
+
+        Optional<String> value = response.headers().firstValue(RETRY_AFTER_HEADER);
+        if (value.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String retryAfter = value.get().trim();
+
+        try {
+            return Optional.of(TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(retryAfter))));
+        } catch (NumberFormatException ignored) { }
+
+        try {
+            ZonedDateTime when = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Optional.of(Math.max(0, Duration.between(ZonedDateTime.now(), when).toMillis()));
+        } catch (DateTimeParseException ignored) { }
+
+        return Optional.empty();
+    }
+
+    private void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MemberDataException("interrupted waiting to send to Discourse", ex);
+        }
+    }
+}
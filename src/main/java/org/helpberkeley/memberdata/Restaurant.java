@@ -47,6 +47,19 @@ public abstract class Restaurant implements ItineraryStop {
         this.lineNumber = lineNumber;
     }
 
+    protected Restaurant(Restaurant restaurant) {
+        name = restaurant.name;
+        lineNumber = restaurant.lineNumber;
+        address = restaurant.address;
+        startTime = restaurant.startTime;
+        closingTime = restaurant.closingTime;
+        closingTimeValue = restaurant.closingTimeValue;
+        details = restaurant.details;
+        emoji = restaurant.emoji;
+        route = restaurant.route;
+        drivers.putAll(restaurant.drivers);
+    }
+
     public static Restaurant createRestaurant(ControlBlock controlBlock, String name, int lineNumber) {
         if (controlBlock.versionIsCompatible(Constants.CONTROL_BLOCK_VERSION_200)) {
             return new RestaurantV200(controlBlock, name, lineNumber);
@@ -58,6 +71,10 @@ public abstract class Restaurant implements ItineraryStop {
         }
     }
 
+    /**
+     * @return A copy that can be modified without affecting this restaurant.
+     */
+    public abstract Restaurant copy();
     protected abstract void setVersionSpecificFields(RestaurantBean restaurantBean);
     protected abstract String setVersionSpecificFields(WorkflowBean workflowBean);
     protected abstract void mergeInGlobalVersionSpecificFields(Restaurant globalRestaurant);
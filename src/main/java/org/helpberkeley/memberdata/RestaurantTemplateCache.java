@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Process wide cache of parsed restaurant templates, so that an unchanged
+ * template is only downloaded and parsed once per process.
+ *
+ * Entries are keyed by the upload file name from the template's short URL,
+ * which is derived from the upload content, so an entry never goes stale.
+ * The cached restaurants are never handed out: every lookup returns copies,
+ * which callers are free to modify.
+ */
+final class RestaurantTemplateCache {
+
+    static final int MAX_ENTRIES = 8;
+
+    private static final Map<String, Map<String, Restaurant>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, Restaurant>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static long hits = 0;
+    private static long misses = 0;
+
+    private RestaurantTemplateCache() {
+    }
+
+    /**
+     * @param shortURLFileName Upload file name of the restaurant template.
+     * @param download Fetches the template content, given the file name.  Only called on a miss.
+     * @return Restaurants from the template, copied for the caller.
+     */
+    static Map<String, Restaurant> restaurants(final String shortURLFileName, Function<String, String> download) {
+        synchronized (RestaurantTemplateCache.class) {
+            Map<String, Restaurant> restaurants = cache.get(shortURLFileName);
+
+            if (restaurants != null) {
+                hits++;
+                return copy(restaurants);
+            }
+            misses++;
+        }
+
+        // Download and parse outside of the lock.  Concurrent misses for the
+        // same template both parse it, and the results are equivalent.
+        String restaurantTemplate = download.apply(shortURLFileName);
+        Map<String, Restaurant> restaurants = RestaurantTemplateParser.create(restaurantTemplate).restaurants();
+
+        synchronized (RestaurantTemplateCache.class) {
+            cache.put(shortURLFileName, restaurants);
+        }
+
+        return copy(restaurants);
+    }
+
+    static synchronized void clear() {
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    static synchronized int size() {
+        return cache.size();
+    }
+
+    static synchronized long getHits() {
+        return hits;
+    }
+
+    static synchronized long getMisses() {
+        return misses;
+    }
+
+    private static Map<String, Restaurant> copy(Map<String, Restaurant> restaurants) {
+        Map<String, Restaurant> copy = new HashMap<>();
+        restaurants.forEach((name, restaurant) -> copy.put(name, restaurant.copy()));
+        return copy;
+    }
+}
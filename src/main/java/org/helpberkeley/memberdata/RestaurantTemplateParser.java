@@ -45,7 +45,7 @@ public abstract class RestaurantTemplateParser {
     private static final String ROUTE_MARKER = " Route";
 
     // Keep the line numbers in sync with the restaurant template.
-    // CsvToBeanBuilder swallows the header row and nextRow() pre-increments line number
+    // CSVRows.toBeans skips the header row and nextRow() pre-increments line number
     private int lineNumber = 1;
     private final Iterator<RestaurantBean> iterator;
     private String version = Constants.CONTROL_BLOCK_VERSION_UNKNOWN;
@@ -54,17 +54,18 @@ public abstract class RestaurantTemplateParser {
     private boolean validateFormulas = false;
 
 
-    protected RestaurantTemplateParser(ControlBlock controlBlock, String csvData) {
+    protected RestaurantTemplateParser(ControlBlock controlBlock, CSVRows rows) {
 
         this.controlBlock = controlBlock;
-        auditColumns(csvData);
+        auditColumns(rows);
 
-        List<RestaurantBean> restaurantBeans = parse(csvData);
+        List<RestaurantBean> restaurantBeans = parse(rows);
         iterator = restaurantBeans.iterator();
     }
 
     public static RestaurantTemplateParser create(String csvData) {
 
+        CSVRows rows;
         ControlBlock controlBlock;
 
         if (csvData.isEmpty()) {
@@ -72,7 +73,8 @@ public abstract class RestaurantTemplateParser {
         }
 
         try {
-            controlBlock = ControlBlock.create(csvData);
+            rows = CSVRows.parse(csvData);
+            controlBlock = ControlBlock.create(rows);
         } catch (MemberDataException ex) {
             throw new MemberDataException(TEMPLATE_ERROR + "\n" + ex.getMessage());
         }
@@ -81,9 +83,9 @@ public abstract class RestaurantTemplateParser {
         if (version.equals(Constants.CONTROL_BLOCK_VERSION_UNKNOWN)) {
             throw new MemberDataException("Restaurant template is missing the control block");
         } else if (controlBlock.versionIsCompatible(Constants.CONTROL_BLOCK_VERSION_200)) {
-            return new RestaurantTemplateParserV200(controlBlock, csvData);
+            return new RestaurantTemplateParserV200(controlBlock, rows);
         } else if (controlBlock.versionIsCompatible(Constants.CONTROL_BLOCK_VERSION_300)) {
-            return new RestaurantTemplateParserV300(controlBlock, csvData);
+            return new RestaurantTemplateParserV300(controlBlock, rows);
         } else {
             throw new MemberDataException(MessageFormat.format(
                     ControlBlock.UNSUPPORTED_VERSION_FOR, version, "restaurant templates."));
@@ -104,8 +106,8 @@ public abstract class RestaurantTemplateParser {
         return null;
     }
 
-    protected abstract void auditColumns(String csvData);
-    protected abstract List<RestaurantBean> parse(String csvData);
+    protected abstract void auditColumns(CSVRows rows);
+    protected abstract List<RestaurantBean> parse(CSVRows rows);
     protected abstract boolean isAddressBlockMarker(RestaurantBean bean);
 
     public Map<String, Restaurant> restaurantsWithFormulaAudit() {
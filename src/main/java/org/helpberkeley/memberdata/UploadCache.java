@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of files downloaded from Discourse.
+ *
+ * Uploads are immutable once posted, and the short URL file name is
+ * derived from the upload content, so cached copies never go stale.
+ * The cache is kept under a size cap by evicting the least recently
+ * used files.
+ */
+class UploadCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadCache.class);
+
+    static final long DEFAULT_MAX_MEGABYTES = 256;
+
+    private static final Pattern VALID_FILE_NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long STALE_TEMP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final Path directory;
+    private final long maxBytes;
+
+    UploadCache(final Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new MemberDataException("Cannot create upload cache directory " + directory, ex);
+        }
+    }
+
+    /**
+     * Create a cache as configured in the member data properties.
+     *
+     * @param directoryName Cache directory, or null if caching is not configured.
+     * @param maxMegabytes Size cap, or null for the default.
+     * @return Cache, or empty if caching is not configured.
+     */
+    static Optional<UploadCache> create(final String directoryName, final String maxMegabytes) {
+        if ((directoryName == null) || directoryName.isBlank()) {
+            return Optional.empty();
+        }
+
+        long megabytes = DEFAULT_MAX_MEGABYTES;
+        if (maxMegabytes != null) {
+            try {
+                megabytes = Long.parseLong(maxMegabytes.trim());
+            } catch (NumberFormatException ex) {
+                throw new MemberDataException("Invalid " + Constants.UPLOAD_CACHE_SIZE_PROPERTY
+                        + " property: " + maxMegabytes);
+            }
+        }
+
+        return Optional.of(new UploadCache(Paths.get(directoryName.trim()), megabytes * 1024 * 1024));
+    }
+
+    /**
+     * Look up a previously downloaded file.
+     *
+     * @param shortURLFileName Upload file name from the short URL
+     * @return File contents, or empty if not cached.
+     */
+    Optional<String> get(final String shortURLFileName) {
+        if (! isCacheable(shortURLFileName)) {
+            return Optional.empty();
+        }
+
+        Path path = directory.resolve(shortURLFileName);
+
+        try {
+            String fileData = Files.readString(path, StandardCharsets.UTF_8);
+            // Track recency of use for eviction
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            LOGGER.debug("upload cache hit {}", shortURLFileName);
+            return Optional.of(fileData);
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (IOException ex) {
+            LOGGER.warn("upload cache read of {} failed: {}", path, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Save a downloaded file, evicting older files if the cache is over its size cap.
+     *
+     * @param shortURLFileName Upload file name from the short URL
+     * @param fileData File contents
+     */
+    void put(final String shortURLFileName, final String fileData) {
+        if (! isCacheable(shortURLFileName)) {
+            return;
+        }
+
+        Path path = directory.resolve(shortURLFileName);
+
+        try {
+            // Write to a private temp file and then move it into place,
+            // so that concurrent readers never see a partial file.
+            Path temp = Files.createTempFile(directory, shortURLFileName, TEMP_SUFFIX);
+            try {
+                Files.writeString(temp, fileData, StandardCharsets.UTF_8);
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("upload cache write of {} failed: {}", path, ex.getMessage());
+            return;
+        }
+
+        evict();
+    }
+
+    private synchronized void evict() {
+
+        List<CachedFile> files = new ArrayList<>();
+        long totalBytes = 0;
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String fileName = path.getFileName().toString();
+                if (! Files.isRegularFile(path)) {
+                    continue;
+                }
+                if (fileName.endsWith(TEMP_SUFFIX)) {
+                    // Left behind by a writer that died mid-put.  Recent ones may still be in use.
+                    if (Files.getLastModifiedTime(path).toMillis() < System.currentTimeMillis() - STALE_TEMP_MILLIS) {
+                        Files.deleteIfExists(path);
+                        LOGGER.debug("upload cache removed stale {}", path);
+                    }
+                    continue;
+                }
+                CachedFile file = new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path));
+                files.add(file);
+                totalBytes += file.size;
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("upload cache scan of {} failed: {}", directory, ex.getMessage());
+            return;
+        }
+
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        files.sort(Comparator.comparing(file -> file.lastUsed));
+
+        for (CachedFile file : files) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(file.path);
+                totalBytes -= file.size;
+                LOGGER.debug("upload cache evicted {}", file.path);
+            } catch (IOException ex) {
+                LOGGER.warn("upload cache eviction of {} failed: {}", file.path, ex.getMessage());
+            }
+        }
+    }
+
+    private boolean isCacheable(final String shortURLFileName) {
+        return (shortURLFileName != null) && VALID_FILE_NAME.matcher(shortURLFileName).matches();
+    }
+
+    private static class CachedFile {
+        private final Path path;
+        private final long size;
+        private final FileTime lastUsed;
+
+        CachedFile(Path path, long size, FileTime lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
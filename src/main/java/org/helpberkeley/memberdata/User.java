@@ -147,6 +147,10 @@ public class User {
     static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
     static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yy/MM/dd");
 
+    // Characters dropped when comparing city and street names
+    private static final String VOWELS = "aeiou";
+    private static final String VOWELS_AND_Y = "aeiouy";
+
     private static final String[] BERKLEY_BERKELEY_STREETS = {
             // Berkeley Square
             "brkly sqr",
@@ -767,7 +771,7 @@ public class User {
             return;
         }
 
-        String digits = phoneNumber.replaceAll("\\D", "");
+        String digits = digits(phoneNumber);
 
         switch (digits.length()) {
             case 7:
@@ -819,7 +823,7 @@ public class User {
                 return;
         }
 
-        String digits = altPhoneNumber.replaceAll("\\D", "");
+        String digits = digits(altPhoneNumber);
 
         switch (digits.length()) {
             case 7:
@@ -859,12 +863,9 @@ public class User {
             return;
         }
 
-        if (cityIsBerkeley()) {
-            city = Constants.BERKELEY;
-        } else if (cityIsAlbany()) {
-            city = Constants.ALBANY;
-        } else if (cityIsKensington()) {
-            city = Constants.KENSINGTON;
+        String supportedCity = supportedCity(city);
+        if (supportedCity != null) {
+            city = supportedCity;
         }
     }
 
@@ -882,11 +883,9 @@ public class User {
         // Lower case
         addr = addr.toLowerCase();
 
-        // Remove all vowels but y
-        String compressed = addr.replaceAll("[aeiou]", "");
-
-        // Replace all repeating characters with single characters - e.g. bkkllyy -> bkly
-        compressed = compressed.replaceAll("(.)\\1+","$1");
+        // Remove all vowels but y, and replace all repeating characters
+        // with single characters - e.g. bkkllyy -> bkly
+        String compressed = compress(addr, VOWELS);
 
         if ((city.equals(Constants.BERKELEY) && streetContainsBerkeley(compressed))
             || (city.equals(Constants.ALBANY) && streetContainsAlbany(compressed))
@@ -966,31 +965,32 @@ public class User {
     }
 
     boolean isSupportedCity() {
-        return cityIsBerkeley() || cityIsKensington() || cityIsAlbany();
-    }
-
-    private boolean cityIsBerkeley() {
-
         if (city == null) {
             assert ! dataErrors.isEmpty();
             return false;
         }
 
-        // Convert to lower case
-        String cityName = city.toLowerCase();
+        return supportedCity(city) != null;
+    }
 
-        // Remove leading trailing whitespace
-        cityName = cityName.trim();
+    /**
+     * Match a city name, allowing for some misspellings, against the supported cities.
+     *
+     * @param city City name as entered.
+     * @return Constants.BERKELEY, ALBANY, or KENSINGTON, or null if the city is not supported.
+     */
+    static String supportedCity(final String city) {
 
-        // Remove all vowels but y
-        cityName = cityName.replaceAll("[aeiou]", "");
+        // Convert to lower case, remove leading trailing whitespace
+        String cityName = city.toLowerCase().trim();
 
-        // Replace all repeating characters with single characters - e.g. bkkllyy -> bkly
-        cityName = cityName.replaceAll("(.)\\1+","$1");
+        // Remove all vowels but y, and replace all repeating characters
+        // with single characters - e.g. bkkllyy -> bkly
+        String compressed = compress(cityName, VOWELS);
 
         // Look for the expected spelling and some possible misspellings:
 
-        switch (cityName) {
+        switch (compressed) {
             case "brkly":
             case "brkyl":
             case "brlky":
@@ -1010,89 +1010,91 @@ public class User {
 
             case "blk":
             case "bly":
-                return true;
+                return Constants.BERKELEY;
         }
 
-        return false;
-    }
-
-    private boolean cityIsAlbany() {
-
-        if (city == null) {
-            assert ! dataErrors.isEmpty();
-            return false;
+        // Has to at least start with an 'a'
+        if (cityName.startsWith("a")) {
+            switch (compressed) {
+                case "blny":
+                case "lbny":
+                case "lbn":
+                case "bny":
+                case "bnny":
+                    return Constants.ALBANY;
+            }
         }
 
-        // Convert to lower case
-        String cityName = city.toLowerCase();
-
-        // Remove leading trailing whitespace
-        cityName = cityName.trim();
-
-        // Has to at least start with an 'a'
-        if (! cityName.startsWith("a")) {
-            return false;
+        // Has to at least start with an 'k'
+        if (cityName.startsWith("k")) {
+            // Kensington drops the y as well - e.g. kkensingtonn -> knsngtn
+            switch (compress(cityName, VOWELS_AND_Y)) {
+                case "knsngtn":
+                case "knsgntn":
+                case "knstgn":
+                case "knsgtn":
+                case "knstn":
+                case "knsntn":
+                case "ksntn":
+                case "ksgtn":
+                    return Constants.KENSINGTON;
+            }
         }
 
-        // Remove all vowels but y
-        cityName = cityName.replaceAll("[aeiou]", "");
+        return null;
+    }
 
-        // Replace all repeating characters with single characters - e.g. bkkllyy -> bkly
-        cityName = cityName.replaceAll("(.)\\1+","$1");
+    /**
+     * Single pass equivalent of value.replaceAll("[" + dropped + "]", "").replaceAll("(.)\\1+", "$1")
+     */
+    static String compress(final String value, final String dropped) {
+        StringBuilder compressed = new StringBuilder(value.length());
+        int previous = -1;
 
-        // Look for the expected spelling and some possible misspellings:
+        for (int index = 0; index < value.length(); ) {
+            int codePoint = value.codePointAt(index);
+            index += Character.charCount(codePoint);
 
-        switch (cityName) {
-            case "blny":
-            case "lbny":
-            case "lbn":
-            case "bny":
-            case "bnny":
-                return true;
+            if (dropped.indexOf(codePoint) != -1) {
+                continue;
+            }
+            // '.' does not match line terminators, so they are never collapsed
+            if ((codePoint != previous) || isLineTerminator(codePoint)) {
+                compressed.appendCodePoint(codePoint);
+            }
+            previous = codePoint;
         }
 
-        return false;
+        return compressed.toString();
     }
 
-    private boolean cityIsKensington() {
+    /**
+     * Equivalent of value.replaceAll("\\D", "")
+     */
+    static String digits(final String value) {
+        StringBuilder digits = new StringBuilder(value.length());
 
-        if (city == null) {
-            assert ! dataErrors.isEmpty();
-            return false;
-        }
-
-        // Convert to lower case
-        String cityName = city.toLowerCase();
-
-        // Remove leading trailing whitespace
-        cityName = cityName.trim();
-
-        // Has to at least start with an 'k'
-        if (! cityName.startsWith("k")) {
-            return false;
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if ((c >= '0') && (c <= '9')) {
+                digits.append(c);
+            }
         }
 
-        // Remove all vowels but y
-        cityName = cityName.replaceAll("[aeiouy]", "");
-
-        // Replace all repeating characters with single characters - e.g. bkkllxx -> bklx
-        cityName = cityName.replaceAll("(.)\\1+","$1");
-
-        // Look for the expected spelling and some possible misspellings:
+        return digits.toString();
+    }
 
-        switch (cityName) {
-            case "knsngtn":
-            case "knsgntn":
-            case "knstgn":
-            case "knsgtn":
-            case "knstn":
-            case "knsntn":
-            case "ksntn":
-            case "ksgtn":
+    private static boolean isLineTerminator(int codePoint) {
+        switch (codePoint) {
+            case '\n':
+            case '\r':
+            case '\u0085':
+            case '\u2028':
+            case '\u2029':
                 return true;
+            default:
+                return false;
         }
-
-        return false;
     }
 
     // CTOR for test usage
@@ -1171,6 +1173,48 @@ public class User {
         return user;
     }
 
+    /**
+     * Rebuild a user that was already audited and normalized, as saved in a MemberSnapshotFile.
+     * The values are used as is.
+     */
+    static User restoreUser(
+            final String name,
+            final String userName,
+            final long id,
+            final String address,
+            final String city,
+            final String phoneNumber,
+            final String altPhoneNumber,
+            final String neighborhood,
+            final String createdAt,
+            final Boolean condo,
+            final Boolean consumerRequest,
+            final String volunteerRequest,
+            final String referral,
+            final Boolean emailVerified,
+            final Collection<String> groupMemberships,
+            final Collection<String> groupOwnerships,
+            final Collection<String> dataErrors) {
+
+        User user = new User(name, userName, id, address, city, phoneNumber, altPhoneNumber,
+                neighborhood, createdAt, condo, consumerRequest, volunteerRequest, referral, emailVerified);
+        user.groupMembership.addAll(groupMemberships);
+        user.groupOwnerships.addAll(groupOwnerships);
+        user.dataErrors.addAll(dataErrors);
+
+        return user;
+    }
+
+    // Snapshot support
+    Set<String> groupMemberships() {
+        return Collections.unmodifiableSet(groupMembership);
+    }
+
+    // Snapshot support
+    Set<String> groupOwnerships() {
+        return Collections.unmodifiableSet(groupOwnerships);
+    }
+
     static List<String> reportWithEmailCSVHeaders() {
         return reportHeaders(ReportHeaderOption.ADD_EMAIL);
     }
@@ -29,6 +29,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -71,7 +73,9 @@ public class WorkRequestHandler {
     private Reply lastReply;
 
     // Support for end-to-end testing through main()
-    private static Post lastStatusPost;
+    private static volatile Post lastStatusPost;
+    // Support for end-to-end testing through main().  Requests on different topics run concurrently.
+    private static final Map<Long, Post> statusPosts = new ConcurrentHashMap<>();
 
     WorkRequestHandler(ApiClient apiClient, Query query) {
         this.apiClient = apiClient;
@@ -90,6 +94,7 @@ public class WorkRequestHandler {
     // Support for end-to-end testing through main()
     static void clearLastStatusPost() {
         lastStatusPost = null;
+        statusPosts.clear();
     }
 
     // Support for end-to-end testing through main()
@@ -97,6 +102,16 @@ public class WorkRequestHandler {
         return lastStatusPost;
     }
 
+    // Support for end-to-end testing through main()
+    static Post getStatusPost(long topicId) {
+        return statusPosts.get(topicId);
+    }
+
+    private static void recordStatusPost(final Post post) {
+        lastStatusPost = post;
+        statusPosts.put(post.topic_id, post);
+    }
+
     Reply getLastReply() {
 
         if (lastReply != null) {
@@ -156,7 +171,7 @@ public class WorkRequestHandler {
         post.raw = rawPost;
         post.createdAt = timeStamp;
 
-        lastStatusPost = post;
+        recordStatusPost(post);
 
         HttpResponse<?> response = apiClient.post(post.toJson());
 
@@ -174,15 +189,14 @@ public class WorkRequestHandler {
         Integer rawIndex = apiQueryResult.getColumnIndex(Constants.DISCOURSE_COLUMN_RAW);
         assert rawIndex != null;
 
-        if (apiQueryResult.rows.length == 0) {
+        if (apiQueryResult.getRowCount() == 0) {
             throw new MemberDataException("Topic not found: " + query.getId() + ":" + query.getTopic());
         }
 
-        assert apiQueryResult.rows.length == 1 : apiQueryResult.rows.length;
+        assert apiQueryResult.getRowCount() == 1 : apiQueryResult.getRowCount();
 
-        Object[] columnObjs = (Object[]) apiQueryResult.rows[0];
-        long postNumber = (Long)columnObjs[postNumberIndex];
-        String lastReplyRaw = (String)columnObjs[rawIndex];
+        long postNumber = apiQueryResult.getLong(0, postNumberIndex);
+        String lastReplyRaw = apiQueryResult.getString(0, rawIndex);
 
         // Normalize EOL
         lastReplyRaw = lastReplyRaw.replaceAll("\\r\\n?", "\n");
@@ -290,7 +304,7 @@ public class WorkRequestHandler {
             post.raw = rawPost;
             post.createdAt = timeStamp;
 
-            lastStatusPost = post;
+            recordStatusPost(post);
 
             HttpResponse<?> response = apiClient.post(post.toJson());
             // FIX THIS, DS: what to do with this error?
@@ -23,7 +23,6 @@
 package org.helpberkeley.memberdata;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.text.MessageFormat;
 import java.util.*;
@@ -85,11 +84,7 @@ public class WorkflowExporter extends Exporter {
             }
             addBean(bean);
         }
-        List<String> incomingHeader;
-        try (StringReader reader = new StringReader(parser.csvData)) {
-            CSVListReader csvReader = new CSVListReader(reader);
-            incomingHeader = csvReader.readNextToList();
-        }
+        List<String> incomingHeader = parser.rows.header();
         List<String> outgoingHeader = updatedBeans.get(0).getCSVHeader();
         if (! incomingHeader.equals(outgoingHeader)) {
             errors.append(MessageFormat.format(HEADER_MISMATCH, incomingHeader, outgoingHeader));
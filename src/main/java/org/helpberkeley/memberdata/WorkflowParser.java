@@ -22,8 +22,6 @@
  */
 package org.helpberkeley.memberdata;
 
-import com.google.common.collect.Iterators;
-import com.google.common.collect.PeekingIterator;
 import org.helpberkeley.memberdata.v200.WorkflowParserV200;
 import org.helpberkeley.memberdata.v300.WorkflowParserV300;
 
@@ -38,30 +36,36 @@ public abstract class WorkflowParser {
 
     protected final ControlBlock controlBlock;
     // Keep the line numbers in sync with the workflow sheet.
-    // CsvToBeanBuilder swallows the header row and nextRow() pre-increments line number
+    // CSVRows.beans skips the header row and nextRow() pre-increments line number
     protected int lineNumber = 1;
-    protected final PeekingIterator<WorkflowBean> iterator;
+    protected final Iterator<WorkflowBean> iterator;
+    // One row lookahead for peekNextRow()
+    private WorkflowBean nextBean;
     protected Map<String, Restaurant> globalRestaurants;
-    protected final String csvData;
+    protected final CSVRows rows;
 
-    protected WorkflowParser(final String csvData) {
-        this.csvData = csvData;
-        controlBlock = ControlBlock.create(csvData);
+    protected WorkflowParser(final CSVRows rows, final ControlBlock controlBlock) {
+        this.rows = rows;
+        this.controlBlock = controlBlock;
         iterator = initializeIterator();
     }
 
     public static WorkflowParser create(Map<String, Restaurant> globalRestaurants, String csvData) {
+        return create(globalRestaurants, CSVRows.parse(csvData));
+    }
+
+    public static WorkflowParser create(Map<String, Restaurant> globalRestaurants, CSVRows rows) {
 
-        ControlBlock controlBlock = ControlBlock.create(csvData);
+        ControlBlock controlBlock = ControlBlock.create(rows);
         String version = controlBlock.getVersion();
         WorkflowParser workflowParser;
 
         if (version.equals(Constants.CONTROL_BLOCK_VERSION_UNKNOWN)) {
             throw new MemberDataException("Control block not found");
         } else if (controlBlock.versionIsCompatible(Constants.CONTROL_BLOCK_VERSION_200)) {
-            workflowParser = new WorkflowParserV200(csvData);
+            workflowParser = new WorkflowParserV200(rows, controlBlock);
         } else if (controlBlock.versionIsCompatible(Constants.CONTROL_BLOCK_VERSION_300)) {
-            workflowParser = new WorkflowParserV300(csvData);
+            workflowParser = new WorkflowParserV300(rows, controlBlock);
         } else {
             throw new MemberDataException(MessageFormat.format(
                     ControlBlock.UNSUPPORTED_VERSION_GENERIC, version));
@@ -71,7 +75,10 @@ public abstract class WorkflowParser {
         return workflowParser;
     }
 
-    protected abstract List<WorkflowBean> parse();
+    /**
+     * @return Beans for the data rows, bound as the iterator advances.
+     */
+    protected abstract Iterator<WorkflowBean> parse();
     /**
      * Check for missing columns.
      * @throws MemberDataException If there are any missing columns.
@@ -83,12 +90,11 @@ public abstract class WorkflowParser {
     protected abstract void auditDeliveryBeforePickup(Driver driver);
     protected abstract void auditPickupDeliveryMismatch(Driver driver);
 
-    private PeekingIterator<WorkflowBean> initializeIterator() {
-        assert ! csvData.isEmpty() : "empty workflow";
+    private Iterator<WorkflowBean> initializeIterator() {
+        assert ! rows.isEmpty() : "empty workflow";
         auditColumnNames();
 
-        List<WorkflowBean> workflowBeans = parse();
-        return Iterators.peekingIterator(workflowBeans.iterator());
+        return parse();
     }
 
     /**
@@ -97,11 +103,12 @@ public abstract class WorkflowParser {
      * @return Next bean, or null if at end.
      */
     protected final WorkflowBean nextRow() {
-        if (iterator.hasNext()) {
+        WorkflowBean bean = peekNextRow();
+        if (bean != null) {
             lineNumber++;
-            return iterator.next();
+            nextBean = null;
         }
-        return null;
+        return bean;
     }
 
     /**
@@ -110,11 +117,11 @@ public abstract class WorkflowParser {
      * @return Next bean, or null if at end.
      */
     protected final WorkflowBean peekNextRow() {
-        if (! iterator.hasNext()) {
-            return null;
+        if ((nextBean == null) && iterator.hasNext()) {
+            nextBean = iterator.next();
         }
 
-        return iterator.peek();
+        return nextBean;
     }
 
     protected final String getIntegerValue(String value) {
@@ -30,6 +30,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Function;
 
 public class DriverPostFormatV200 extends DriverPostFormat {
 
@@ -46,7 +47,7 @@ public class DriverPostFormatV200 extends DriverPostFormat {
     }
 
     @Override
-    protected void initialize(String routedDeliveries, RequestType requestType) {
+    protected void initialize(CSVRows routedDeliveries, RequestType requestType) {
         loadLastRestaurantTemplate();
         loadDriverPostFormat();
         loadGroupPostFormat();
@@ -218,7 +219,7 @@ public class DriverPostFormatV200 extends DriverPostFormat {
         }
     }
 
-    private void loadRoutedDeliveries(final String routedDeliveries) {
+    private void loadRoutedDeliveries(final CSVRows routedDeliveries) {
         WorkflowParser parser = WorkflowParser.create(restaurants, routedDeliveries);
         drivers = parser.drivers();
         ControlBlock cb = parser.getControlBlock();
@@ -244,365 +245,228 @@ public class DriverPostFormatV200 extends DriverPostFormat {
     }
 
     @Override
-    protected ProcessingReturnValue processStructRef(MessageBlockStructRef structRef, MessageBlockContext context) {
+    protected ValueAccessor bindStructRef(MessageBlockStructRef structRef) {
         String refName = structRef.getName();
-        String value;
 
         switch (refName) {
             case "OnCallOpsManager.UserName":
                 // FIX THIS, DS: how are we handling multiple ops managers?
-                value = controlBlock.getFirstOpsManager().getUserName();
-                break;
+                return context -> controlBlock.getFirstOpsManager().getUserName();
             case "OnCallOpsManager.CompactPhone":
                 // FIX THIS, DS: how are we handling multiple ops managers?
-                value = compactPhone(controlBlock.getFirstOpsManager().getPhone());
-                break;
+                return context -> compactPhone(controlBlock.getFirstOpsManager().getPhone());
             case "BackupDriver.UserName":
-                value = compactPhone(context.getBackupDriver());
-                break;
+                return context -> compactPhone(context.getBackupDriver());
             default:
-                throw new MemberDataException(context.formatException("unknown struct variable ${" + refName + "}"));
+                return unknownValue("unknown struct variable ${" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
     @Override
-    protected ProcessingReturnValue processListRef(MessageBlockListRef listRef, MessageBlockContext context) {
+    protected ValueAccessor bindListRef(MessageBlockListRef listRef) {
         String listName = listRef.getListName();
         String refName = listRef.getName();
-        ProcessingReturnValue returnValue;
 
         switch (listName) {
             case "ThisDriverRestaurant":
-                if (context.isItinerary()) {
-                    throw new MemberDataException(context.formatException(MessageFormat.format(
-                            ERROR_UNSUPPORTED_ITINERARY_VARIABLE, listName, "IRestaurant")));
-                }
-                returnValue = processPickupsListRef(listRef, context);
-                break;
+                return notInItinerary(listName, "IRestaurant", bindPickupsListRef(refName));
             case "Consumer":
-                if (context.isItinerary()) {
-                    throw new MemberDataException(context.formatException(MessageFormat.format(
-                            ERROR_UNSUPPORTED_ITINERARY_VARIABLE, listName, "IConsumer")));
-                }
-                returnValue = processDeliveriesListRef(listRef.getName(), context);
-                break;
+                return notInItinerary(listName, "IConsumer",
+                        bindDeliveryListRef(refName, context -> (DeliveryV200) context.getDelivery()));
             case "Driver":
-                returnValue = processDriverListRef(listRef, context);
-                break;
+                return bindDriverListRef(refName);
             case "SplitRestaurant":
-                returnValue = processSplitRestaurantListRef(listRef, context);
-                break;
+                return bindSplitRestaurantListRef(refName);
             case "Pickup":
-                returnValue = processThisRestaurantPickupListRef(refName, context);
-                break;
+                return bindThisRestaurantPickupListRef(refName);
             case "IRestaurant":
-                returnValue = processItineraryRestaurantListRef(refName, context);
-                break;
+                return bindItineraryRestaurantListRef(refName);
             case "IConsumer":
-                returnValue = processItineraryDeliveryListRef(listRef.getName(), context);
-                break;
+                return bindDeliveryListRef(refName, context -> (DeliveryV200) context.getItineraryDelivery());
             default:
-                throw new MemberDataException(context.formatException(
-                        "unknown list name &{" + listName + "} in " + "&{" + refName + "}"));
+                return unknownValue("unknown list name &{" + listName + "} in " + "&{" + refName + "}");
         }
+    }
 
-        LOGGER.trace("&{{}} = \"{}\"", refName, returnValue.getOutput());
-        return returnValue;
+    private static ValueAccessor notInItinerary(String listName, String itineraryListName, ValueAccessor accessor) {
+        return context -> {
+            if (context.isItinerary()) {
+                throw new MemberDataException(context.formatException(MessageFormat.format(
+                        ERROR_UNSUPPORTED_ITINERARY_VARIABLE, listName, itineraryListName)));
+            }
+            return accessor.get(context);
+        };
     }
 
-    private ProcessingReturnValue processPickupsListRef(MessageBlockListRef listRef, MessageBlockContext context) {
-        String refName = listRef.getName();
-        String value;
+    // FIX THIS, DS: unify Restaurant so that there are not multiple copies
+    private RestaurantV200 globalRestaurant(Restaurant restaurant) {
+        return (RestaurantV200) restaurants.get(restaurant.getName());
+    }
+
+    private Restaurant firstRestaurant(Driver driver) {
+        String firstRestaurantName = driver.getFirstRestaurantName();
+        Restaurant restaurant = restaurants.get(firstRestaurantName);
+        assert restaurant != null : firstRestaurantName + " was not found the in restaurant template post";
+        return restaurant;
+    }
 
-        // FIX THIS, DS: unify Restaurant so that there are not multiple copies
-        RestaurantV200 pickupRestaurant = (RestaurantV200) context.getPickupRestaurant();
-        RestaurantV200 globalRestaurant = (RestaurantV200) restaurants.get(pickupRestaurant.getName());
+    private ValueAccessor bindPickupsListRef(String refName) {
 
         switch (refName) {
             case "ThisDriverRestaurant.Name":
-                value = pickupRestaurant.getName();
-                break;
+                return context -> context.getPickupRestaurant().getName();
             case "ThisDriverRestaurant.Emoji":
-                value = globalRestaurant.getEmoji();
-                break;
+                return context -> globalRestaurant(context.getPickupRestaurant()).getEmoji();
             case "ThisDriverRestaurant.Address":
-                value = pickupRestaurant.getAddress();
-                break;
+                return context -> context.getPickupRestaurant().getAddress();
             case "ThisDriverRestaurant.Details":
-                value = pickupRestaurant.getDetails();
-                break;
+                return context -> context.getPickupRestaurant().getDetails();
             case "ThisDriverRestaurant.ThisDriverOrders":
-                value = Long.toString(pickupRestaurant.getOrders());
-                break;
+                return context -> Long.toString(((RestaurantV200) context.getPickupRestaurant()).getOrders());
             case "ThisDriverRestaurant.TotalOrders":
-                value = Long.toString(globalRestaurant.getOrders());
-                break;
+                return context -> Long.toString(globalRestaurant(context.getPickupRestaurant()).getOrders());
             case "ThisDriverRestaurant.TotalDrivers":
-                value = Long.toString(globalRestaurant.getDrivers().size());
-                break;
+                return context -> Long.toString(
+                        globalRestaurant(context.getPickupRestaurant()).getDrivers().size());
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
     @Override
-    protected String versionSpecificDriverListRef(MessageBlockContext context, String refName) {
-
-        String value;
-
-        DriverV200 driver = (DriverV200) context.getDriver();
-        String firstRestaurantName = driver.getFirstRestaurantName();
-        Restaurant restaurant = restaurants.get(firstRestaurantName);
-        assert restaurant != null : firstRestaurantName + " was not found the in restaurant template post";
+    protected ValueAccessor bindVersionSpecificDriverListRef(String refName) {
 
         switch (refName) {
             case "Driver.FirstRestaurantName":
-                value = firstRestaurantName;
-                break;
+                return context -> firstRestaurant(context.getDriver()).getName();
             case "Driver.FirstRestaurantStartTime":
-                value = driver.getStartTime();
-                break;
+                return context -> context.getDriver().getStartTime();
             case "Driver.FirstRestaurantClosingTime":
-                value = restaurant.getClosingTime();
-                break;
+                return context -> firstRestaurant(context.getDriver()).getClosingTime();
             case "Driver.SplitRestaurantOrders":
-                Restaurant splitRestaurant = context.getSplitRestaurant();
-                value = Long.toString(driver.getOrders(splitRestaurant.getName()));
-                break;
+                return context -> Long.toString(
+                        ((DriverV200) context.getDriver()).getOrders(context.getSplitRestaurant().getName()));
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return value;
     }
 
-    private ProcessingReturnValue processSplitRestaurantListRef(
-            MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        String value;
-
-        RestaurantV200 splitRestaurant = (RestaurantV200) context.getSplitRestaurant();
-        String name = splitRestaurant.getName();
+    private ValueAccessor bindSplitRestaurantListRef(String refName) {
 
         switch (refName) {
             case "SplitRestaurant.Name":
-                value = name;
-                break;
+                return context -> context.getSplitRestaurant().getName();
             case "SplitRestaurant.Emoji":
-                value = splitRestaurant.getEmoji();
-                break;
+                return context -> context.getSplitRestaurant().getEmoji();
             case "SplitRestaurant.TotalOrders":
-                value = Long.toString(splitRestaurant.getOrders());
-                break;
-            default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
-        }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
-    }
-
-    private ProcessingReturnValue processDeliveriesListRef(String refName, MessageBlockContext context) {
-        String value;
-        DeliveryV200 delivery = (DeliveryV200) context.getDelivery();
-
-        switch (refName) {
-            case "Consumer.Name":
-                value = delivery.getName();
-                break;
-            case "Consumer.UserName":
-                value = delivery.getUserName();
-                break;
-            case "Consumer.CompactPhone":
-                value = compactPhone(delivery.getPhone());
-                break;
-            case "Consumer.CompactAltPhone":
-                value = compactPhone(delivery.getAltPhone());
-                break;
-            case "Consumer.City":
-                value = delivery.getCity();
-                break;
-            case "Consumer.Address":
-                value = delivery.getAddress();
-                break;
-            case "Consumer.Details":
-                value = delivery.getDetails();
-                break;
-            case "Consumer.Restaurant":
-                value = delivery.getRestaurant();
-                break;
-            case "Consumer.RestaurantEmoji":
-                value = restaurants.get(delivery.getRestaurant()).getEmoji();
-                break;
-            case "Consumer.Normal":
-                value = delivery.getNormalRations();
-                break;
-            case "Consumer.Veggie":
-                value = delivery.getVeggieRations();
-                break;
+                return context -> Long.toString(((RestaurantV200) context.getSplitRestaurant()).getOrders());
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processItineraryDeliveryListRef(String refName, MessageBlockContext context) {
-        String value;
-        DeliveryV200 delivery = (DeliveryV200) context.getItineraryDelivery();
-
-        switch (refName) {
-            case "IConsumer.Name":
-                value = delivery.getName();
-                break;
-            case "IConsumer.UserName":
-                value = delivery.getUserName();
-                break;
-            case "IConsumer.CompactPhone":
-                value = compactPhone(delivery.getPhone());
-                break;
-            case "IConsumer.CompactAltPhone":
-                value = compactPhone(delivery.getAltPhone());
-                break;
-            case "IConsumer.City":
-                value = delivery.getCity();
-                break;
-            case "IConsumer.Address":
-                value = delivery.getAddress();
-                break;
-            case "IConsumer.Details":
-                value = delivery.getDetails();
-                break;
-            case "IConsumer.Restaurant":
-                value = delivery.getRestaurant();
-                break;
-            case "IConsumer.RestaurantEmoji":
-                value = restaurants.get(delivery.getRestaurant()).getEmoji();
-                break;
-            case "IConsumer.Normal":
-                value = delivery.getNormalRations();
-                break;
-            case "IConsumer.Veggie":
-                value = delivery.getVeggieRations();
-                break;
+    // Consumer and IConsumer share the same fields; they differ only in
+    // which delivery of the context they read.
+    //
+    private ValueAccessor bindDeliveryListRef(String refName, Function<MessageBlockContext, DeliveryV200> deliveryOf) {
+
+        switch (refName.substring(refName.indexOf('.') + 1)) {
+            case "Name":
+                return context -> deliveryOf.apply(context).getName();
+            case "UserName":
+                return context -> deliveryOf.apply(context).getUserName();
+            case "CompactPhone":
+                return context -> compactPhone(deliveryOf.apply(context).getPhone());
+            case "CompactAltPhone":
+                return context -> compactPhone(deliveryOf.apply(context).getAltPhone());
+            case "City":
+                return context -> deliveryOf.apply(context).getCity();
+            case "Address":
+                return context -> deliveryOf.apply(context).getAddress();
+            case "Details":
+                return context -> deliveryOf.apply(context).getDetails();
+            case "Restaurant":
+                return context -> deliveryOf.apply(context).getRestaurant();
+            case "RestaurantEmoji":
+                return context -> restaurants.get(deliveryOf.apply(context).getRestaurant()).getEmoji();
+            case "Normal":
+                return context -> deliveryOf.apply(context).getNormalRations();
+            case "Veggie":
+                return context -> deliveryOf.apply(context).getVeggieRations();
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processThisRestaurantPickupListRef(
-            String refName, MessageBlockContext context) {
-
-        String value;
-
+    private static DeliveryV200 pickupDelivery(MessageBlockContext context) {
         Restaurant pickupRestaurant = context.getPickupRestaurant();
         DeliveryV200 delivery = (DeliveryV200)context.getDelivery();
         assert delivery.getRestaurant().equals(pickupRestaurant.getName()) :
                 delivery.getRestaurant() + " != " + pickupRestaurant.getName();
+        return delivery;
+    }
+
+    private ValueAccessor bindThisRestaurantPickupListRef(String refName) {
 
         switch (refName) {
             case "Pickup.MemberName":
-                value = delivery.getName();
-                break;
+                return context -> pickupDelivery(context).getName();
             case "Pickup.UserName":
-                value = delivery.getUserName();
-                break;
+                return context -> pickupDelivery(context).getUserName();
             case "Pickup.Normal":
-                value = delivery.getNormalRations();
-                break;
+                return context -> pickupDelivery(context).getNormalRations();
             case "Pickup.Veggie":
-                value = delivery.getVeggieRations();
-                break;
+                return context -> pickupDelivery(context).getVeggieRations();
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processItineraryRestaurantListRef(
-            String refName, MessageBlockContext context) {
-
-        String value;
-        RestaurantV200 restaurant = (RestaurantV200)context.getItineraryRestaurant();
-        RestaurantV200 globalRestaurant = (RestaurantV200) restaurants.get(restaurant.getName());
+    private ValueAccessor bindItineraryRestaurantListRef(String refName) {
 
         switch (refName) {
             case "IRestaurant.Name":
-                value = restaurant.getName();
-                break;
+                return context -> context.getItineraryRestaurant().getName();
             case "IRestaurant.Emoji":
-                value = restaurant.getEmoji();
-                break;
+                return context -> context.getItineraryRestaurant().getEmoji();
             case "IRestaurant.Address":
-                value = restaurant.getAddress();
-                break;
+                return context -> context.getItineraryRestaurant().getAddress();
             case "IRestaurant.Details":
-                value = restaurant.getDetails();
-                break;
+                return context -> context.getItineraryRestaurant().getDetails();
             case "IRestaurant.ThisDriverRestaurantNoPics":
                 // FIX THIS, DS: can we find this in the drivers version of this restaurant?
-                value = Boolean.toString(globalRestaurant.getNoPics());
-                break;
+                return context -> Boolean.toString(globalRestaurant(context.getItineraryRestaurant()).getNoPics());
             case "IRestaurant.ThisDriverOrders":
                 // FIX THIS, DS: is this correct?
-                value = Long.toString(restaurant.getOrders());
-                break;
+                return context -> Long.toString(((RestaurantV200) context.getItineraryRestaurant()).getOrders());
             case "IRestaurant.TotalDrivers":
-                value = String.valueOf(globalRestaurant.getDrivers().size());
-                break;
+                return context -> String.valueOf(
+                        globalRestaurant(context.getItineraryRestaurant()).getDrivers().size());
             case "IRestaurant.TotalOrders":
-                value = String.valueOf(globalRestaurant.getOrders());
-                break;
+                return context -> String.valueOf(globalRestaurant(context.getItineraryRestaurant()).getOrders());
             default:
-                throw new MemberDataException(
-                        context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
     @Override
-    protected ProcessingReturnValue processLoopListRef(
-            MessageBlockLoop loop, MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        ProcessingReturnValue returnValue;
+    protected LoopRenderer bindLoopListRef(MessageBlockListRef listRef) {
 
         // FIX THIS, DS generalize this nested loop handling
 
-        switch (refName) {
+        switch (listRef.getName()) {
             case "SplitRestaurant.Driver":
-                returnValue = processSplitRestaurantDrivers(loop, context);
-                break;
+                return this::processSplitRestaurantDrivers;
             case "ThisDriverRestaurant.Pickup":
-                returnValue = processRestaurantPickups(loop, context);
-                break;
+                return this::processRestaurantPickups;
             default:
-                throw new MemberDataException(context.formatException("unknown loop list ref &{" + listRef + "}"));
+                return unknownLoop("unknown loop list ref &{" + listRef + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, returnValue.getOutput());
-        return returnValue;
     }
 
-    private ProcessingReturnValue processSplitRestaurantDrivers(MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processSplitRestaurantDrivers(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder processedLoop = new StringBuilder();
         MessageBlockContext driverContext = new MessageBlockContext("SplitRestaurantDrivers", context);
 
         Restaurant splitRestaurant = context.getSplitRestaurant();
@@ -611,222 +475,181 @@ public class DriverPostFormatV200 extends DriverPostFormat {
 
             driverContext.setDriver(driver);
 
-            for (MessageBlockElement element : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(element, driverContext);
-                processedLoop.append(returnValue.getOutput());
-
-                if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
+            for (RenderNode element : loop.getElements()) {
+                if (processElement(element, driverContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, processedLoop);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, processedLoop.toString());
+        return ProcessingStatus.COMPLETE;
+    }
+
+    private ProcessingStatus processRestaurantPickups(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
+
+        Driver driver = context.getDriver();
+        MessageBlockContext deliveryContext = new MessageBlockContext("Delivery", context);
+
+        LOGGER.trace("processRestaurantPickups: {}", deliveryContext);
+
+        Restaurant restaurant = context.getPickupRestaurant();
+
+        // Look through deliveries and find consumers/orders for this restaurant
+
+        for (Delivery delivery : driver.getDeliveries()) {
+            if (((DeliveryV200)delivery).getRestaurant().equals(restaurant.getName())) {
+                context.setDelivery(delivery);
+                for (RenderNode loopElement : loop.getElements()) {
+                    if (processElement(loopElement, deliveryContext, output) == ProcessingStatus.CONTINUE) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        return ProcessingStatus.COMPLETE;
     }
 
     @Override
-    protected boolean processBooleanSimpleRef(MessageBlockSimpleRef element, MessageBlockContext context) {
+    protected ConditionAccessor bindBooleanSimpleRef(MessageBlockSimpleRef element) {
         String refName = element.getName();
-        Driver driver = context.getDriver();
-        boolean value;
 
         switch (refName) {
             case "ThisDriverSplitsAnyRestaurant":
-                value = driverHasSplitRestaurant(driver);
-                break;
+                return context -> driverHasSplitRestaurant(context.getDriver());
             case "ThisDriverAnyCondo":
-                value = driver.hasCondo();
-                break;
+                return context -> context.getDriver().hasCondo();
             case "AnySplitRestaurants":
-                value = anySplitRestaurants();
-                break;
+                return context -> anySplitRestaurants();
             case "IsFirstRestaurantClosingBefore545PM":
-                String restaurantName = driver.getFirstRestaurantName();
-                Restaurant restaurant = restaurants.get(restaurantName);
-                value = restaurant.closesBefore(545);
-                break;
+                return context -> restaurants.get(context.getDriver().getFirstRestaurantName()).closesBefore(545);
             default:
-                throw new MemberDataException(context.formatException("unknown boolean variable ${" + refName + "}"));
+                return unknownCondition("unknown boolean variable ${" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", element, value);
-        return value;
     }
 
-    // Do simple variable replacement
+    // Bind simple variable replacement
     //
     @Override
-    protected String  versionSpecificSimpleRef(MessageBlockContext context, String varName) {
-        String value;
-
-        final String firstRestaurant = context.getDriver().getFirstRestaurantName();
-        final Restaurant restaurant = restaurants.get(firstRestaurant);
-        assert restaurant != null : firstRestaurant + " was not found the in restaurant template post";
-        Driver driver = context.getDriver();
+    protected ValueAccessor bindVersionSpecificSimpleRef(String varName) {
 
         switch (varName) {
             case "ThisDriverFirstRestaurantStartTime":
-                value = driver.getStartTime();
-                break;
+                return context -> context.getDriver().getStartTime();
             case "ThisDriverFirstRestaurantClosingTime":
-                value = restaurant.getClosingTime();
-                break;
+                return context -> firstRestaurant(context.getDriver()).getClosingTime();
             default:
-                throw new MemberDataException(context.formatException("unknown variable ${" + varName + "}"));
+                return unknownValue("unknown variable ${" + varName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", varName, value);
-        return value;
     }
 
     @Override
-    protected boolean processBooleanListRef(MessageBlockListRef listRef, MessageBlockContext context) {
+    protected ConditionAccessor bindBooleanListRef(MessageBlockListRef listRef) {
         String listName = listRef.getListName();
         String refName = listRef.getName();
-        boolean value;
-
-        if (listName.equals("ThisDriverRestaurant")) {
-            RestaurantV200 restaurant = (RestaurantV200) context.getPickupRestaurant();
-            String restaurantName = restaurant.getName();
-            RestaurantV200 globalRestaurant = (RestaurantV200) restaurants.get(restaurantName);
-
-            switch (refName) {
-                case "ThisDriverRestaurant.IsSplit":
-                    return globalRestaurant.getDrivers().size() > 1;
-                case "ThisDriverRestaurant.NoPics":
-                    return globalRestaurant.getNoPics();
-                case "ThisDriverRestaurant.IsCleanup":
-                    String driverUserName = context.getDriver().getUserName();
-                    // FIX THIS, DS: what if we aren't in a split restaurant context?  Audit
-                    ControlBlock.SplitRestaurant splitRestaurant = controlBlock.getSplitRestaurant(restaurantName);
-                    // FIX THIS, DS: what if the control block is missing this split restaurant? Audit
-                    return splitRestaurant.getCleanupDriverUserName().equals(driverUserName);
-                case "ThisDriverRestaurant.AnyOrder":
-                    return (restaurant.getOrders() != 0);
-                default:
-                    throw new MemberDataException(
-                            context.formatException("Unknown boolean variable &{" + refName + "}"));
-            }
 
-        } else if (listName.equals("IRestaurant")) {
-            RestaurantV200 restaurant = (RestaurantV200) context.getItineraryRestaurant();
-            String restaurantName = restaurant.getName();
-            RestaurantV200 globalRestaurant = (RestaurantV200) restaurants.get(restaurantName);
-
-            switch (refName) {
-                case "IRestaurant.IsSplit":
-                    return globalRestaurant.getDrivers().size() > 1;
-                case "IRestaurant.NoPics":
-                    return globalRestaurant.getNoPics();
-                case "IRestaurant.IsCleanup":
-                    if (globalRestaurant.getDrivers().size() == 1) {
-                        return false;
-                    }
+        switch (listName) {
+            case "ThisDriverRestaurant":
+                return bindThisDriverRestaurantCondition(refName);
+            case "IRestaurant":
+                return bindItineraryRestaurantCondition(refName);
+            case "Consumer":
+                return bindDeliveryCondition(refName, MessageBlockContext::getDelivery);
+            case "IConsumer":
+                return bindDeliveryCondition(refName, MessageBlockContext::getItineraryDelivery);
+            case "Itinerary":
+                return bindItineraryCondition(refName);
+            default:
+                break;
+        }
 
-                    String driverUserName = context.getDriver().getUserName();
-                    // FIX THIS, DS: what if we aren't in a split restaurant context?  Audit
-                    ControlBlock.SplitRestaurant splitRestaurant = controlBlock.getSplitRestaurant(restaurantName);
-                    // FIX THIS, DS: what if the control block is missing this split restaurant? Audit
-                    return splitRestaurant.getCleanupDriverUserName().equals(driverUserName);
-                default:
-                    throw new MemberDataException(
-                            context.formatException("Unknown boolean variable &{" + refName + "}"));
-            }
-        } else if (listName.equals("Consumer")) {
-            Delivery delivery = context.getDelivery();
+        switch (refName) {
+            case "Driver.IsFirstRestaurantClosingBefore7PM":
+                return context -> restaurants.get(context.getDriver().getFirstRestaurantName()).closesBefore(700);
+            case "Driver.IsFirstRestaurantClosingBefore545PM":
+                return context -> restaurants.get(context.getDriver().getFirstRestaurantName()).closesBefore(545);
+            case "Driver.IsCleanup":
+                // FIX THIS, DS: what if we aren't in a split restaurant context?  Audit
+                return context -> isCleanupDriver(context.getSplitRestaurant().getName(), context);
+            default:
+                return unknownCondition("Unknown boolean variable &{" + refName + "}");
+        }
+    }
 
-            if (refName.equals("Consumer.IsAltPhone")) {
-                String altPhone = delivery.getAltPhone();
-                value = ((!altPhone.isEmpty()) && (!altPhone.equalsIgnoreCase("none")));
-            }
-            else if (refName.equals("Consumer.IsCondo")) {
-                value = delivery.isCondo();
-            }
-            else {
-                throw new MemberDataException(
-                        context.formatException("Unknown boolean variable &{" + refName + "}"));
-            }
-        } else if (listName.equals("IConsumer")) {
-            Delivery delivery = context.getItineraryDelivery();
+    private boolean isCleanupDriver(String restaurantName, MessageBlockContext context) {
+        String driverUserName = context.getDriver().getUserName();
+        ControlBlock.SplitRestaurant splitRestaurant = controlBlock.getSplitRestaurant(restaurantName);
+        // FIX THIS, DS: what if the control block is missing this split restaurant? Audit
+        return splitRestaurant.getCleanupDriverUserName().equals(driverUserName);
+    }
 
-            if (refName.equals("IConsumer.IsAltPhone")) {
-                String altPhone = delivery.getAltPhone();
-                value = ((!altPhone.isEmpty()) && (!altPhone.equalsIgnoreCase("none")));
-            }
-            else if (refName.equals("IConsumer.IsCondo")) {
-                value = delivery.isCondo();
-            }
-            else {
-                throw new MemberDataException(
-                        context.formatException("Unknown boolean variable &{" + refName + "}"));
-            }
-        } else if (listName.equals("Itinerary")) {
-            ItineraryStop itineraryStop = context.getItineraryStop();
+    private ConditionAccessor bindThisDriverRestaurantCondition(String refName) {
 
-            if (refName.equals("Itinerary.IsRestaurant")) {
-                value = (itineraryStop.getType() == ItineraryStopType.PICKUP);
-            } else if (refName.equals("Itinerary.IsDelivery")) {
-                value = (itineraryStop.getType() == ItineraryStopType.DELIVERY);
-            }
-            else {
-                    throw new MemberDataException(
-                            context.formatException("Unknown boolean variable &{" + refName + "}"));
-            }
-        } else if (refName.equals("Driver.IsFirstRestaurantClosingBefore7PM")) {
-            Driver driver = context.getDriver();
-            String firstName = driver.getFirstRestaurantName();
-            Restaurant firstRestaurant = restaurants.get(firstName);
-            value = firstRestaurant.closesBefore(700);
-        } else if (refName.equals("Driver.IsFirstRestaurantClosingBefore545PM")) {
-            Driver driver = context.getDriver();
-            String firstName = driver.getFirstRestaurantName();
-            Restaurant firstRestaurant = restaurants.get(firstName);
-            value = firstRestaurant.closesBefore(545);
-        } else if (refName.equals("Driver.IsCleanup")) {
-            String driverUserName = context.getDriver().getUserName();
-            Restaurant restaurant = context.getSplitRestaurant();
-            // FIX THIS, DS: what if we aren't in a split restaurant context?  Audit
-            ControlBlock.SplitRestaurant splitRestaurant = controlBlock.getSplitRestaurant(restaurant.getName());
-            // FIX THIS, DS: what if the control block is missing this split restaurant? Audit
-            return splitRestaurant.getCleanupDriverUserName().equals(driverUserName);
-        } else {
-            throw new MemberDataException(context.formatException("Unknown boolean variable &{" + refName + "}"));
+        switch (refName) {
+            case "ThisDriverRestaurant.IsSplit":
+                return context -> globalRestaurant(context.getPickupRestaurant()).getDrivers().size() > 1;
+            case "ThisDriverRestaurant.NoPics":
+                return context -> globalRestaurant(context.getPickupRestaurant()).getNoPics();
+            case "ThisDriverRestaurant.IsCleanup":
+                // FIX THIS, DS: what if we aren't in a split restaurant context?  Audit
+                return context -> isCleanupDriver(context.getPickupRestaurant().getName(), context);
+            case "ThisDriverRestaurant.AnyOrder":
+                return context -> ((RestaurantV200) context.getPickupRestaurant()).getOrders() != 0;
+            default:
+                return unknownCondition("Unknown boolean variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", listRef, value);
-        return value;
     }
 
-    private ProcessingReturnValue processRestaurantPickups(
-            MessageBlockLoop loop, MessageBlockContext context) {
+    private ConditionAccessor bindItineraryRestaurantCondition(String refName) {
 
-        StringBuilder output = new StringBuilder();
-        Driver driver = context.getDriver();
-        MessageBlockContext deliveryContext = new MessageBlockContext("Delivery", context);
+        switch (refName) {
+            case "IRestaurant.IsSplit":
+                return context -> globalRestaurant(context.getItineraryRestaurant()).getDrivers().size() > 1;
+            case "IRestaurant.NoPics":
+                return context -> globalRestaurant(context.getItineraryRestaurant()).getNoPics();
+            case "IRestaurant.IsCleanup":
+                return context -> {
+                    RestaurantV200 globalRestaurant = globalRestaurant(context.getItineraryRestaurant());
 
-        LOGGER.trace("processRestaurantPickups: {}", deliveryContext);
+                    if (globalRestaurant.getDrivers().size() == 1) {
+                        return false;
+                    }
 
-        Restaurant restaurant = context.getPickupRestaurant();
+                    // FIX THIS, DS: what if we aren't in a split restaurant context?  Audit
+                    return isCleanupDriver(globalRestaurant.getName(), context);
+                };
+            default:
+                return unknownCondition("Unknown boolean variable &{" + refName + "}");
+        }
+    }
 
-        // Look through deliveries and find consumers/orders for this restaurant
+    private ConditionAccessor bindDeliveryCondition(
+            String refName, Function<MessageBlockContext, Delivery> deliveryOf) {
+
+        switch (refName.substring(refName.indexOf('.') + 1)) {
+            case "IsAltPhone":
+                return context -> {
+                    String altPhone = deliveryOf.apply(context).getAltPhone();
+                    return ((!altPhone.isEmpty()) && (!altPhone.equalsIgnoreCase("none")));
+                };
+            case "IsCondo":
+                return context -> deliveryOf.apply(context).isCondo();
+            default:
+                return unknownCondition("Unknown boolean variable &{" + refName + "}");
+        }
+    }
 
-        for (Delivery delivery : driver.getDeliveries()) {
-            if (((DeliveryV200)delivery).getRestaurant().equals(restaurant.getName())) {
-                context.setDelivery(delivery);
-                for (MessageBlockElement loopElement : loop.getElements()) {
-                    ProcessingReturnValue returnValue = processElement(loopElement, deliveryContext);
-                    output.append(returnValue.getOutput());
+    private ConditionAccessor bindItineraryCondition(String refName) {
 
-                    if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
-                        break;
-                    }
-                }
-            }
+        switch (refName) {
+            case "Itinerary.IsRestaurant":
+                return context -> (context.getItineraryStop().getType() == ItineraryStopType.PICKUP);
+            case "Itinerary.IsDelivery":
+                return context -> (context.getItineraryStop().getType() == ItineraryStopType.DELIVERY);
+            default:
+                return unknownCondition("Unknown boolean variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
     }
 
     private boolean driverHasSplitRestaurant(final Driver driver) {
@@ -22,27 +22,19 @@
  */
 package org.helpberkeley.memberdata.v200;
 
-import com.opencsv.bean.CsvToBeanBuilder;
 import org.helpberkeley.memberdata.*;
 
-import java.io.StringReader;
 import java.util.List;
 
 public class RestaurantTemplateParserV200 extends RestaurantTemplateParser {
 
-    public RestaurantTemplateParserV200(ControlBlock controlBlock, String csvData) {
-        super(controlBlock, csvData);
+    public RestaurantTemplateParserV200(ControlBlock controlBlock, CSVRows rows) {
+        super(controlBlock, rows);
     }
 
     @Override
-    protected List<RestaurantBean> parse(String csvData) {
-
-        try {
-            return new CsvToBeanBuilder<RestaurantBean>(
-                    new StringReader(csvData)).withType(RestaurantBeanV200.class).build().parse();
-        } catch (RuntimeException ex) {
-            throw new MemberDataException(ex);
-        }
+    protected List<RestaurantBean> parse(CSVRows rows) {
+        return rows.toBeans(RestaurantBeanV200.class);
     }
 
     /**
@@ -65,7 +57,7 @@ public class RestaurantTemplateParserV200 extends RestaurantTemplateParser {
     }
 
     @Override
-    protected void auditColumns(final String csvData) {
+    protected void auditColumns(final CSVRows rows) {
 
         List<String> columnNames =  List.of(
                 Constants.WORKFLOW_CONSUMER_COLUMN,
@@ -78,12 +70,7 @@ public class RestaurantTemplateParserV200 extends RestaurantTemplateParser {
                 Constants.WORKFLOW_CONDO_COLUMN);
 
 
-        List<String> headerColumns;
-
-        try (StringReader reader = new StringReader(csvData)) {
-            CSVListReader csvListReader = new CSVListReader(reader);
-            headerColumns = csvListReader.readNextToList();
-        }
+        List<String> headerColumns = rows.header();
 
         int numErrors = 0;
         StringBuilder errors = new StringBuilder();
@@ -34,6 +34,17 @@ public class RestaurantV200 extends Restaurant {
         ControlBlockV200 controlBlock1 = (ControlBlockV200) controlBlock;
     }
 
+    private RestaurantV200(RestaurantV200 restaurant) {
+        super(restaurant);
+        noPics = restaurant.noPics;
+        orders = restaurant.orders;
+    }
+
+    @Override
+    public Restaurant copy() {
+        return new RestaurantV200(this);
+    }
+
     @Override
     public String toString() {
         return getName() + ", orders: " + orders + ", start:" + getStartTime() + ", drivers:" + getDrivers().keySet();
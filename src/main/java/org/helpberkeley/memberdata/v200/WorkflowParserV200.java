@@ -22,27 +22,20 @@
  */
 package org.helpberkeley.memberdata.v200;
 
-import com.opencsv.bean.CsvToBeanBuilder;
 import org.helpberkeley.memberdata.*;
 
-import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.*;
 
 public class WorkflowParserV200 extends WorkflowParser {
 
-    public WorkflowParserV200(final String csvData) {
-        super(csvData);
+    public WorkflowParserV200(final CSVRows rows, final ControlBlock controlBlock) {
+        super(rows, controlBlock);
     }
 
     @Override
-    protected List<WorkflowBean> parse() {
-        try {
-            return new CsvToBeanBuilder<WorkflowBean>(
-                    new StringReader(csvData)).withType(WorkflowBeanV200.class).build().parse();
-        } catch (RuntimeException ex) {
-            throw new MemberDataException(ex);
-        }
+    protected Iterator<WorkflowBean> parse() {
+        return rows.beans(WorkflowBeanV200.class);
     }
 
     /**
@@ -68,14 +61,7 @@ public class WorkflowParserV200 extends WorkflowParser {
                 Constants.WORKFLOW_USER_NAME_COLUMN,
                 Constants.WORKFLOW_VEGGIE_COLUMN);
 
-        List<String> headerColumns;
-
-        try (StringReader stringReader = new StringReader(csvData)) {
-            CSVListReader csvReader = new CSVListReader(stringReader);
-            headerColumns = csvReader.readNextToList();
-        }
-
-        Set<String> set = new HashSet<>(headerColumns);
+        Set<String> set = new HashSet<>(rows.header());
 
         int numErrors = 0;
         StringBuilder errors = new StringBuilder();
@@ -69,7 +69,7 @@ public class DriverPostFormatV300 extends DriverPostFormat {
     }
 
     @Override
-    protected void initialize(String routedDeliveries, RequestType requestType) {
+    protected void initialize(CSVRows routedDeliveries, RequestType requestType) {
         loadLastRestaurantTemplate();
         loadRoutedDeliveries(routedDeliveries);
         auditControlBlock();
@@ -218,7 +218,7 @@ public class DriverPostFormatV300 extends DriverPostFormat {
                 continue;
             }
 
-            post.append(processMessageBlock(messageBlock, context));
+            processMessageBlock(messageBlock, context, post);
         }
 
         return post.toString();
@@ -238,7 +238,7 @@ public class DriverPostFormatV300 extends DriverPostFormat {
                 continue;
             }
 
-            post.append(processMessageBlock(messageBlock, context));
+            processMessageBlock(messageBlock, context, post);
         }
 
         return post.toString();
@@ -259,7 +259,7 @@ public class DriverPostFormatV300 extends DriverPostFormat {
         }
     }
 
-    private void loadRoutedDeliveries(final String routedDeliveries) {
+    private void loadRoutedDeliveries(final CSVRows routedDeliveries) {
         WorkflowParser parser = WorkflowParser.create(restaurants, routedDeliveries);
         drivers = parser.drivers();
 
@@ -284,395 +284,271 @@ public class DriverPostFormatV300 extends DriverPostFormat {
         }
     }
 
-    // Do simple variable replacement
+    // Bind simple variable replacement
     //
     @Override
-    protected String versionSpecificSimpleRef(MessageBlockContext context, String varName) {
-
-        String value;
+    protected ValueAccessor bindVersionSpecificSimpleRef(String varName) {
 
         switch (varName) {
             case "FirstPickupLocation":
-                value = controlBlock.getMealSource();
-                break;
+                return context -> controlBlock.getMealSource();
             case "TotalStandardGrocery":
-                value = getStandardGroceryTotal();
-                break;
+                return context -> getStandardGroceryTotal();
             case "TotalStandardMeal":
-                value = getStandardMealTotal();
-                break;
+                return context -> getStandardMealTotal();
 //            case "MealsOnlyRun":
 
             default:
-                throw new MemberDataException(context.formatException("unknown variable ${" + varName + "}"));
+                return unknownValue("unknown variable ${" + varName + "}");
         }
-
-        return value;
     }
 
     @Override
-    protected ProcessingReturnValue processStructRef(MessageBlockStructRef structRef, MessageBlockContext context) {
+    protected ValueAccessor bindStructRef(MessageBlockStructRef structRef) {
         String refName = structRef.getName();
-        String value;
 
         switch (refName) {
             case "OnCallOpsManager.UserName":
                 // FIX THIS, DS: how are we handling multiple ops managers?
-                value = controlBlock.getFirstOpsManager().getUserName();
-                break;
+                return context -> controlBlock.getFirstOpsManager().getUserName();
             case "OnCallOpsManager.CompactPhone":
                 // FIX THIS, DS: how are we handling multiple ops managers?
-                value = compactPhone(controlBlock.getFirstOpsManager().getPhone());
-                break;
+                return context -> compactPhone(controlBlock.getFirstOpsManager().getPhone());
             case "BackupDriver.Name":
-                value = getName(context.getBackupDriver());
-                break;
+                return context -> getName(context.getBackupDriver());
             case "BackupDriver.UserName":
-                value = context.getBackupDriver();
-                break;
+                return MessageBlockContext::getBackupDriver;
             case "BackupDriver.CompactPhone":
-                value = getCompactPhone(context.getBackupDriver());
-                break;
+                return context -> getCompactPhone(context.getBackupDriver());
             default:
-                throw new MemberDataException(context.formatException("unknown struct variable ${" + refName + "}"));
+                return unknownValue("unknown struct variable ${" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processDeliveriesListRef(MessageBlockListRef listRef, MessageBlockContext context) {
-        String refName = listRef.getName();
-        String value;
+    private static DeliveryV300 delivery(MessageBlockContext context) {
+        return (DeliveryV300)context.getDelivery();
+    }
 
-        DeliveryV300 delivery = (DeliveryV300)context.getDelivery();
+    private ValueAccessor bindDeliveriesListRef(String refName) {
 
         switch (refName) {
             case "Consumer.Name":
-                value = delivery.getName();
-                break;
+                return context -> delivery(context).getName();
             case "Consumer.UserName":
-                value = delivery.getUserName();
-                break;
+                return context -> delivery(context).getUserName();
             case "Consumer.CompactPhone":
-                value = compactPhone(delivery.getPhone());
-                break;
+                return context -> compactPhone(delivery(context).getPhone());
             case "Consumer.CompactAltPhone":
-                value = compactPhone(delivery.getAltPhone());
-                break;
+                return context -> compactPhone(delivery(context).getAltPhone());
             case "Consumer.City":
-                value = delivery.getCity();
-                break;
+                return context -> delivery(context).getCity();
             case "Consumer.Address":
-                value = delivery.getAddress();
-                break;
+                return context -> delivery(context).getAddress();
             case "Consumer.Details":
-                value = delivery.getDetails();
-                break;
+                return context -> delivery(context).getDetails();
             case CONSUMER_STD_MEAL:
-                value = String.valueOf(delivery.getStdMeals());
-                break;
+                return context -> String.valueOf(delivery(context).getStdMeals());
             case CONSUMER_ALT_MEAL:
-                value = String.valueOf(delivery.getAltMeals());
-                break;
+                return context -> String.valueOf(delivery(context).getAltMeals());
             case "Consumer.AlternateMealType":
-                value = delivery.getTypeMeal();
-                break;
+                return context -> delivery(context).getTypeMeal();
             case "Consumer.StandardGrocery":
-                value = String.valueOf(delivery.getStdGrocery());
-                break;
+                return context -> String.valueOf(delivery(context).getStdGrocery());
             case "Consumer.AlternateGrocery":
-                value = String.valueOf(delivery.getAltGrocery());
-                break;
+                return context -> String.valueOf(delivery(context).getAltGrocery());
             case "Consumer.AlternateGroceryType":
-                value = delivery.getTypeGrocery();
-                break;
+                return context -> delivery(context).getTypeGrocery();
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
     @Override
-    protected ProcessingReturnValue processVersionSpecificLoopListNameRef(
-            String listName, MessageBlockLoop loop, MessageBlockContext context) {
-
-        ProcessingReturnValue returnValue;
+    protected LoopRenderer bindVersionSpecificLoopListNameRef(String listName) {
 
         switch (listName) {
             case "AlternateMeals":
-                returnValue = processAltMealTypesLoopRef(loop, context);
-                break;
+                return this::processAltMealTypesLoopRef;
             case "AlternateGroceries":
-                returnValue = processAltGroceryTypesLoopRef(loop, context);
-                break;
+                return this::processAltGroceryTypesLoopRef;
             case "PickupManager":
-                returnValue = processPickupManagerLoopRef(loop, context);
-                break;
+                return this::processPickupManagerLoopRef;
             default:
-                throw new MemberDataException(
-                        context.formatException("unknown list variable &{" + listName + "}"));
+                return unknownLoop("unknown list variable &{" + listName + "}");
         }
-        LOGGER.trace("${{}} = \"{}\"", listName, returnValue);
-        return returnValue;
     }
 
     @Override
-    protected ProcessingReturnValue processLoopListRef(
-            MessageBlockLoop loop, MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        ProcessingReturnValue returnValue;
+    protected LoopRenderer bindLoopListRef(MessageBlockListRef listRef) {
 
         // FIX THIS, DS generalize this nested loop handling
 
-        switch (refName) {
+        switch (listRef.getName()) {
             case "ThisDriverRestaurant.AlternateMeals":
-                returnValue = processAlternateMealsLoopRef(loop, context);
-                break;
+                return this::processAlternateMealsLoopRef;
             case "ThisDriverRestaurant.AlternateGroceries":
-                returnValue = processAlternateGroceriesLoopRef(loop, context);
-                break;
+                return this::processAlternateGroceriesLoopRef;
             case "Driver.Consumer":
-                returnValue = processDeliveriesLoopRef(loop, context);
-                break;
+                return this::processDeliveriesLoopRef;
             default:
-                throw new MemberDataException(context.formatException("unknown loop list ref &{" + listRef + "}"));
+                return unknownLoop("unknown loop list ref &{" + listRef + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, returnValue.getOutput());
-        return returnValue;
     }
 
     @Override
-    protected boolean processBooleanSimpleRef(MessageBlockSimpleRef element, MessageBlockContext context) {
+    protected ConditionAccessor bindBooleanSimpleRef(MessageBlockSimpleRef element) {
         String refName = element.getName();
-        Driver driver = context.getDriver();
-        boolean value;
 
         switch (refName) {
             case "ThisDriverAnyCondo":
-                value = driver.hasCondo();
-                break;
+                return context -> context.getDriver().hasCondo();
             case "MealsOnlyRun":
-                value = mealsOnlyRun();
-                break;
+                return context -> mealsOnlyRun();
             case "GroceriesOnlyRun":
-                value = groceriesOnlyRun();
-                break;
+                return context -> groceriesOnlyRun();
             default:
-                throw new MemberDataException(
-                        context.formatException("unknown boolean variable ${" + refName + "}"));
+                return unknownCondition("unknown boolean variable ${" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", element, value);
-        return value;
     }
 
     @Override
-    protected boolean processBooleanListRef(MessageBlockListRef listRef, MessageBlockContext context) {
+    protected ConditionAccessor bindBooleanListRef(MessageBlockListRef listRef) {
         String listName = listRef.getListName();
         String refName = listRef.getName();
-        boolean value;
 
         if (listName.equals("ThisDriverRestaurant")) {
-            Restaurant restaurant = context.getPickupRestaurant();
-            String restaurantName = restaurant.getName();
-            Driver driver = context.getDriver();
 
             switch (refName) {
                 case "ThisDriverRestaurant.AnyMealsOrGroceries":
-                    return anyMealsOrGroceries(context.getDriver());
+                    return context -> anyMealsOrGroceries(context.getDriver());
                 case THIS_DRIVER_RESTAURANT_STD_MEALS:
-                    return anyStandardMeals(restaurantName, driver);
+                    return context -> anyStandardMeals(context.getPickupRestaurant().getName(), context.getDriver());
                 case THIS_DRIVER_RESTAURANT_ALT_MEALS:
-                    return anyAlternateMeals(driver);
+                    return context -> anyAlternateMeals(context.getDriver());
                 case THIS_DRIVER_RESTAURANT_STD_GROCERY:
-                    return anyStandardGroceries(restaurantName, driver);
+                    return context -> anyStandardGroceries(
+                            context.getPickupRestaurant().getName(), context.getDriver());
                 case THIS_DRIVER_RESTAURANT_ALT_GROCERY:
-                    return anyAlternateGroceries(driver);
+                    return context -> anyAlternateGroceries(context.getDriver());
                 default:
-                    throw new MemberDataException(
-                            context.formatException("Unknown boolean variable &{" + refName + "}"));
+                    return unknownCondition("Unknown boolean variable &{" + refName + "}");
             }
 
         } else if (listName.equals("Consumer")) {
-            DeliveryV300 delivery = (DeliveryV300) context.getDelivery();
 
             switch (refName) {
                 case "Consumer.IsAltPhone":
-                    String altPhone = delivery.getAltPhone();
-                    value = ((!altPhone.isEmpty()) && (!altPhone.equalsIgnoreCase("none")));
-                    break;
+                    return context -> {
+                        String altPhone = delivery(context).getAltPhone();
+                        return ((!altPhone.isEmpty()) && (!altPhone.equalsIgnoreCase("none")));
+                    };
                 case "Consumer.IsCondo":
-                    value = delivery.isCondo();
-                    break;
+                    return context -> delivery(context).isCondo();
                 case CONSUMER_STD_MEAL:
-                    value = (delivery.getStdMeals() > 0);
-                    break;
+                    return context -> (delivery(context).getStdMeals() > 0);
                 case CONSUMER_ALT_MEAL:
-                    value = (delivery.getAltMeals() > 0);
-                    break;
+                    return context -> (delivery(context).getAltMeals() > 0);
                 case CONSUMER_STD_GROCERY:
-                    value = (delivery.getStdGrocery() > 0);
-                    break;
+                    return context -> (delivery(context).getStdGrocery() > 0);
                 case CONSUMER_ALT_GROCERY:
-                    value = (delivery.getAltGrocery() > 0);
-                    break;
+                    return context -> (delivery(context).getAltGrocery() > 0);
                 case CONSUMER_DETAILS:
-                    value = ! delivery.getDetails().isEmpty();
-                    break;
+                    return context -> ! delivery(context).getDetails().isEmpty();
                 default:
-                    throw new MemberDataException(context.formatException("Unknown boolean variable &{" + refName + "}"));
+                    return unknownCondition("Unknown boolean variable &{" + refName + "}");
             }
-        } else {
-            throw new MemberDataException(context.formatException("Unknown boolean variable &{" + refName + "}"));
         }
 
-        LOGGER.trace("${{}} = \"{}\"", listRef, value);
-        return value;
+        return unknownCondition("Unknown boolean variable &{" + refName + "}");
     }
 
     @Override
-    protected ProcessingReturnValue processListRef(MessageBlockListRef listRef, MessageBlockContext context) {
+    protected ValueAccessor bindListRef(MessageBlockListRef listRef) {
         String listName = listRef.getListName();
         String refName = listRef.getName();
-        ProcessingReturnValue returnValue;
 
         switch (listName) {
             case "ThisDriverRestaurant":
-                returnValue = processPickupsListRef(listRef, context);
-                break;
+                return bindPickupsListRef(refName);
             case "Consumer":
-                returnValue = processDeliveriesListRef(listRef, context);
-                break;
+                return bindDeliveriesListRef(refName);
             case "Driver":
-                returnValue = processDriverListRef(listRef, context);
-                break;
+                return bindDriverListRef(refName);
             case "BackupDriver":
-                returnValue = processBackupDriverListRef(listRef, context);
-                break;
+                return bindBackupDriverListRef(refName);
             case "AlternateMeals":
-                returnValue = processAlternateMealsListRef(listRef, context);
-                break;
+                return bindAlternateMealsListRef(refName);
             case "AlternateGroceries":
-                returnValue = processAlternateGroceriesListRef(listRef, context);
-                break;
+                return bindAlternateGroceriesListRef(refName);
             case "PickupManager":
-                returnValue = processPickupManagerListRef(listRef, context);
-                break;
+                return bindPickupManagerListRef(refName);
             default:
-                throw new MemberDataException(context.formatException(
-                        "unknown list name &{" + listName + "} in " + "&{" + refName + "}"));
+                return unknownValue("unknown list name &{" + listName + "} in " + "&{" + refName + "}");
         }
-
-        LOGGER.trace("&{{}} = \"{}\"", refName, returnValue.getOutput());
-        return returnValue;
     }
 
-    private ProcessingReturnValue processPickupsListRef(MessageBlockListRef listRef, MessageBlockContext context) {
-        String refName = listRef.getName();
-        String value;
+    private ValueAccessor bindPickupsListRef(String refName) {
 
         // FIX THIS, DS: unify Restaurant so that there are not multiple copies
-        Restaurant pickupRestaurant = context.getPickupRestaurant();
-        Restaurant globalRestaurant = restaurants.get(pickupRestaurant.getName());
-        Driver driver = context.getDriver();
-
         switch (refName) {
             case "ThisDriverRestaurant.Name":
-                value = pickupRestaurant.getName();
-                break;
+                return context -> context.getPickupRestaurant().getName();
             case "ThisDriverRestaurant.Emoji":
-                value = globalRestaurant.getEmoji();
-                break;
+                return context -> restaurants.get(context.getPickupRestaurant().getName()).getEmoji();
             case "ThisDriverRestaurant.Address":
-                value = pickupRestaurant.getAddress();
-                break;
+                return context -> context.getPickupRestaurant().getAddress();
             case "ThisDriverRestaurant.Details":
-                value = pickupRestaurant.getDetails();
-                break;
+                return context -> context.getPickupRestaurant().getDetails();
             case "ThisDriverRestaurant.StandardMeals":
-                value = getStandardMeals(pickupRestaurant.getName(), driver);
-                break;
+                return context -> getStandardMeals(context.getPickupRestaurant().getName(), context.getDriver());
             case "ThisDriverRestaurant.StandardGroceries":
-                value = getStandardGroceries(pickupRestaurant.getName(), driver);
-                break;
+                return context -> getStandardGroceries(context.getPickupRestaurant().getName(), context.getDriver());
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processAlternateMealsListRef(
-            MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        String value;
+    private ValueAccessor bindAlternateMealsListRef(String refName) {
 
         switch (refName) {
             case "AlternateMeals.Type":
-                value = context.getAlternateType();
-                break;
+                return MessageBlockContext::getAlternateType;
             case "AlternateMeals.Count":
-                value = getAlternateMealTotal(context);
-                break;
+                return this::getAlternateMealTotal;
             case "AlternateMeals.Total":
-                assert ! context.getAlternateType().isEmpty() : "no alternate meal type set";
-                value = getAllDriverAlternateMealsTotal(context.getAlternateType());
-                break;
+                return context -> {
+                    assert ! context.getAlternateType().isEmpty() : "no alternate meal type set";
+                    return getAllDriverAlternateMealsTotal(context.getAlternateType());
+                };
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processAlternateGroceriesListRef(
-            MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        String value;
+    private ValueAccessor bindAlternateGroceriesListRef(String refName) {
 
         switch (refName) {
             case "AlternateGroceries.Type":
-                value = context.getAlternateType();
-                break;
+                return MessageBlockContext::getAlternateType;
             case "AlternateGroceries.Count":
-                value = getAlternateGroceryTotal(context);
-                break;
+                return this::getAlternateGroceryTotal;
             case "AlternateGroceries.Total":
-                assert ! context.getAlternateType().isEmpty() : "no alternate grocery type set";
-                value = getAllDriverAlternateGroceriesTotal(context.getAlternateType());
-                break;
+                return context -> {
+                    assert ! context.getAlternateType().isEmpty() : "no alternate grocery type set";
+                    return getAllDriverAlternateGroceriesTotal(context.getAlternateType());
+                };
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
     }
 
-    private ProcessingReturnValue processPickupManagerListRef(
-            MessageBlockListRef listRef, MessageBlockContext context) {
-
-        String refName = listRef.getName();
-        String value;
+    private ValueAccessor bindPickupManagerListRef(String refName) {
 
         if ("PickupManager.UserName".equals(refName)) {
-            value = context.getPickupManager();
-        } else {
-            throw new MemberDataException(context.formatException(
-                    "unknown list variable &{" + refName + "}"));
+            return MessageBlockContext::getPickupManager;
         }
 
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, value);
+        return unknownValue("unknown list variable &{" + refName + "}");
     }
 
     private String getStandardMeals(String restaurantName, Driver driver) {
@@ -747,10 +623,9 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
         return false;
     }
-    protected final  ProcessingReturnValue processAltMealTypesLoopRef(
-            MessageBlockLoop loop, MessageBlockContext context) {
+    protected final  ProcessingStatus processAltMealTypesLoopRef(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext altMealsContext = new MessageBlockContext("AlternateMeals", context);
         altMealsContext.setPickupRestaurant(context.getPickupRestaurant());
 
@@ -760,24 +635,19 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
             altMealsContext.setAlternateType(alternateMealType);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, altMealsContext);
-                output.append(returnValue.getOutput());
-
-                if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, altMealsContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    private ProcessingReturnValue processAltGroceryTypesLoopRef(
-            MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processAltGroceryTypesLoopRef(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext altGroceriesContext = new MessageBlockContext("AlternateGroceries", context);
 
         LOGGER.trace("processAlternateGroceryTypesLoop: {}", altGroceriesContext);
@@ -786,24 +656,19 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
             altGroceriesContext.setAlternateType(alternateGroceryType);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, altGroceriesContext);
-                output.append(returnValue.getOutput());
-
-                if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, altGroceriesContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    protected final  ProcessingReturnValue processAlternateMealsLoopRef(
-            MessageBlockLoop loop, MessageBlockContext context) {
+    protected final  ProcessingStatus processAlternateMealsLoopRef(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext altMealsContext = new MessageBlockContext("AlternateMeals", context);
         altMealsContext.setPickupRestaurant(context.getPickupRestaurant());
 
@@ -813,24 +678,19 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
             altMealsContext.setAlternateType(alternateMealType);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, altMealsContext);
-                output.append(returnValue.getOutput());
-
-                if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, altMealsContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    protected final  ProcessingReturnValue processAlternateGroceriesLoopRef(
-            MessageBlockLoop loop, MessageBlockContext context) {
+    protected final  ProcessingStatus processAlternateGroceriesLoopRef(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext altGroceriesContext = new MessageBlockContext("AlternateGroceries", context);
         altGroceriesContext.setPickupRestaurant(context.getPickupRestaurant());
 
@@ -840,24 +700,19 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
             altGroceriesContext.setAlternateType(alternateGroceryType);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, altGroceriesContext);
-                output.append(returnValue.getOutput());
-
-                if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, altGroceriesContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    protected final  ProcessingReturnValue processDeliveriesLoopRef(
-            MessageBlockLoop loop, MessageBlockContext context) {
+    protected final  ProcessingStatus processDeliveriesLoopRef(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext deliveriesContext = new MessageBlockContext("Delivery", context);
 
         LOGGER.trace("processDeliveriesLoopRef: {}", deliveriesContext);
@@ -868,24 +723,19 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
             deliveriesContext.setDelivery(delivery);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, deliveriesContext);
-                output.append(returnValue.getOutput());
-
-                if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, deliveriesContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
-    private ProcessingReturnValue processPickupManagerLoopRef(
-            MessageBlockLoop loop, MessageBlockContext context) {
+    private ProcessingStatus processPickupManagerLoopRef(
+            CompiledLoop loop, MessageBlockContext context, StringBuilder output) {
 
-        StringBuilder output = new StringBuilder();
         MessageBlockContext pickpManagerContext = new MessageBlockContext("PickupManager", context);
 
         LOGGER.trace("processPickupManagerLoopRef: {}", pickpManagerContext);
@@ -894,18 +744,14 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
             pickpManagerContext.setPickupManager(pickupManager);
 
-            for (MessageBlockElement loopElement : loop.getElements()) {
-                ProcessingReturnValue returnValue = processElement(loopElement, pickpManagerContext);
-                output.append(returnValue.getOutput());
-
-                if (returnValue.getStatus() == ProcessingStatus.CONTINUE) {
+            for (RenderNode loopElement : loop.getElements()) {
+                if (processElement(loopElement, pickpManagerContext, output) == ProcessingStatus.CONTINUE) {
                     break;
                 }
             }
         }
 
-        LOGGER.trace("${{}} = \"{}\"", loop, output);
-        return new ProcessingReturnValue(ProcessingStatus.COMPLETE, output.toString());
+        return ProcessingStatus.COMPLETE;
     }
 
     String getAlternateMealTotal(MessageBlockContext context) {
@@ -980,12 +826,11 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 4 : columns.length;
+        assert apiQueryResult.headers.length == 4 : apiQueryResult.headers.length;
 
-            MessageBlock messageBlock = new MessageBlock(
-                    (Long)columns[1], (Long)columns[0], (String)columns[2]);
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            MessageBlock messageBlock = new MessageBlock(apiQueryResult.getLong(row, 1),
+                    apiQueryResult.getLong(row, 0), apiQueryResult.getString(row, 2));
             // FIX THIS, DS: catch and update status here?
             messageBlock.parse();
             driversTableMessageBlocks.add(messageBlock);
@@ -997,12 +842,11 @@ public class DriverPostFormatV300 extends DriverPostFormat {
 
         ApiQueryResult apiQueryResult = HBParser.parseQueryResult(json);
 
-        for (Object rowObj : apiQueryResult.rows) {
-            Object[] columns = (Object[]) rowObj;
-            assert columns.length == 4 : columns.length;
+        assert apiQueryResult.headers.length == 4 : apiQueryResult.headers.length;
 
-            MessageBlock messageBlock = new MessageBlock(
-                    (Long)columns[1], (Long)columns[0], (String)columns[2]);
+        for (int row = 0; row < apiQueryResult.getRowCount(); row++) {
+            MessageBlock messageBlock = new MessageBlock(apiQueryResult.getLong(row, 1),
+                    apiQueryResult.getLong(row, 0), apiQueryResult.getString(row, 2));
 
             // FIX THIS, DS: catch and update status here?
             messageBlock.parse();
@@ -1011,27 +855,18 @@ public class DriverPostFormatV300 extends DriverPostFormat {
     }
 
     @Override
-    protected String versionSpecificDriverListRef(MessageBlockContext context, String refName) {
-
-        String value;
-        DriverV300 driver = (DriverV300) context.getDriver();
+    protected ValueAccessor bindVersionSpecificDriverListRef(String refName) {
 
         switch (refName) {
             case "Driver.StartTime":
-                value = driver.getStartTime();
-                break;
+                return context -> context.getDriver().getStartTime();
             case "Driver.StandardMeals":
-                value =  driver.getStandardMeals();
-                break;
+                return context -> ((DriverV300) context.getDriver()).getStandardMeals();
             case "Driver.StandardGroceries":
-                value =  driver.getStandardGroceries();
-                break;
+                return context -> ((DriverV300) context.getDriver()).getStandardGroceries();
             default:
-                throw new MemberDataException(context.formatException("unknown list variable &{" + refName + "}"));
+                return unknownValue("unknown list variable &{" + refName + "}");
         }
-
-        LOGGER.trace("${{}} = \"{}\"", refName, value);
-        return value;
     }
 
     // FIX THIS, DS: change the driver internal representation to integer
@@ -22,27 +22,19 @@
  */
 package org.helpberkeley.memberdata.v300;
 
-import com.opencsv.bean.CsvToBeanBuilder;
 import org.helpberkeley.memberdata.*;
 
-import java.io.StringReader;
 import java.util.List;
 
 public class RestaurantTemplateParserV300 extends RestaurantTemplateParser {
 
-    public RestaurantTemplateParserV300(ControlBlock controlBlock, String csvData) {
-        super(controlBlock, csvData);
+    public RestaurantTemplateParserV300(ControlBlock controlBlock, CSVRows rows) {
+        super(controlBlock, rows);
     }
 
     @Override
-    protected List<RestaurantBean> parse(String csvData) {
-
-        try {
-            return new CsvToBeanBuilder<RestaurantBean>(
-                    new StringReader(csvData)).withType(RestaurantBeanV300.class).build().parse();
-        } catch (RuntimeException ex) {
-            throw new MemberDataException(ex);
-        }
+    protected List<RestaurantBean> parse(CSVRows rows) {
+        return rows.toBeans(RestaurantBeanV300.class);
     }
 
     @Override
@@ -59,7 +51,7 @@ public class RestaurantTemplateParserV300 extends RestaurantTemplateParser {
     }
 
     @Override
-    protected void auditColumns(final String csvData) {
+    protected void auditColumns(final CSVRows rows) {
 
         List<String> columnNames =  List.of(
                 Constants.WORKFLOW_CONSUMER_COLUMN,
@@ -74,12 +66,7 @@ public class RestaurantTemplateParserV300 extends RestaurantTemplateParser {
                 Constants.WORKFLOW_ALT_GROCERY_COLUMN,
                 Constants.WORKFLOW_TYPE_GROCERY_COLUMN);
 
-        List<String> headerColumns;
-
-        try (StringReader reader = new StringReader(csvData)) {
-            CSVListReader csvListReader = new CSVListReader(reader);
-            headerColumns = csvListReader.readNextToList();
-        }
+        List<String> headerColumns = rows.header();
 
         int numErrors = 0;
         StringBuilder errors = new StringBuilder();
@@ -52,6 +52,17 @@ public class RestaurantV300 extends Restaurant {
         }
     }
 
+    private RestaurantV300(RestaurantV300 restaurant) {
+        super(restaurant);
+        alternateMealTypes.addAll(restaurant.alternateMealTypes);
+        alternateGroceryTypes.addAll(restaurant.alternateGroceryTypes);
+    }
+
+    @Override
+    public Restaurant copy() {
+        return new RestaurantV300(this);
+    }
+
     @Override
     public String toString() {
         return getName() + ", start:" + getStartTime() + ", drivers:" + getDrivers().keySet();
@@ -22,10 +22,8 @@
  */
 package org.helpberkeley.memberdata.v300;
 
-import com.opencsv.bean.CsvToBeanBuilder;
 import org.helpberkeley.memberdata.*;
 
-import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.*;
 
@@ -74,18 +72,13 @@ public class WorkflowParserV300 extends WorkflowParser {
     public static final String DUPLICATE_PICKUP =
             "Restaurant {0} appears more than once for driver {1}.\n";
 
-    public WorkflowParserV300(final String csvData) {
-        super(csvData);
+    public WorkflowParserV300(final CSVRows rows, final ControlBlock controlBlock) {
+        super(rows, controlBlock);
     }
 
     @Override
-    protected List<WorkflowBean> parse() {
-        try {
-            return new CsvToBeanBuilder<WorkflowBean>(
-                    new StringReader(csvData)).withType(WorkflowBeanV300.class).build().parse();
-        } catch (RuntimeException ex) {
-            throw new MemberDataException(ex);
-        }
+    protected Iterator<WorkflowBean> parse() {
+        return rows.beans(WorkflowBeanV300.class);
     }
 
     /**
@@ -114,14 +107,7 @@ public class WorkflowParserV300 extends WorkflowParser {
                 Constants.WORKFLOW_ALT_GROCERY_COLUMN,
                 Constants.WORKFLOW_TYPE_GROCERY_COLUMN);
 
-        List<String> headerColumns;
-
-        try (StringReader stringReader = new StringReader(csvData)) {
-            CSVListReader csvReader = new CSVListReader(stringReader);
-            headerColumns = csvReader.readNextToList();
-        }
-
-        Set<String> set = new HashSet<>(headerColumns);
+        Set<String> set = new HashSet<>(rows.header());
 
         int numErrors = 0;
         StringBuilder errors = new StringBuilder();
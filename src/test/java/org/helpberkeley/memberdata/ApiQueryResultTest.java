@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ApiQueryResultTest extends TestBase {
+
+    @Test
+    public void typedColumnsTest() {
+        ApiQueryResult result = HBParser.parseQueryResult(readResourceFile("users.json"));
+
+        assertThat(result.getRowCount()).isEqualTo(15);
+        assertThat(result.headers).hasSize(14);
+
+        int userIdIndex = result.getColumnIndex(Constants.COLUMN_USER_ID);
+        int stagedIndex = result.getColumnIndex(Constants.COLUMN_STAGED);
+        int condoIndex = result.getColumnIndex(Constants.COLUMN_CONDO);
+        int cityIndex = result.getColumnIndex(Constants.COLUMN_CITY);
+
+        assertThat(result.getLong(0, userIdIndex)).isEqualTo(200);
+        assertThat(result.getBoolean(0, stagedIndex)).isFalse();
+        assertThat(result.isNull(0, condoIndex)).isTrue();
+        assertThat(result.getString(0, condoIndex)).isNull();
+        assertThat(result.getString(0, cityIndex)).isEqualTo("Berkeley");
+
+        // City names repeat, so the dictionary is smaller than the row count.
+        assertThat(result.getDistinctStringCount(cityIndex)).isBetween(1, result.getRowCount() - 1);
+        assertThat(result.getDistinctStringCount(userIdIndex)).isEqualTo(-1);
+    }
+
+    @Test
+    public void mixedColumnTest() {
+        ApiQueryResult result = HBParser.parseQueryResult(
+                "{\"columns\":[\"a\",\"b\"],\"rows\":[[1,null],[\"two\",null],[null,null],[4,null]]}");
+
+        assertThat(result.getRowCount()).isEqualTo(4);
+        assertThat(result.getLong(0, 0)).isEqualTo(1);
+        assertThat(result.getString(1, 0)).isEqualTo("two");
+        assertThat(result.isNull(2, 0)).isTrue();
+        assertThat(result.getObject(3, 0)).isEqualTo(4L);
+        assertThat(result.getObject(1, 1)).isNull();
+        assertThatThrownBy(() -> result.getLong(1, 0)).isInstanceOf(MemberDataException.class);
+    }
+
+    @Test
+    public void typeMismatchTest() {
+        ApiQueryResult result = HBParser.parseQueryResult(
+                "{\"columns\":[\"a\",\"b\"],\"rows\":[[1,true],[null,false]]}");
+
+        assertThat(result.getBoolean(1, 1)).isFalse();
+        assertThatThrownBy(() -> result.getString(0, 0)).isInstanceOf(MemberDataException.class);
+        assertThatThrownBy(() -> result.getLong(1, 0)).isInstanceOf(MemberDataException.class);
+        assertThatThrownBy(() -> result.getBoolean(2, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.helpberkeley.memberdata.v300.RestaurantBeanV300;
+import org.helpberkeley.memberdata.v300.WorkflowBeanV300;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class BeanBinderTest {
+
+    @Test
+    public void bindTest() {
+        String[] header = { Constants.WORKFLOW_CONSUMER_COLUMN, "Unknown", Constants.WORKFLOW_NAME_COLUMN };
+        BeanBinder<WorkflowBean> binder = BeanBinder.create(WorkflowBeanV300.class, header);
+
+        WorkflowBean bean = binder.bind(new String[] { "TRUE", "ignored", " Joe B. " });
+        assertThat(bean).isInstanceOf(WorkflowBeanV300.class);
+        assertThat(bean.getConsumer()).isEqualTo("TRUE");
+        assertThat(bean.getName()).isEqualTo("Joe B.");
+
+        WorkflowBean next = binder.bind(new String[] { "FALSE", "", "" });
+        assertThat(next).isNotSameAs(bean);
+        assertThat(next.getConsumer()).isEqualTo("FALSE");
+        assertThat(next.getName()).isEmpty();
+    }
+
+    @Test
+    public void headerMatchTest() {
+        String[] header = { " consumer ", "NAME", Constants.WORKFLOW_CITY_COLUMN };
+        BeanBinder<RestaurantBean> binder = BeanBinder.create(RestaurantBeanV300.class, header);
+
+        RestaurantBean bean = binder.bind(new String[] { "FALSE", "ControlBegin", "Berkeley" });
+        assertThat(bean.getConsumer()).isEqualTo("FALSE");
+        assertThat(bean.getControlBlockDirective()).isEqualTo("ControlBegin");
+        assertThat(bean.getControlBlockValue()).isEqualTo("Berkeley");
+    }
+
+    @Test
+    public void fieldCountMismatchTest() {
+        String[] header = { Constants.WORKFLOW_CONSUMER_COLUMN, Constants.WORKFLOW_NAME_COLUMN };
+        BeanBinder<WorkflowBean> binder = BeanBinder.create(WorkflowBeanV300.class, header);
+
+        Throwable thrown = catchThrowable(() -> binder.bind(new String[] { "TRUE" }));
+        assertThat(thrown).isInstanceOf(MemberDataException.class);
+        assertThat(thrown).hasMessage(BeanBinder.FIELD_COUNT_MISMATCH);
+
+        thrown = catchThrowable(() -> binder.bind(new String[] { "TRUE", "name", "extra" }));
+        assertThat(thrown).isInstanceOf(MemberDataException.class);
+        assertThat(thrown).hasMessage(BeanBinder.FIELD_COUNT_MISMATCH);
+    }
+}
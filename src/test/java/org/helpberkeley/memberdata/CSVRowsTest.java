@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.helpberkeley.memberdata.v300.WorkflowBeanV300;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class CSVRowsTest extends TestBase {
+
+    @Test
+    public void trimmedRowsTest() {
+        String csvData = " h1 ,h2,h3\n"
+                + "a, b ,c\n"
+                + "1,2,\" 3 \"\n";
+
+        CSVRows rows = CSVRows.parse(csvData);
+        assertThat(rows.isEmpty()).isFalse();
+        assertThat(rows.header()).containsExactly("h1", "h2", "h3");
+
+        Iterable<List<String>> trimmedRows = rows.trimmedRows();
+        assertThat(trimmedRows).containsExactly(
+                List.of("h1", "h2", "h3"), List.of("a", "b", "c"), List.of("1", "2", "3"));
+        // Rows read once can be iterated again
+        assertThat(trimmedRows).hasSize(3);
+    }
+
+    @Test
+    public void emptyTest() {
+        CSVRows rows = CSVRows.parse("");
+        assertThat(rows.isEmpty()).isTrue();
+        assertThat(rows.header()).isEmpty();
+        assertThat(rows.trimmedRows()).isEmpty();
+    }
+
+    @Test
+    public void toBeansTest() {
+        String csvData = readResourceFile("routed-deliveries-v300.csv");
+        CSVRows rows = CSVRows.parse(csvData);
+
+        List<List<String>> trimmedRows = new ArrayList<>();
+        rows.trimmedRows().forEach(trimmedRows::add);
+
+        List<WorkflowBean> beans = rows.toBeans(WorkflowBeanV300.class);
+        assertThat(beans).hasSize(trimmedRows.size() - 1);
+        assertThat(beans.get(0).getConsumer()).isEqualTo(trimmedRows.get(1).get(0));
+    }
+
+    @Test
+    public void beansTest() {
+        String csvData = readResourceFile("routed-deliveries-v300.csv");
+        CSVRows rows = CSVRows.parse(csvData);
+
+        // Read part way, as the control block version scan does
+        Iterator<List<String>> rowIterator = rows.trimmedRows().iterator();
+        rowIterator.next();
+        List<String> firstDataRow = rowIterator.next();
+
+        Iterator<WorkflowBean> beans = rows.beans(WorkflowBeanV300.class);
+        assertThat(beans.hasNext()).isTrue();
+        assertThat(beans.next().getConsumer()).isEqualTo(firstDataRow.get(0));
+
+        int numBeans = 1;
+        while (beans.hasNext()) {
+            assertThat(beans.next()).isNotNull();
+            numBeans++;
+        }
+        assertThat(numBeans).isEqualTo(csvData.split("\n").length - 1);
+        assertThat(rows.header()).contains(Constants.WORKFLOW_CONSUMER_COLUMN);
+    }
+
+    @Test
+    public void toBeansLineNumberTest() {
+        String csvData = readResourceFile("routed-deliveries-v300.csv");
+        // A quoted newline makes the physical line count differ from the row count
+        String header = csvData.substring(0, csvData.indexOf('\n') + 1);
+        String badRow = "FALSE,\"multi\nline\"\n";
+        CSVRows rows = CSVRows.parse(header + "\"quoted\nnewline\"" + header.substring(header.indexOf(','))
+                + badRow);
+
+        Throwable thrown = catchThrowable(() -> rows.toBeans(WorkflowBeanV300.class));
+        assertThat(thrown).isInstanceOf(MemberDataException.class);
+        assertThat(thrown).hasMessage("Error parsing CSV line: 5. [FALSE,multi\nline]"
+                + "\nNumber of data fields does not match number of headers.");
+    }
+}
@@ -110,4 +110,67 @@ public class DriverHistoryTest extends TestBase {
         driverHistory.addRun("2020/11/15");
         assertThat(driverHistory.getWeeklyRunTotals()).containsExactly(4, 2, 7, 3, 2, 2, 2);
     }
+
+    @Test
+    public void incrementalUpdateTest() {
+        ApiClient apiClient = createApiSimulator();
+        String previous = "username,delivery_date\nfred,2020/12/30\nfred,2020/12/31\n";
+        long historyPostId = setHistoryPost(990001, "incremental-driver-history.csv", previous, "3");
+
+        // Only the 2021/01/01 post is newer than post 3, and it is later than the previous table.
+        DriverHistory.Table table = DriverHistory.updateDriverHistory(apiClient, historyPostId);
+        assertThat(table.lastPostProcessed).isEqualTo(5);
+
+        StringBuilder expected = new StringBuilder(previous);
+        for (String line : DriverHistory.generateDriverHistory(apiClient).split("\n")) {
+            if (line.endsWith(",2021/01/01")) {
+                expected.append(line).append('\n');
+            }
+        }
+        assertThat(expected.toString()).isNotEqualTo(previous);
+        assertThat(table.driverRuns).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void noNewPostsTest() {
+        String previous = "username,delivery_date\nfred,2021/01/01\n";
+        long historyPostId = setHistoryPost(990002, "current-driver-history.csv", previous, "5");
+
+        DriverHistory.Table table = DriverHistory.updateDriverHistory(createApiSimulator(), historyPostId);
+        assertThat(table.lastPostProcessed).isEqualTo(5);
+        assertThat(table.driverRuns).isEqualTo(previous);
+    }
+
+    @Test
+    public void regenerateTest() {
+        ApiClient apiClient = createApiSimulator();
+
+        // The 2020/12/30 post is newer than post 1, but the previous table already goes past it.
+        long historyPostId = setHistoryPost(990003, "stale-driver-history.csv",
+                "username,delivery_date\nfred,2020/12/31\n", "1");
+        DriverHistory.Table table = DriverHistory.updateDriverHistory(apiClient, historyPostId);
+        assertThat(table.lastPostProcessed).isEqualTo(5);
+        assertThat(table.driverRuns).isEqualTo(DriverHistory.generateDriverHistory(apiClient));
+
+        // No last post processed
+        table = DriverHistory.updateDriverHistory(apiClient, Main.DRIVER_HISTORY_POST_ID);
+        assertThat(table.driverRuns).isEqualTo(DriverHistory.generateDriverHistory(apiClient));
+    }
+
+    @Test
+    public void parseLastPostProcessedTest() {
+        assertThat(DriverHistory.parseLastPostProcessed("**Driver History**\n\nLast post processed: 42\n"))
+                .isEqualTo(42);
+        assertThat(DriverHistory.parseLastPostProcessed("**Driver History**")).isEqualTo(-1);
+        assertThat(DriverHistory.parseLastPostProcessed("Last post processed: x")).isEqualTo(-1);
+    }
+
+    private long setHistoryPost(long postId, String fileName, String driverRuns, String lastPostProcessed) {
+        HttpClientSimulator.setGetResponseData(Constants.DOWNLOAD_ENDPOINT + fileName, driverRuns);
+        HttpClientSimulator.setGetResponseData(Constants.POSTS_BASE + postId + ".json",
+                "{ \"id\": " + postId + ", \"raw\": \"**Driver History**\\n\\n["
+                        + fileName + "|attachment](upload://" + fileName + ")\\n\\n"
+                        + DriverHistory.LAST_POST_PROCESSED + lastPostProcessed + "\" }");
+        return postId;
+    }
 }
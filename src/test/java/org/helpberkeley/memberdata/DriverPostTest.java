@@ -125,6 +125,30 @@ public abstract class DriverPostTest extends TestBase {
         checkCondoConsumers(posts);
     }
 
+    @Test
+    public void continueKeepsConditionalOutputTest() {
+        String format = "LOOP &{Consumer} { "
+                + " &{Consumer.Name}"
+                + " IF &{Consumer.IsCondo} THEN { \"!\" CONTINUE }"
+                + "\"\\n\""
+                + " }";
+        HttpClientSimulator.setQueryResponseData(getDriverPostFormatQuery(), createMessageBlock(format));
+        String routedDeliveries = readResourceFile(getRoutedDeliveriesFileName());
+        DriverPostFormat driverPostFormat =
+                DriverPostFormat.create(createApiSimulator(), users, routedDeliveries);
+        List<String> posts = driverPostFormat.generateDriverPosts();
+        List<Driver> drivers = driverPostFormat.getDrivers();
+        assertThat(posts).hasSameSizeAs(drivers);
+
+        for (int index = 0; index < drivers.size(); index++) {
+            StringBuilder expected = new StringBuilder();
+            for (Delivery delivery : drivers.get(index).getDeliveries()) {
+                expected.append(delivery.getName()).append(delivery.isCondo() ? "!" : "\n");
+            }
+            assertThat(posts.get(index)).isEqualTo(expected.toString());
+        }
+    }
+
     @Test
     public void dataRowWithoutEnoughColumnsTest() {
         String emptyRow = getEmptyRow().substring(3);
@@ -232,4 +256,54 @@ public abstract class DriverPostTest extends TestBase {
             "unknown list variable &{TheLoop}",
             200, 1));
     }
+
+    @Test
+    public void compiledBlockReusedTest() {
+        String format = "LOOP &{Consumer} { &{Consumer.Name} \"\\n\" }";
+        HttpClientSimulator.setQueryResponseData(getDriverPostFormatQuery(), createMessageBlock(format));
+        String routedDeliveries = readResourceFile(getRoutedDeliveriesFileName());
+        DriverPostFormat driverPostFormat =
+                DriverPostFormat.create(createApiSimulator(), users, routedDeliveries);
+        List<String> posts = driverPostFormat.generateDriverPosts();
+        assertThat(driverPostFormat.generateDriverPosts()).isEqualTo(posts);
+
+        MessageBlock messageBlock = driverPostFormat.driverPostMessageBlocks.get(0);
+        assertThat(driverPostFormat.compile(messageBlock)).isSameAs(driverPostFormat.compile(messageBlock));
+    }
+
+    @Test
+    public void unknownVariableNotRenderedTest() {
+        String format = "LOOP &{Consumer} { CONTINUE ${NoSuchVariable} }";
+        HttpClientSimulator.setQueryResponseData(getDriverPostFormatQuery(), createMessageBlock(format));
+        String routedDeliveries = readResourceFile(getRoutedDeliveriesFileName());
+        DriverPostFormat driverPostFormat =
+                DriverPostFormat.create(createApiSimulator(), users, routedDeliveries);
+        for (String post : driverPostFormat.generateDriverPosts()) {
+            assertThat(post).isEqualTo("");
+        }
+    }
+
+    @Test
+    public void parallelRenderTest() {
+        String format = "&{Driver.UserName} \"\\n\" LOOP &{Consumer} { "
+                + " &{Consumer.Name}"
+                + " IF &{Consumer.IsCondo} THEN { \"Condo\" } "
+                + "\"\\n\""
+                + " }";
+        String routedDeliveries = readResourceFile(getRoutedDeliveriesFileName());
+        int threshold = DriverPostFormat.parallelRenderThreshold;
+        try {
+            DriverPostFormat.parallelRenderThreshold = Integer.MAX_VALUE;
+            HttpClientSimulator.setQueryResponseData(getDriverPostFormatQuery(), createMessageBlock(format));
+            List<String> sequential =
+                    DriverPostFormat.create(createApiSimulator(), users, routedDeliveries).generateDriverPosts();
+
+            DriverPostFormat.parallelRenderThreshold = 1;
+            HttpClientSimulator.setQueryResponseData(getDriverPostFormatQuery(), createMessageBlock(format));
+            assertThat(DriverPostFormat.create(createApiSimulator(), users, routedDeliveries).generateDriverPosts())
+                    .containsExactlyElementsOf(sequential);
+        } finally {
+            DriverPostFormat.parallelRenderThreshold = threshold;
+        }
+    }
 }
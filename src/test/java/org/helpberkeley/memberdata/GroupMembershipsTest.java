@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupMembershipsTest extends TestBase {
+
+    @Test
+    public void membershipsTest() {
+        GroupMemberships groups = new GroupMemberships();
+        groups.add(Constants.GROUP_DRIVERS, 7, false);
+        groups.add(Constants.GROUP_CONSUMERS, 7, false);
+        groups.add(Constants.GROUP_DISPATCHERS, 7, true);
+        groups.add(Constants.GROUP_DRIVERS, -2, false);
+
+        List<String> names = new ArrayList<>();
+        groups.memberships(7, names);
+        assertThat(names).containsExactlyInAnyOrder(
+                Constants.GROUP_DRIVERS, Constants.GROUP_CONSUMERS, Constants.GROUP_DISPATCHERS);
+
+        names.clear();
+        groups.ownerships(7, names);
+        assertThat(names).containsExactly(Constants.GROUP_DISPATCHERS);
+
+        names.clear();
+        groups.memberships(-2, names);
+        assertThat(names).containsExactly(Constants.GROUP_DRIVERS);
+
+        assertThat(groups.memberships(12345)).isZero();
+        assertThat(groups.ownerships(-2)).isZero();
+        assertThat(groups.size()).isEqualTo(2);
+
+        assertThat(groups.ownerships(7)).isEqualTo(1L << Group.groupBit(Constants.GROUP_DISPATCHERS));
+        assertThat(groups.memberships(-2)).isEqualTo(1L << Group.groupBit(Constants.GROUP_DRIVERS));
+        assertThat(groups.memberships(7)).isEqualTo((1L << Group.groupBit(Constants.GROUP_DRIVERS))
+                | (1L << Group.groupBit(Constants.GROUP_CONSUMERS))
+                | (1L << Group.groupBit(Constants.GROUP_DISPATCHERS)));
+    }
+
+    @Test
+    public void growTest() {
+        GroupMemberships groups = new GroupMemberships();
+        int numUsers = 10_000;
+
+        for (long userId = 0; userId < numUsers; userId++) {
+            String groupName = Group.SUPPORTED_GROUPS.get((int) (userId % Group.SUPPORTED_GROUPS.size()));
+            groups.add(groupName, userId * 1024, (userId % 3) == 0);
+        }
+
+        assertThat(groups.size()).isEqualTo(numUsers);
+        for (long userId = 0; userId < numUsers; userId++) {
+            int bit = (int) (userId % Group.SUPPORTED_GROUPS.size());
+            assertThat(groups.memberships(userId * 1024)).isEqualTo(1L << bit);
+            assertThat(groups.ownerships(userId * 1024)).isEqualTo(((userId % 3) == 0) ? 1L << bit : 0);
+        }
+    }
+
+    @Test
+    public void supportedGroupBitsTest() {
+        assertThat(Group.SUPPORTED_GROUPS).hasSizeLessThanOrEqualTo(Long.SIZE);
+        assertThat(Group.SUPPORTED_GROUPS).doesNotHaveDuplicates();
+        assertThat(Group.groupBit("collectors of porcelain frogs")).isEqualTo(-1);
+
+        long all = 0;
+        for (String groupName : Group.SUPPORTED_GROUPS) {
+            assertThat(Group.supportedGroup(1L, groupName)).isTrue();
+            all |= 1L << Group.groupBit(groupName);
+        }
+
+        List<String> names = new ArrayList<>();
+        Group.groupNames(all, names);
+        assertThat(names).containsExactlyElementsOf(Group.SUPPORTED_GROUPS);
+    }
+}
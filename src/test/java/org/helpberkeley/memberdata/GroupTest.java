@@ -23,22 +23,31 @@ package org.helpberkeley.memberdata;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class GroupTest extends TestBase {
     @Test
-    public void createGroupTest() {
+    public void groupBitsTest() {
 
-        String groupName = "collectors of porcelain frogs";
-        List<Long> userIDs = List.of(3L, 1L, 4L);
-        Group group = Group.createGroup(groupName, userIDs);
-        assertThat(group.toString()).contains(groupName);
+        int driversBit = Group.groupBit(Constants.GROUP_DRIVERS);
+        int consumersBit = Group.groupBit(Constants.GROUP_CONSUMERS);
+        assertThat(driversBit).isNotEqualTo(-1);
+        assertThat(consumersBit).isNotEqualTo(-1);
+        assertThat(Group.groupBit("collectors of porcelain frogs")).isEqualTo(-1);
 
-        for (Long id : userIDs) {
-            assertThat(group.hasMember(id)).isTrue();
-            assertThat(group.toString()).contains(String.valueOf(id));
-        }
+        List<String> groupNames = new ArrayList<>();
+        Group.groupNames((1L << driversBit) | (1L << consumersBit), groupNames);
+        assertThat(groupNames).containsExactlyInAnyOrder(Constants.GROUP_DRIVERS, Constants.GROUP_CONSUMERS);
+    }
+
+    @Test
+    public void supportedGroupTest() {
+        assertThat(Group.supportedGroup(1L, Constants.GROUP_DRIVERS)).isTrue();
+        assertThat(Group.supportedGroup(1L, "collectors of porcelain frogs")).isFalse();
+        assertThat(Group.supportedGroup(null, Constants.GROUP_DRIVERS)).isFalse();
+        assertThat(Group.supportedGroup(1L, null)).isFalse();
     }
 }
@@ -33,11 +33,12 @@ import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
@@ -52,14 +53,14 @@ public class HttpClientSimulator extends HttpClient {
         SERVICE_UNAVAILABLE,
     }
 
-    private static final Map<Integer, String> queryResponseFiles = new HashMap<>();
-    private static final Map<Integer, String> queryResponseData = new HashMap<>();
-    private static final Map<String, String> getResponseFiles = new HashMap<>();
-    private static final Map<String, String> getResponseData = new HashMap<>();
-    private static final Map<String, String> postResponseData = new HashMap<>();
-    private static String getFileName = null;
+    private static final Map<Integer, String> queryResponseFiles = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> queryResponseData = new ConcurrentHashMap<>();
+    private static final Map<String, String> getResponseFiles = new ConcurrentHashMap<>();
+    private static final Map<String, String> getResponseData = new ConcurrentHashMap<>();
+    private static final Map<String, String> postResponseData = new ConcurrentHashMap<>();
+    private static volatile String getFileName = null;
     private static final AtomicInteger sendFailCount = new AtomicInteger(0);
-    private static SendFailType sendFailType = null;
+    private static volatile SendFailType sendFailType = null;
 
     static void setQueryResponseFile(int queryId, final String fileName) {
         queryResponseFiles.put(queryId, fileName);
@@ -101,7 +102,7 @@ public class HttpClientSimulator extends HttpClient {
             } else {
                 assertThat(sendFailType).isEqualTo(SendFailType.TOO_MANY_TIMES_429_RESULT);
                 return (HttpResponse<T>) new HttpResponseSimulator<>(
-                        "Too many times", Constants.HTTP_TOO_MANY_REQUESTS);
+                        "Too many times", Constants.HTTP_TOO_MANY_REQUESTS, Map.of("Retry-After", List.of("0")));
             }
         }
 
@@ -403,19 +404,24 @@ public class HttpClientSimulator extends HttpClient {
         return null;
     }
 
-    private static class HttpResponseSimulator<String> implements HttpResponse<String> {
+    static class HttpResponseSimulator<String> implements HttpResponse<String> {
 
         private final String responseBody;
         private final int statusCode;
+        private final HttpHeaders headers;
 
         HttpResponseSimulator(final String responseBody) {
-            this.responseBody = responseBody;
-            this.statusCode = HTTP_OK;
+            this(responseBody, HTTP_OK);
         }
 
         HttpResponseSimulator(final String responseBody, int statusCode) {
+            this(responseBody, statusCode, Map.of());
+        }
+
+        HttpResponseSimulator(final String responseBody, int statusCode, Map<java.lang.String, List<java.lang.String>> headers) {
             this.statusCode = statusCode;
             this.responseBody = responseBody;
+            this.headers = HttpHeaders.of(headers, (name, value) -> true);
         }
 
         @Override
@@ -435,7 +441,7 @@ public class HttpClientSimulator extends HttpClient {
 
         @Override
         public HttpHeaders headers() {
-            return null;
+            return headers;
         }
 
         @Override
@@ -29,8 +29,10 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class LoaderTest extends TestBase {
 
@@ -105,4 +107,41 @@ public class LoaderTest extends TestBase {
         List<User> users = loader.load();
         assertThat(users).hasSize(0);
     }
+
+    @Test
+    public void queriesSubmittedTogetherTest() {
+        AtomicInteger tasks = new AtomicInteger();
+        List<User> users = new Loader(apiClient).load(task -> {
+            tasks.incrementAndGet();
+            task.run();
+        });
+
+        assertThat(tasks.get()).isEqualTo(Loader.QUERY_THREADS);
+        assertThat(users).containsExactlyInAnyOrderElementsOf(new Loader(apiClient).load());
+    }
+
+    @Test
+    public void queryFailureTest() {
+        HttpClientSimulator.setQueryResponseData(Constants.QUERY_EMAIL_CONFIRMATIONS,
+                "{\"columns\":[\"user_id\",\"confirmed\"],\"rows\":[[\"bogus\",true]]}");
+        Loader loader = new Loader(apiClient);
+        assertThatThrownBy(loader::load).isInstanceOf(MemberDataException.class);
+    }
+
+    @Test
+    public void parallelBuildTest() {
+        int threshold = HBParser.parallelUsersThreshold;
+        try {
+            HBParser.parallelUsersThreshold = Integer.MAX_VALUE;
+            List<User> sequential = new Loader(apiClient).load();
+            String csv = new UserExporter(sequential).allMembersRaw();
+            List<User> sequentialCSV = HBParser.users(csv);
+
+            HBParser.parallelUsersThreshold = 1;
+            assertThat(new Loader(apiClient).load()).containsExactlyElementsOf(sequential);
+            assertThat(HBParser.users(csv)).containsExactlyElementsOf(sequentialCSV);
+        } finally {
+            HBParser.parallelUsersThreshold = threshold;
+        }
+    }
 }
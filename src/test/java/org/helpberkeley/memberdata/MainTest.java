@@ -32,6 +32,7 @@ import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -167,6 +168,92 @@ public class MainTest extends TestBase {
                 Constants.TOPIC_DRIVERS_POST_STAGING.getName(),
                 String.valueOf(Constants.TOPIC_DRIVERS_POST_STAGING.getId())));
     }
+
+    @Test
+    public void serveTest() throws IOException {
+        // The first poll gets a garbled last replies response and fails.  Serve
+        // logs the failure and polls again, and the later polls see no requests.
+        HttpClientSimulator.setQueryResponseData(Constants.QUERY_GET_REQUESTS_LAST_REPLIES, "garbled");
+        String usersFile = findFile(Constants.MEMBERDATA_RAW_FILE, "csv");
+
+        long servePolls = Main.servePolls;
+        TimeUnit servePollUnit = Main.servePollUnit;
+        try {
+            Main.servePolls = 3;
+            Main.servePollUnit = TimeUnit.MILLISECONDS;
+            String[] args = { Options.COMMAND_SERVE, usersFile, "1" };
+            Main.main(args);
+        } finally {
+            Main.servePolls = servePolls;
+            Main.servePollUnit = servePollUnit;
+        }
+
+        assertThat(Main.servePollsRun).isEqualTo(3);
+        assertThat(Main.servePollsFailed).isEqualTo(1);
+    }
+
+    @Test
+    public void concurrentWorkRequestsTest() throws IOException {
+        LastRepliesBuilder repliesBuilder = new LastRepliesBuilder();
+        repliesBuilder.addRowWithRequestTopic(Constants.TOPIC_REQUEST_DRIVER_MESSAGES);
+        repliesBuilder.addRowWithRequestFile(Constants.TOPIC_REQUEST_ONE_KITCHEN_DRIVER_MESSAGES,
+                "routed-deliveries-v1.csv");
+        repliesBuilder.addRowWithRequestTopic(Constants.TOPIC_REQUEST_DRIVER_ROUTES);
+        HttpClientSimulator.setQueryResponseData(Constants.QUERY_GET_REQUESTS_LAST_REPLIES, repliesBuilder.build());
+        String usersFile = findFile(Constants.MEMBERDATA_RAW_FILE, "csv");
+        String[] args = { Options.COMMAND_WORK_REQUESTS, usersFile };
+        Main.main(args);
+
+        // Each request posts its own status, and a failed request does not stop the others.
+        Post statusPost = WorkRequestHandler.getStatusPost(Constants.TOPIC_REQUEST_DRIVER_MESSAGES.getId());
+        assertThat(statusPost).isNotNull();
+        assertThat(statusPost.raw).contains("Status: Succeeded");
+
+        statusPost = WorkRequestHandler.getStatusPost(Constants.TOPIC_REQUEST_ONE_KITCHEN_DRIVER_MESSAGES.getId());
+        assertThat(statusPost).isNotNull();
+        assertThat(statusPost.raw).contains("Status: Failed");
+        assertThat(statusPost.raw).contains(MessageFormat.format(
+                Main.UNSUPPORTED_CONTROL_BLOCK_VERSION, "0",
+                Main.buildTopicURL(Constants.TOPIC_REQUEST_ONE_KITCHEN_DRIVER_MESSAGES),
+                Constants.CONTROL_BLOCK_VERSION_300));
+
+        statusPost = WorkRequestHandler.getStatusPost(Constants.TOPIC_REQUEST_DRIVER_ROUTES.getId());
+        assertThat(statusPost).isNotNull();
+        assertThat(statusPost.raw).contains("Status: Failed");
+        assertThat(statusPost.raw).contains("Route requests not supported");
+    }
+
+    @Test
+    public void concurrentWorkRequestsUnexpectedFailureTest() throws IOException {
+        LastRepliesBuilder repliesBuilder = new LastRepliesBuilder();
+        repliesBuilder.addRowWithRequestTopic(Constants.TOPIC_REQUEST_DRIVER_MESSAGES);
+        repliesBuilder.addRowWithRequestTopic(Constants.TOPIC_REQUEST_DATA);
+        repliesBuilder.addRowWithRequestTopic(Constants.TOPIC_REQUEST_DRIVER_ROUTES);
+        HttpClientSimulator.setQueryResponseData(Constants.QUERY_GET_REQUESTS_LAST_REPLIES, repliesBuilder.build());
+        // Only the member data request fetches the delivery details, and a post without
+        // any raw content fails it with an unexpected exception.
+        HttpClientSimulator.setQueryResponseData(Constants.QUERY_GET_DELIVERY_DETAILS, "{\n"
+                + "  \"columns\": [ \"post_number\", \"raw\", \"deleted_at\" ],\n"
+                + "  \"rows\": [ [ 2, null, null ] ]\n"
+                + "}\n");
+        String usersFile = findFile(Constants.MEMBERDATA_RAW_FILE, "csv");
+        String[] args = { Options.COMMAND_WORK_REQUESTS, usersFile };
+
+        // The unexpected failure is rethrown once the other requests have finished.
+        Throwable thrown = catchThrowable(() -> Main.main(args));
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+
+        assertThat(WorkRequestHandler.getStatusPost(Constants.TOPIC_REQUEST_DATA.getId())).isNull();
+
+        Post statusPost = WorkRequestHandler.getStatusPost(Constants.TOPIC_REQUEST_DRIVER_MESSAGES.getId());
+        assertThat(statusPost).isNotNull();
+        assertThat(statusPost.raw).contains("Status: Succeeded");
+
+        statusPost = WorkRequestHandler.getStatusPost(Constants.TOPIC_REQUEST_DRIVER_ROUTES.getId());
+        assertThat(statusPost).isNotNull();
+        assertThat(statusPost.raw).contains("Route requests not supported");
+    }
+
     @Test
     public void driverMessagesTestTopicTest() throws IOException {
         LastRepliesBuilder repliesBuilder = new LastRepliesBuilder();
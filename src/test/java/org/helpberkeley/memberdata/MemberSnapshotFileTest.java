@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemberSnapshotFileTest extends TestBase {
+
+    @Test
+    public void roundTripTest() throws IOException {
+        List<User> users = new Loader(createApiSimulator()).load();
+        assertThat(users).isNotEmpty();
+
+        List<User> snapshotUsers = MemberSnapshotFile.decode(ByteBuffer.wrap(MemberSnapshotFile.encode(users, 0, 0)));
+        assertThat(snapshotUsers).containsExactlyElementsOf(users);
+
+        for (int index = 0; index < users.size(); index++) {
+            User user = users.get(index);
+            User snapshotUser = snapshotUsers.get(index);
+            assertThat(snapshotUser.groupOwnerships()).isEqualTo(user.groupOwnerships());
+            assertThat(snapshotUser.getDataErrors()).isEqualTo(user.getDataErrors());
+            assertThat(snapshotUser.getEmailVerified()).isEqualTo(user.getEmailVerified());
+        }
+    }
+
+    @Test
+    public void nullFieldsTest() throws IOException {
+        User user = User.restoreUser(TEST_NAME_1, TEST_USER_NAME_1, TEST_ID_1, TEST_ADDRESS_1,
+                Constants.BERKELEY, TEST_PHONE_1, TEST_ALT_PHONE_1, TEST_NEIGHBORHOOD_1, null,
+                null, null, TEST_VOLUNTEER_REQUEST_1, TEST_REFERRAL_1, null,
+                List.of(), List.of(), List.of("Missing emailVerified field"));
+
+        List<User> snapshotUsers =
+                MemberSnapshotFile.decode(ByteBuffer.wrap(MemberSnapshotFile.encode(List.of(user), 0, 0)));
+        assertThat(snapshotUsers).hasSize(1);
+        User snapshotUser = snapshotUsers.get(0);
+        assertThat(snapshotUser.getCreateTime()).isNull();
+        assertThat(snapshotUser.isCondo()).isNull();
+        assertThat(snapshotUser.hasConsumerRequest()).isNull();
+        assertThat(snapshotUser.getEmailVerified()).isNull();
+        assertThat(snapshotUser.getDataErrors()).containsExactly("Missing emailVerified field");
+    }
+
+    @Test
+    public void loadTest() throws UserException, IOException {
+        Path csvFile = Files.createTempFile("member-snapshot", ".csv");
+        Path snapshotFile = Paths.get(MemberSnapshotFile.snapshotFileName(csvFile.toString()));
+        try {
+            String csvData = new UserExporter(List.of(createTestUser1(), createTestUser2())).allMembersRaw();
+            Files.writeString(csvFile, csvData);
+            List<User> users = HBParser.users(csvData);
+
+            assertThat(MemberSnapshotFile.read(csvFile.toString())).isNull();
+
+            MemberSnapshotFile.write(csvFile.toString(), users);
+            assertThat(snapshotFile).exists();
+            assertThat(MemberSnapshotFile.read(csvFile.toString())).containsExactlyElementsOf(users);
+            assertThat(MemberSnapshotFile.load(csvFile.toString())).containsExactlyElementsOf(users);
+
+            // A changed CSV file is parsed, rather than using the out of date snapshot
+            String changedCSVData = new UserExporter(List.of(createTestUser3())).allMembersRaw();
+            Files.writeString(csvFile, changedCSVData);
+            assertThat(MemberSnapshotFile.read(csvFile.toString())).isNull();
+            assertThat(MemberSnapshotFile.load(csvFile.toString())).containsExactly(createTestUser3());
+        } finally {
+            Files.deleteIfExists(csvFile);
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    @Test
+    public void corruptSnapshotTest() throws UserException, IOException {
+        Path csvFile = Files.createTempFile("member-snapshot", ".csv");
+        Path snapshotFile = Paths.get(MemberSnapshotFile.snapshotFileName(csvFile.toString()));
+        try {
+            String csvData = new UserExporter(List.of(createTestUser1(), createTestUser2())).allMembersRaw();
+            Files.writeString(csvFile, csvData);
+            List<User> users = HBParser.users(csvData);
+            MemberSnapshotFile.write(csvFile.toString(), users);
+
+            // Truncate the snapshot, keeping a header that matches the CSV file
+            byte[] snapshot = Files.readAllBytes(snapshotFile);
+            Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length - 1));
+            assertThat(MemberSnapshotFile.read(csvFile.toString())).isNull();
+            assertThat(MemberSnapshotFile.load(csvFile.toString())).containsExactlyElementsOf(users);
+
+            // Garble the record counts
+            for (int index = 24; index < 40; index++) {
+                snapshot[index] = (byte) 0x7f;
+            }
+            Files.write(snapshotFile, snapshot);
+            assertThat(MemberSnapshotFile.read(csvFile.toString())).isNull();
+            assertThat(MemberSnapshotFile.load(csvFile.toString())).containsExactlyElementsOf(users);
+        } finally {
+            Files.deleteIfExists(csvFile);
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemberSnapshotTest extends TestBase {
+
+    @Test
+    public void snapshotTest() throws UserException, IOException {
+        User u1 = createTestUser1();
+        User u2 = createTestUser2();
+
+        Path usersFile = Files.createTempFile("member-snapshot", ".csv");
+        try {
+            Files.writeString(usersFile, new UserExporter(List.of(u1)).allMembersRaw());
+            MemberSnapshot.clear();
+
+            Map<String, User> users = MemberSnapshot.users(usersFile.toString());
+            assertThat(users).containsOnlyKeys(u1.getUserName());
+            assertThat(MemberSnapshot.getMisses()).isEqualTo(1);
+
+            // Unchanged file
+            assertThat(MemberSnapshot.users(usersFile.toString())).isSameAs(users);
+            assertThat(MemberSnapshot.getHits()).isEqualTo(1);
+
+            // Touched, but with the same content
+            Files.setLastModifiedTime(usersFile,
+                    FileTime.fromMillis(Files.getLastModifiedTime(usersFile).toMillis() + 10_000));
+            assertThat(MemberSnapshot.users(usersFile.toString())).isSameAs(users);
+            assertThat(MemberSnapshot.getHits()).isEqualTo(2);
+            assertThat(MemberSnapshot.getMisses()).isEqualTo(1);
+
+            // Changed content
+            Files.writeString(usersFile, new UserExporter(List.of(u1, u2)).allMembersRaw());
+            Map<String, User> changed = MemberSnapshot.users(usersFile.toString());
+            assertThat(changed).containsOnlyKeys(u1.getUserName(), u2.getUserName());
+            assertThat(MemberSnapshot.getMisses()).isEqualTo(2);
+        } finally {
+            Files.deleteIfExists(usersFile);
+            MemberSnapshot.clear();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.helpberkeley.memberdata.v300.DriverPostFormatV300;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message block parsing and driver, group and table post rendering, driven by the
+ * format posts and routed delivery fixtures used by the DriverPost tests.
+ * The fixture drivers are repeated scale times to model larger runs.
+ *
+ * The posts counter is reported as posts/second.  For allocation per post,
+ * run with the gc profiler and divide gc.alloc.rate.norm by the fixture driver
+ * count times scale (one post per op for the group and table benchmarks):
+ *
+ *     mvn -Pbenchmark test-compile exec:exec -Djmh.args="MessageBlock -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBlockBenchmark {
+
+    static final Map<String, String> ROUTED_DELIVERIES = Map.of(
+            "v200", "routed-deliveries-v200.csv",
+            "v300", "routed-deliveries-v300.csv");
+
+    @State(Scope.Benchmark)
+    public static class Formats {
+
+        @Param({ "v200", "v300" })
+        public String version;
+
+        @Param({ "1", "10", "100" })
+        public int scale;
+
+        DriverPostFormat driverPostFormat;
+
+        @Setup
+        public void setup() {
+            driverPostFormat = createFormat(ROUTED_DELIVERIES.get(version), scale);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TableFormats {
+
+        @Param({ "1", "10", "100" })
+        public int scale;
+
+        DriverPostFormatV300 driverPostFormat;
+
+        @Setup
+        public void setup() {
+            driverPostFormat = (DriverPostFormatV300) createFormat(ROUTED_DELIVERIES.get("v300"), scale);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Blocks {
+
+        @Param({ "v200", "v300" })
+        public String version;
+
+        final List<MessageBlock> messageBlocks = new ArrayList<>();
+
+        @Setup
+        public void setup() {
+            DriverPostFormat driverPostFormat = createFormat(ROUTED_DELIVERIES.get(version), 1);
+            messageBlocks.addAll(driverPostFormat.driverPostMessageBlocks);
+            messageBlocks.addAll(driverPostFormat.groupInstructionMessageBlocks);
+            messageBlocks.addAll(driverPostFormat.backupDriverMessageBlocks);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Posts {
+
+        public long posts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            posts = 0;
+        }
+    }
+
+    static DriverPostFormat createFormat(final String routedDeliveriesFile, int scale) {
+        TestBase.installHttpClientSimulatorFactory();
+        TestBase testBase = new TestBase();
+        ApiClient apiClient = testBase.createApiSimulator();
+        Map<String, User> users = new Tables(new Loader(apiClient).load()).mapByUserName();
+        DriverPostFormat driverPostFormat = DriverPostFormat.create(
+                apiClient, users, testBase.readResourceFile(routedDeliveriesFile));
+
+        List<Driver> drivers = new ArrayList<>();
+        for (int copy = 0; copy < scale; copy++) {
+            drivers.addAll(driverPostFormat.drivers);
+        }
+        driverPostFormat.drivers = drivers;
+        return driverPostFormat;
+    }
+
+    /**
+     * Full lexer/parser pass over every fixture block, bypassing MessageBlockCache.
+     */
+    @Benchmark
+    public void parse(Blocks blocks, Blackhole blackhole) {
+        MessageBlockCache.clear();
+        for (MessageBlock block : blocks.messageBlocks) {
+            MessageBlock messageBlock = new MessageBlock(block.topic, block.postNumber, block.raw);
+            messageBlock.parse();
+            blackhole.consume(messageBlock);
+        }
+    }
+
+    /**
+     * Repeat parses of unchanged blocks, served by MessageBlockCache.
+     */
+    @Benchmark
+    public void parseCached(Blocks blocks, Blackhole blackhole) {
+        for (MessageBlock block : blocks.messageBlocks) {
+            MessageBlock messageBlock = new MessageBlock(block.topic, block.postNumber, block.raw);
+            messageBlock.parse();
+            blackhole.consume(messageBlock);
+        }
+    }
+
+    @Benchmark
+    public List<String> driverPosts(Formats formats, Posts posts) {
+        List<String> driverPosts = formats.driverPostFormat.generateDriverPosts();
+        posts.posts += driverPosts.size();
+        return driverPosts;
+    }
+
+    @Benchmark
+    public String groupInstructionsPost(Formats formats, Posts posts) {
+        posts.posts++;
+        return formats.driverPostFormat.generateGroupInstructionsPost();
+    }
+
+    @Benchmark
+    public String driversTablePost(TableFormats formats, Posts posts) {
+        posts.posts++;
+        return formats.driverPostFormat.generateDriversTablePost();
+    }
+
+    @Benchmark
+    public String ordersTablePost(TableFormats formats, Posts posts) {
+        posts.posts++;
+        return formats.driverPostFormat.generateOrdersTablePost();
+    }
+}
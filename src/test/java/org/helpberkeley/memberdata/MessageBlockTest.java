@@ -412,4 +412,53 @@ public class MessageBlockTest extends TestBase {
                     "}\n" +
                     "^\n\n");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cachedParseTest() {
+        MessageBlockCache.clear();
+        String block = "[cached]\n"
+                + "IF ${consumer.isCondo} THEN { \"condo\" }\n"
+                + "LOOP &{consumer.items} { &{item.name} }\n";
+
+        MessageBlock first = new MessageBlock(7, 3, block);
+        first.parse();
+        assertThat(MessageBlockCache.getMisses()).isEqualTo(1);
+        assertThat(MessageBlockCache.getHits()).isEqualTo(0);
+
+        MessageBlock second = new MessageBlock(7, 3, block);
+        second.parse();
+        assertThat(MessageBlockCache.getHits()).isEqualTo(1);
+        assertThat(second.getName()).isEqualTo("cached");
+        assertThat(second.getElements()).containsExactlyElementsOf(first.getElements());
+
+        // Different post, or changed content, is parsed again
+        new MessageBlock(7, 4, block).parse();
+        MessageBlock changed = new MessageBlock(7, 3, block.replace("condo", "house"));
+        changed.parse();
+        assertThat(MessageBlockCache.getMisses()).isEqualTo(3);
+        assertThat(changed.getElements()).isNotEqualTo(first.getElements());
+        assertThat(MessageBlockCache.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void cacheEvictionTest() {
+        MessageBlockCache.clear();
+        for (int post = 0; post <= MessageBlockCache.MAX_ENTRIES; post++) {
+            new MessageBlock(8, post, "[evict]\n\"text\"\n").parse();
+        }
+        assertThat(MessageBlockCache.size()).isEqualTo(MessageBlockCache.MAX_ENTRIES);
+
+        // The oldest entry was evicted
+        new MessageBlock(8, 0, "[evict]\n\"text\"\n").parse();
+        assertThat(MessageBlockCache.getHits()).isEqualTo(0);
+    }
+
+    @Test
+    public void parseErrorNotCachedTest() {
+        MessageBlockCache.clear();
+        String block = "";
+        assertThat(catchThrowable(new MessageBlock(9, 1, block)::parse)).isInstanceOf(MemberDataException.class);
+        assertThat(catchThrowable(new MessageBlock(9, 1, block)::parse)).isInstanceOf(MemberDataException.class);
+        assertThat(MessageBlockCache.size()).isEqualTo(0);
+    }
+}
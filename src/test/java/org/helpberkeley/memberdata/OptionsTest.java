@@ -212,4 +212,31 @@ public class OptionsTest extends TestBase {
         assertThat(options.getCommand()).isEqualTo(Options.COMMAND_ONE_KITCHEN_WORKFLOW);
         assertThat(options.postStatus()).isFalse();
     }
+
+    @Test
+    public void servePollSecondsTest() {
+        Options options = new Options(new String[] { Options.COMMAND_SERVE, TEST_FILE_NAME, "30" });
+        options.parse();
+        assertThat(options.getCommand()).isEqualTo(Options.COMMAND_SERVE);
+        assertThat(options.getFileName()).isEqualTo(TEST_FILE_NAME);
+        assertThat(options.getPollSeconds()).isEqualTo(30);
+    }
+
+    @Test
+    public void serveDefaultPollSecondsTest() {
+        Options options = new Options(new String[] { Options.COMMAND_SERVE, TEST_FILE_NAME });
+        options.parse();
+        assertThat(options.getCommand()).isEqualTo(Options.COMMAND_SERVE);
+        assertThat(options.getPollSeconds()).isEqualTo(Options.DEFAULT_POLL_SECONDS);
+    }
+
+    @Test
+    public void serveBadPollSecondsTest() {
+        for (String seconds : new String[] { "soon", "-1", "0", "1.5" }) {
+            Options options = new Options(new String[] { Options.COMMAND_SERVE, TEST_FILE_NAME, seconds });
+            Throwable thrown = catchThrowable(options::parse);
+            assertThat(thrown).isInstanceOf(Options.OptionsException.class);
+            assertThat(thrown).hasMessageContaining(Options.BAD_POLL_INTERVAL + seconds);
+        }
+    }
 }
@@ -73,4 +73,28 @@ public class OrderHistoryTest extends TestBase {
         UserOrder userOrder = new UserOrder("unregisteredUser", "", "", "", "");
         orderHistory.merge("20202/01/02", List.of(userOrder), usersByUserName);
     }
+
+    @Test
+    public void fullMergeInDateOrderTest() {
+        ApiClient apiClient = createApiSimulator();
+        Map<String, User> usersByUserName = new Tables(new Loader(apiClient).load()).mapByUserName();
+        OrderHistoryDataPosts dataPosts =
+                new OrderHistoryDataPosts(apiClient, Constants.QUERY_GET_ORDER_HISTORY_DATA_POSTS);
+
+        // Newer than all of the data posts, forces a full rebuild
+        OrderHistory orderHistory = new OrderHistory("2099/01/01");
+        orderHistory.merge(dataPosts, usersByUserName);
+
+        // Merge the same posts one at a time, in date order
+        OrderHistory expected = new OrderHistory("2000/01/01");
+        for (OrderHistoryData data : dataPosts.getAllPosts().values()) {
+            UploadFile uploadFile = data.getUploadFile();
+            String deliveries = apiClient.downloadFile(uploadFile.getFileName());
+            expected.merge(data.getDate(),
+                    HBParser.parseOrders(uploadFile.getOriginalFileName(), deliveries), usersByUserName);
+        }
+
+        assertThat(orderHistory.historyThroughDate).isEqualTo("2021/01/01");
+        assertThat(orderHistory.export()).isEqualTo(expected.export());
+    }
 }
@@ -0,0 +1,162 @@
+//
+// Copyright (c) 2024 helpberkeley.org
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.helpberkeley.memberdata;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class PostPublisherTest extends TestBase {
+
+    private static final Topic TOPIC = new Topic("Publisher Test", 4242);
+
+    /**
+     * Records the raw content of every post, optionally failing one of them.
+     */
+    private static class RecordingSimulator extends HttpClientSimulator {
+
+        private final List<String> posts = Collections.synchronizedList(new ArrayList<>());
+        private final String failingRaw;
+
+        RecordingSimulator(String failingRaw) {
+            this.failingRaw = failingRaw;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request,
+                HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException {
+
+            String body = body(request);
+            if (body.contains(failingRaw)) {
+                return (HttpResponse<T>) new HttpResponseSimulator<>("simulated failure", 500);
+            }
+            posts.add(body);
+            return super.send(request, responseBodyHandler);
+        }
+
+        private static String body(HttpRequest request) {
+            StringBuilder body = new StringBuilder();
+            request.bodyPublisher().orElseThrow().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    body.append(StandardCharsets.UTF_8.decode(item));
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            return body.toString();
+        }
+    }
+
+    @Test
+    public void postsSentInOrderTest() {
+        RecordingSimulator simulator = new RecordingSimulator("never fails");
+        ApiClient apiClient = new ApiClient(Main.loadProperties(), simulator);
+        List<CompletableFuture<PostResponse>> responses = new ArrayList<>();
+
+        try (PostPublisher publisher = new PostPublisher(apiClient, TOPIC)) {
+            for (int index = 0; index < 20; index++) {
+                responses.add(publisher.publish("Test Post", "post-" + index + "-body"));
+            }
+
+            for (CompletableFuture<PostResponse> response : responses) {
+                assertThat(Futures.waitFor(response)).isNotNull();
+            }
+        }
+
+        assertThat(simulator.posts).hasSize(20);
+        for (int index = 0; index < 20; index++) {
+            assertThat(simulator.posts.get(index)).contains("post-" + index + "-body");
+            assertThat(simulator.posts.get(index)).contains(String.valueOf(TOPIC.getId()));
+        }
+    }
+
+    @Test
+    public void failureStopsLaterPostsTest() {
+        RecordingSimulator simulator = new RecordingSimulator("post-2-body");
+        ApiClient apiClient = new ApiClient(Main.loadProperties(), simulator);
+        List<CompletableFuture<PostResponse>> responses = new ArrayList<>();
+
+        try (PostPublisher publisher = new PostPublisher(apiClient, TOPIC)) {
+            for (int index = 0; index < 5; index++) {
+                responses.add(publisher.publish("Test Post", "post-" + index + "-body"));
+            }
+
+            assertThat(Futures.waitFor(responses.get(0))).isNotNull();
+            assertThat(Futures.waitFor(responses.get(1))).isNotNull();
+            for (CompletableFuture<PostResponse> response : responses.subList(2, 5)) {
+                assertThatThrownBy(() -> Futures.waitFor(response))
+                        .isInstanceOf(MemberDataException.class)
+                        .hasMessageContaining("simulated failure");
+            }
+        }
+
+        assertThat(simulator.posts).hasSize(2);
+    }
+
+    @Test
+    public void renderFailureSendsQueuedPostsTest() {
+        RecordingSimulator simulator = new RecordingSimulator("never fails");
+        ApiClient apiClient = new ApiClient(Main.loadProperties(), simulator);
+
+        // Rendering fails after some posts are queued.  The queued posts are still sent, in order.
+        Throwable thrown = catchThrowable(() -> {
+            try (PostPublisher publisher = new PostPublisher(apiClient, TOPIC)) {
+                for (int index = 0; index < 5; index++) {
+                    publisher.publish("Test Post", "post-" + index + "-body");
+                }
+                throw new MemberDataException("simulated render failure");
+            }
+        });
+        assertThat(thrown).isInstanceOf(MemberDataException.class).hasMessage("simulated render failure");
+
+        assertThat(simulator.posts).hasSize(5);
+        for (int index = 0; index < 5; index++) {
+            assertThat(simulator.posts.get(index)).contains("post-" + index + "-body");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueryResultReaderTest extends TestBase {
+
+    @Test
+    public void usersQueryTest() {
+        QueryResultReader reader = new QueryResultReader(readResourceFile("users.json"));
+
+        assertThat(reader.getColumnCount()).isEqualTo(14);
+        assertThat(reader.getColumns()[0]).isEqualTo(Constants.COLUMN_USER_ID);
+        assertThat(reader.getColumnIndex(Constants.COLUMN_CREATE_TIME)).isEqualTo(13);
+        assertThat(reader.getColumnIndex("not-a-column")).isNull();
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.getLong(0)).isEqualTo(200);
+        assertThat(reader.getString(1)).isEqualTo("Somebody");
+        assertThat(reader.getBoolean(3)).isFalse();
+        assertThat(reader.isNull(8)).isTrue();
+        assertThat(reader.getString(8)).isNull();
+        assertThat(reader.getString(9)).isEqualTo("true");
+
+        int rows = 1;
+        while (reader.next()) {
+            rows++;
+        }
+        assertThat(rows).isEqualTo(15);
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    public void matchesParseQueryResultTest() {
+        String json = readResourceFile("group-users.json");
+        ApiQueryResult result = HBParser.parseQueryResult(json);
+        QueryResultReader reader = new QueryResultReader(json);
+
+        assertThat(reader.getColumns()).containsExactly(result.headers);
+
+        int row = 0;
+        while (reader.next()) {
+            for (int index = 0; index < reader.getColumnCount(); index++) {
+                assertThat(reader.getObject(index)).isEqualTo(result.getObject(row, index));
+            }
+            row++;
+        }
+        assertThat(row).isEqualTo(result.getRowCount());
+    }
+
+    @Test
+    public void valuesTest() {
+        String json = "{ \"columns\": [\"a\", \"b\", \"c\", \"d\"], "
+                + "\"rows\": [ [ -12, \"tab\\there \\\"quoted\\\" \\u00e9\", 1.5, [1, {\"k\": null}] ] ] }";
+        QueryResultReader reader = new QueryResultReader(json);
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.getLong(0)).isEqualTo(-12);
+        assertThat(reader.getString(1)).isEqualTo("tab\there \"quoted\" \u00e9");
+        assertThat(reader.getObject(2)).isEqualTo(1.5);
+        Object[] nested = (Object[])reader.getObject(3);
+        assertThat(nested[0]).isEqualTo(1L);
+        assertThat(((Map<?, ?>)nested[1]).get("k")).isNull();
+        assertThat(((Map<?, ?>)nested[1]).containsKey("k")).isTrue();
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    public void emptyRowsTest() {
+        QueryResultReader reader = new QueryResultReader("{\"columns\":[\"a\"],\"rows\":[]}");
+        assertThat(reader.getColumnCount()).isEqualTo(1);
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    public void typeMismatchTest() {
+        QueryResultReader reader = new QueryResultReader("{\"columns\":[\"a\"],\"rows\":[[\"x\"]]}");
+        assertThat(reader.next()).isTrue();
+        assertThatThrownBy(() -> reader.getLong(0)).isInstanceOf(MemberDataException.class);
+    }
+
+    @Test
+    public void columnCountMismatchTest() {
+        QueryResultReader reader = new QueryResultReader("{\"columns\":[\"a\",\"b\"],\"rows\":[[1]]}");
+        assertThatThrownBy(reader::next).isInstanceOf(MemberDataException.class);
+    }
+
+    @Test
+    public void rowsBeforeColumnsTest() {
+        assertThatThrownBy(() -> new QueryResultReader("{\"rows\":[[1]],\"columns\":[\"a\"]}"))
+                .isInstanceOf(MemberDataException.class);
+    }
+}
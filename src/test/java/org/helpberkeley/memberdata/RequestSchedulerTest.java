@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.junit.Test;
+
+import java.net.http.HttpResponse;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestSchedulerTest {
+
+    @Test
+    public void burstIsNotThrottledTest() {
+        RequestScheduler scheduler = new RequestScheduler(1, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            scheduler.acquire();
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+    }
+
+    @Test
+    public void throttledAfterBurstTest() {
+        // 20 milliseconds per permit
+        RequestScheduler scheduler = new RequestScheduler(3000, 2);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            scheduler.acquire();
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(80);
+    }
+
+    @Test
+    public void pauseTest() {
+        RequestScheduler scheduler = new RequestScheduler(Integer.MAX_VALUE, 1);
+
+        scheduler.pause(100);
+        long start = System.nanoTime();
+        scheduler.acquire();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    public void retryAfterSecondsTest() {
+        HttpResponse<String> response = responseWithRetryAfter("7");
+        assertThat(RequestScheduler.retryAfterMilliseconds(response)).contains(7000L);
+        assertThat(RequestScheduler.backoffMilliseconds(0, 1000, response)).isEqualTo(7000L);
+    }
+
+    @Test
+    public void retryAfterDateTest() {
+        String date = ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        HttpResponse<String> response = responseWithRetryAfter(date);
+        assertThat(RequestScheduler.retryAfterMilliseconds(response).orElseThrow()).isBetween(25000L, 30000L);
+    }
+
+    @Test
+    public void retryAfterGarbageTest() {
+        HttpResponse<String> response = responseWithRetryAfter("soon");
+        assertThat(RequestScheduler.retryAfterMilliseconds(response)).isEmpty();
+    }
+
+    @Test
+    public void exponentialBackoffTest() {
+        assertThat(RequestScheduler.backoffMilliseconds(0, 1000, null)).isBetween(500L, 1000L);
+        assertThat(RequestScheduler.backoffMilliseconds(3, 1000, null)).isBetween(4000L, 8000L);
+        assertThat(RequestScheduler.backoffMilliseconds(9, 1000, null))
+                .isLessThanOrEqualTo(RequestScheduler.MAX_BACKOFF_MILLISECONDS);
+        assertThat(RequestScheduler.backoffMilliseconds(5, 0, null)).isZero();
+    }
+
+    private HttpResponse<String> responseWithRetryAfter(String value) {
+        return new HttpClientSimulator.HttpResponseSimulator<>("", Constants.HTTP_TOO_MANY_REQUESTS,
+                Map.of("Retry-After", List.of(value)));
+    }
+}
@@ -25,6 +25,8 @@ package org.helpberkeley.memberdata;
 import org.junit.Test;
 
 import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -91,4 +93,40 @@ public abstract class RestaurantTemplateTestBase extends TestBase {
                 ControlBlock.ERROR_UNKNOWN_DIRECTIVE, badDirective, zeroOriginControlBlockEndLineNumber());
         assertThat(thrown).hasMessage(expectedError);
     }
+
+    @Test
+    public void cachedTemplateTest() {
+        RestaurantTemplateCache.clear();
+        String fileName = getClass().getSimpleName() + ".csv";
+        AtomicInteger downloads = new AtomicInteger();
+
+        Map<String, Restaurant> restaurants = RestaurantTemplateCache.restaurants(fileName, name -> {
+            downloads.incrementAndGet();
+            return getRestaurantTemplate();
+        });
+        assertThat(restaurants).isNotEmpty();
+        assertThat(RestaurantTemplateCache.getMisses()).isEqualTo(1);
+
+        Map<String, Restaurant> cached = RestaurantTemplateCache.restaurants(fileName, name -> {
+            downloads.incrementAndGet();
+            return getRestaurantTemplate();
+        });
+        assertThat(downloads.get()).isEqualTo(1);
+        assertThat(RestaurantTemplateCache.getHits()).isEqualTo(1);
+        assertThat(cached.keySet()).isEqualTo(restaurants.keySet());
+
+        // Callers get copies
+        String name = restaurants.keySet().iterator().next();
+        String emoji = cached.get(name).getEmoji();
+        assertThat(cached.get(name)).isNotSameAs(restaurants.get(name));
+        restaurants.get(name).setEmoji("modified");
+        restaurants.remove(name);
+
+        Map<String, Restaurant> again = RestaurantTemplateCache.restaurants(fileName, name1 -> {
+            throw new AssertionError("not cached");
+        });
+        assertThat(again).containsKey(name);
+        assertThat(again.get(name).getEmoji()).isEqualTo(emoji);
+        assertThat(again.get(name).getName()).isEqualTo(name);
+    }
 }
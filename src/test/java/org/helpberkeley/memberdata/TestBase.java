@@ -117,6 +117,7 @@ public class TestBase {
             Options.COMMAND_FRREG,
             Options.COMMAND_WORK_REQUESTS,
             Options.COMMAND_ONE_KITCHEN_WORKFLOW,
+            Options.COMMAND_SERVE,
     };
 
     static final String[] COMMANDS_WITH_NO_PARAMETERS = {
@@ -138,7 +139,7 @@ public class TestBase {
                 .filter(Files::isRegularFile)
                 .forEach(p -> {
                     String fileName = p.getFileName().toString();
-                    if ((fileName.endsWith(".csv") ||
+                    if ((fileName.endsWith(".csv") || fileName.endsWith("." + MemberSnapshotFile.SUFFIX) ||
                             (fileName.endsWith(".txt")) && (fileName.startsWith(Main.MEMBERDATA_ERRORS_FILE) ||
                                     fileName.startsWith("temp")))) {
                         try {
@@ -174,6 +175,8 @@ public class TestBase {
     @BeforeClass
     public static void installHttpClientSimulatorFactory() {
         ApiClient.httpClientFactory = new HttpClientSimulatorFactory();
+        // The simulator has no rate limit
+        ApiClient.requestScheduler = new RequestScheduler(Integer.MAX_VALUE, 1);
     }
 
     protected ApiClient createApiSimulator() {
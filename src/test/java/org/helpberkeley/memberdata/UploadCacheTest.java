@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class UploadCacheTest extends TestBase {
+
+    private Path cacheDirectory;
+
+    @Before
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("upload-cache");
+    }
+
+    @After
+    public void removeCacheDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void roundTripTest() {
+        UploadCache cache = new UploadCache(cacheDirectory, 1024);
+        assertThat(cache.get("abc123.csv")).isEmpty();
+        cache.put("abc123.csv", "a,b,c\n1,2,3\n");
+        assertThat(cache.get("abc123.csv")).contains("a,b,c\n1,2,3\n");
+    }
+
+    @Test
+    public void invalidFileNameNotCachedTest() {
+        UploadCache cache = new UploadCache(cacheDirectory, 1024);
+        cache.put("../escape.csv", "data\n");
+        assertThat(cache.get("../escape.csv")).isEmpty();
+        assertThat(Files.exists(cacheDirectory.resolveSibling("escape.csv"))).isFalse();
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictedTest() throws IOException {
+        UploadCache cache = new UploadCache(cacheDirectory, 25);
+        cache.put("first.csv", "0123456789\n");
+        cache.put("second.csv", "0123456789\n");
+        Files.setLastModifiedTime(cacheDirectory.resolve("first.csv"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(cacheDirectory.resolve("second.csv"), FileTime.fromMillis(2000));
+
+        // Touch first, making second the least recently used
+        assertThat(cache.get("first.csv")).isPresent();
+
+        cache.put("third.csv", "0123456789\n");
+        assertThat(cache.get("first.csv")).isPresent();
+        assertThat(cache.get("second.csv")).isEmpty();
+        assertThat(cache.get("third.csv")).isPresent();
+    }
+
+    @Test
+    public void staleTempFilesRemovedTest() throws IOException {
+        UploadCache cache = new UploadCache(cacheDirectory, 1024);
+        Path staleTemp = Files.writeString(cacheDirectory.resolve("stale.csv123.tmp"), "partial");
+        Files.setLastModifiedTime(staleTemp, FileTime.fromMillis(1000));
+        Path recentTemp = Files.writeString(cacheDirectory.resolve("recent.csv456.tmp"), "partial");
+
+        cache.put("abc123.csv", "a,b,c\n1,2,3\n");
+        assertThat(staleTemp).doesNotExist();
+        assertThat(recentTemp).exists();
+        assertThat(cache.get("abc123.csv")).contains("a,b,c\n1,2,3\n");
+
+        // Only the cached file and the in progress temp file remain
+        try (Stream<Path> paths = Files.list(cacheDirectory)) {
+            assertThat(paths).containsExactlyInAnyOrder(cacheDirectory.resolve("abc123.csv"), recentTemp);
+        }
+    }
+
+    @Test
+    public void notConfiguredTest() {
+        assertThat(UploadCache.create(null, null)).isEmpty();
+        assertThat(UploadCache.create(" ", "10")).isEmpty();
+    }
+
+    @Test
+    public void invalidSizeTest() {
+        Throwable thrown = catchThrowable(() -> UploadCache.create(cacheDirectory.toString(), "lots"));
+        assertThat(thrown).isInstanceOf(MemberDataException.class);
+        assertThat(thrown).hasMessageContaining(Constants.UPLOAD_CACHE_SIZE_PROPERTY);
+    }
+
+    @Test
+    public void downloadFileUsesCacheTest() {
+        String fileName = "cachedDownload.csv";
+        String uri = Constants.DOWNLOAD_ENDPOINT + fileName;
+
+        Properties properties = Main.loadProperties();
+        properties.setProperty(Constants.UPLOAD_CACHE_DIRECTORY_PROPERTY, cacheDirectory.toString());
+        ApiClient apiClient = new ApiClient(properties, new HttpClientSimulator());
+
+        HttpClientSimulator.setGetResponseData(uri, "a,b\r\n1,2");
+        assertThat(apiClient.downloadFile(fileName)).isEqualTo("a,b\n1,2\n");
+
+        // Uploads are immutable, a changed response must not be seen.
+        HttpClientSimulator.setGetResponseData(uri, "c,d\n3,4\n");
+        assertThat(apiClient.downloadFile(fileName)).isEqualTo("a,b\n1,2\n");
+        assertThat(Files.exists(cacheDirectory.resolve(fileName))).isTrue();
+    }
+}
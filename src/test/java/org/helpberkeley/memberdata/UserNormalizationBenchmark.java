@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024. helpberkeley.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package org.helpberkeley.memberdata;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the address, city and phone normalization used by User.createUser
+ * with the replaceAll() based implementation it replaced.
+ *
+ *     mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserNormalization"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserNormalizationBenchmark {
+
+    static final List<String> CITIES = List.of(
+            "Berkeley", "berkeley ", "Berkly", "BERKELEY", "Albany", "albanyy", "Kensington",
+            "Kensingtn", "Oakland", "El Cerrito", "San Francisco", "Emeryville");
+
+    static final List<String> ADDRESSES = List.of(
+            "1 Berkeley Square Berkeley", "542 11dy 7th Street", "1200 Solano Ave Albany",
+            "100 Arlington Ave Kensington", "2200 Shattuck Ave, Apt 3", "1 Albany Terrace");
+
+    static final List<String> PHONES = List.of(
+            "510-555-1212", "(510) 555 1212", "1-510-555-1212", "555-1212", "+1 (510) 555.1212 x", "none");
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String city : CITIES) {
+            blackhole.consume(RegexNormalization.supportedCity(city));
+        }
+        for (String address : ADDRESSES) {
+            blackhole.consume(RegexNormalization.compress(address.trim().toLowerCase(), "[aeiou]"));
+        }
+        for (String phone : PHONES) {
+            blackhole.consume(phone.replaceAll("\\D", ""));
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String city : CITIES) {
+            blackhole.consume(User.supportedCity(city));
+        }
+        for (String address : ADDRESSES) {
+            blackhole.consume(User.compress(address.trim().toLowerCase(), "aeiou"));
+        }
+        for (String phone : PHONES) {
+            blackhole.consume(User.digits(phone));
+        }
+    }
+
+    @Benchmark
+    public void createUser(Blackhole blackhole) throws UserException {
+        for (int index = 0; index < CITIES.size(); index++) {
+            try {
+                blackhole.consume(User.createUser("Name", "user" + index, index,
+                        ADDRESSES.get(index % ADDRESSES.size()), CITIES.get(index),
+                        PHONES.get(index % PHONES.size()), PHONES.get((index + 1) % PHONES.size()),
+                        "neighborhood", "2020/01/01 00:00:00", false, false, null, null, true));
+            } catch (UserException ex) {
+                blackhole.consume(ex.user);
+            }
+        }
+    }
+
+    /**
+     * The previous implementation, one regex compile per replaceAll() call.
+     */
+    static final class RegexNormalization {
+
+        static String compress(final String value, final String droppedClass) {
+            return value.replaceAll(droppedClass, "").replaceAll("(.)\\1+", "$1");
+        }
+
+        static String supportedCity(final String city) {
+            String cityName = city.toLowerCase().trim();
+
+            switch (compress(cityName, "[aeiou]")) {
+                case "brkly": case "brkyl": case "brlky": case "brlyk": case "brky":
+                case "bkrly": case "bkryl": case "blrky": case "blryk":
+                case "bkly": case "blky": case "bkl": case "bky": case "blk": case "bly":
+                    return Constants.BERKELEY;
+            }
+
+            if (cityName.startsWith("a")) {
+                switch (compress(cityName, "[aeiou]")) {
+                    case "blny": case "lbny": case "lbn": case "bny": case "bnny":
+                        return Constants.ALBANY;
+                }
+            }
+
+            if (cityName.startsWith("k")) {
+                switch (compress(cityName, "[aeiouy]")) {
+                    case "knsngtn": case "knsgntn": case "knstgn": case "knsgtn":
+                    case "knstn": case "knsntn": case "ksntn": case "ksgtn":
+                        return Constants.KENSINGTON;
+                }
+            }
+
+            return null;
+        }
+    }
+}
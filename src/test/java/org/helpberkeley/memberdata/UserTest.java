@@ -945,4 +945,26 @@ public class UserTest extends TestBase {
             assertThat(u1.getAddress()).isEqualTo(address);
         }
     }
+
+    @Test
+    public void normalizationMatchesRegexTest() {
+        List<String> values = new ArrayList<>(UserNormalizationBenchmark.CITIES);
+        values.addAll(UserNormalizationBenchmark.ADDRESSES);
+        values.addAll(UserNormalizationBenchmark.PHONES);
+        values.addAll(List.of("", "aaa", "bookkeeper", "a\n\nb", "x\r\r\ny", "\uD835\uDCB3\uD835\uDCB3",
+                "\u0663\u0664 digits", "kkeensingtonn", "Berkeley\u00A0"));
+
+        for (String value : values) {
+            assertThat(User.compress(value, "aeiou"))
+                    .as(value)
+                    .isEqualTo(UserNormalizationBenchmark.RegexNormalization.compress(value, "[aeiou]"));
+            assertThat(User.compress(value, "aeiouy"))
+                    .as(value)
+                    .isEqualTo(UserNormalizationBenchmark.RegexNormalization.compress(value, "[aeiouy]"));
+            assertThat(User.digits(value)).as(value).isEqualTo(value.replaceAll("\\D", ""));
+            assertThat(User.supportedCity(value))
+                    .as(value)
+                    .isEqualTo(UserNormalizationBenchmark.RegexNormalization.supportedCity(value));
+        }
+    }
 }